@@ -0,0 +1,40 @@
+package com.cit.submit.benchmark;
+
+import com.cit.submit.service.EmailService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the verification and OAuth welcome emails. Run with {@code -prof gc}
+ * to see bytes allocated per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private final String userName = "Juan Dela Cruz";
+    private final String verificationLink = "https://deliverease.cit.edu/verify/Zx8kQ2mN4pR7tV1wY3aB5cD6eF9gH0jK";
+
+    @Benchmark
+    public String buildVerificationEmail() {
+        return EmailService.buildVerificationEmail(userName, verificationLink);
+    }
+
+    @Benchmark
+    public String buildOAuthVerificationEmail() {
+        return EmailService.buildOAuthVerificationEmail(userName);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cit.submit.benchmark;
+
+import com.cit.submit.service.InstitutionDomainMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Institutional email checks for an exact domain match, a subdomain match and a
+ * rejected address, with the original 7 domains and with several hundred partner
+ * domains. Compares the original substring/stream scan with
+ * {@link InstitutionDomainMatcher}; run with {@code -prof gc} to see allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidationBenchmark {
+
+    private static final List<String> BUILT_IN_DOMAINS = Arrays.asList(
+            "school.edu", "university.edu", "cit.edu", "citc.edu.ph", "ateneo.edu", "dlsu.edu.ph", "upd.edu.ph");
+
+    @Param({"juan.delacruz@cit.edu", "maria.santos@students.dlsu.edu.ph", "someone@gmail.com"})
+    public String email;
+
+    @Param({"7", "500"})
+    public int domainCount;
+
+    private List<String> domains;
+    private InstitutionDomainMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        domains = new ArrayList<>(BUILT_IN_DOMAINS);
+        for (int i = domains.size(); i < domainCount; i++) {
+            domains.add("partner" + i + ".edu.ph");
+        }
+        matcher = InstitutionDomainMatcher.of(domains);
+    }
+
+    @Benchmark
+    public boolean legacyStreamScan() {
+        if (email == null || !email.contains("@")) {
+            return false;
+        }
+        String domain = email.substring(email.indexOf("@") + 1).toLowerCase();
+        return domains.stream()
+                .anyMatch(allowedDomain -> domain.equals(allowedDomain) || domain.endsWith("." + allowedDomain));
+    }
+
+    @Benchmark
+    public boolean suffixHashMatcher() {
+        return matcher.matchesEmail(email);
+    }
+}
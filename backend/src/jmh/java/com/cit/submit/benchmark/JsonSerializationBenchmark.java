@@ -0,0 +1,66 @@
+package com.cit.submit.benchmark;
+
+import com.cit.submit.dto.LoginResponse;
+import com.cit.submit.dto.UserAdminResponse;
+import com.cit.submit.model.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the login response and of a page of admin user rows,
+ * using one shared mapper the way Spring MVC's message converter does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int users;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private LoginResponse loginResponse;
+    private List<UserAdminResponse> userPage;
+
+    @Setup
+    public void setUp() {
+        loginResponse = new LoginResponse("AQAAAAAAADA5AAEAAAAAZ2Vl.c2lnbmF0dXJlLWJ5dGVzLWhlcmUtMzItYnl0ZXM",
+                new LoginResponse.UserInfo(12345L, "juan.delacruz@cit.edu", "MEMBER", "Juan Dela Cruz"));
+
+        String createdAt = LocalDateTime.of(2025, 8, 11, 9, 30).toString();
+        userPage = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userPage.add(new UserAdminResponse((long) i, "Student " + i, "student" + i + "@cit.edu", UserRole.MEMBER,
+                    "22-" + (10000 + i), null, "TEAM-" + (i % 25), null, true, true, false, "ACTIVE",
+                    createdAt, null, 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] loginResponse() {
+        return mapper.writeValueAsBytes(loginResponse);
+    }
+
+    @Benchmark
+    public byte[] userAdminResponseList() {
+        return mapper.writeValueAsBytes(userPage);
+    }
+}
@@ -0,0 +1,332 @@
+package com.cit.submit.benchmark;
+
+import com.cit.submit.BackendApplication;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.repository.UserRepository;
+import com.cit.submit.service.PasswordHashingService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test for {@code POST /api/auth/login} and
+ * {@code GET /api/users/{id}}, run once with platform request threads and once with
+ * virtual threads. A third run measures {@code GET /api/users/{id}} while
+ * {@code load.storm-concurrency} more clients hammer the login endpoint, to show
+ * that BCrypt work on the password hashing pool does not slow other endpoints. Not a
+ * JMH benchmark: it boots the whole application on an in-memory H2 database whose
+ * prepared statements each sleep for {@code load.db-latency-ms}, standing in for the
+ * round trip to the hosted Postgres.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@load-test -Dload.concurrency=400 -Dload.seconds=20 -Dload.storm-concurrency=400
+ * </pre>
+ *
+ * Prints throughput and p50/p99 latency per endpoint and mode, and writes them to
+ * {@code target/load-result-<build timestamp>.json}.
+ */
+public final class RequestThroughputBenchmark {
+
+    private static final String EMAIL = "load.tester@cit.edu";
+    private static final String PASSWORD = "load-test-password";
+
+    private RequestThroughputBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 200);
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+        int seconds = Integer.getInteger("load.seconds", 15);
+        int dbLatencyMillis = Integer.getInteger("load.db-latency-ms", 5);
+        int stormConcurrency = Integer.getInteger("load.storm-concurrency", concurrency);
+        Path output = Path.of(System.getProperty("load.output", "target/load-result.json"));
+
+        List<Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual, dbLatencyMillis)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                seedUser(context);
+                Endpoints endpoints = new Endpoints(port);
+
+                results.add(run("login", virtual, concurrency, warmupSeconds, seconds, endpoints::login, null, 0));
+                results.add(run("getUser", virtual, concurrency, warmupSeconds, seconds, endpoints::getUser, null, 0));
+                results.add(run("getUser+storm", virtual, concurrency, warmupSeconds, seconds, endpoints::getUser,
+                        endpoints::login, stormConcurrency));
+            }
+        }
+
+        System.out.printf("%n%-14s %-9s %12s %10s %10s %8s%n", "endpoint", "threads", "req/s", "p50 ms", "p99 ms", "errors");
+        for (Result r : results) {
+            System.out.printf(Locale.ROOT, "%-14s %-9s %12.1f %10.2f %10.2f %8d%n",
+                    r.endpoint, r.mode(), r.throughput(), r.p50Millis(), r.p99Millis(), r.errors);
+        }
+        writeJson(output, results, concurrency, seconds, dbLatencyMillis);
+        System.out.println("\nResults written to " + output.toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int dbLatencyMillis) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtual));
+        properties.put("spring.datasource.url", "jdbc:h2:mem:load-" + virtual + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.properties.hibernate.auto_quote_keyword", "true");
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("app.security.token.secret", "load-test-secret");
+        // Every client signs in as the same user from localhost
+        properties.put("app.security.rate-limit.ip.capacity", String.valueOf(Integer.MAX_VALUE));
+        properties.put("app.security.rate-limit.email.capacity", String.valueOf(Integer.MAX_VALUE));
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.cit.submit", "WARN");
+
+        // Passed as command-line arguments so they override application.properties
+        String[] args = properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new LatencyInjector(dbLatencyMillis)))
+                .run(args);
+    }
+
+    private static void seedUser(ConfigurableApplicationContext context) throws Exception {
+        UserRepository users = context.getBean(UserRepository.class);
+        User user = new User();
+        user.setEmail(EMAIL);
+        user.setName("Load Tester");
+        user.setRole(UserRole.MEMBER);
+        user.setPasswordHash(context.getBean(PasswordHashingService.class).hash(PASSWORD));
+        user.setEmailVerified(true);
+        user.setAccountStatus("ACTIVE");
+        users.save(user);
+    }
+
+    // background, if given, is called in a loop by backgroundClients unmeasured clients
+    private static Result run(String endpoint, boolean virtual, int concurrency, int warmupSeconds, int seconds,
+                              Function<HttpClient, Integer> call,
+                              Function<HttpClient, Integer> background, int backgroundClients) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long measureUntil = measureFrom + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<long[]>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; background != null && i < backgroundClients; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        background.apply(client);
+                    }
+                });
+            }
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        int status = call.apply(client);
+                        long end = System.nanoTime();
+                        if (now < measureFrom) {
+                            continue;
+                        }
+                        if (status / 100 != 2) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = end - now;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+
+        long[] all = clients.stream().map(RequestThroughputBenchmark::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(endpoint, virtual, all.length, errors.get(), seconds,
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void writeJson(Path output, List<Result> results, int concurrency, int seconds, int dbLatencyMillis)
+            throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"timestamp\":\"").append(Instant.now()).append("\",")
+                .append("\"concurrency\":").append(concurrency).append(',')
+                .append("\"seconds\":").append(seconds).append(',')
+                .append("\"dbLatencyMs\":").append(dbLatencyMillis).append(',')
+                .append("\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append(i == 0 ? "" : ",")
+                    .append(String.format(Locale.ROOT,
+                            "{\"endpoint\":\"%s\",\"threads\":\"%s\",\"requests\":%d,\"errors\":%d,"
+                                    + "\"throughput\":%.1f,\"p50Ms\":%.3f,\"p99Ms\":%.3f}",
+                            r.endpoint, r.mode(), r.requests, r.errors, r.throughput(), r.p50Millis(), r.p99Millis()));
+        }
+        json.append("]}\n");
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json);
+    }
+
+    private record Result(String endpoint, boolean virtual, long requests, long errors, int seconds,
+                          long p50Nanos, long p99Nanos) {
+
+        String mode() {
+            return virtual ? "virtual" : "platform";
+        }
+
+        double throughput() {
+            return (double) requests / seconds;
+        }
+
+        double p50Millis() {
+            return p50Nanos / 1e6;
+        }
+
+        double p99Millis() {
+            return p99Nanos / 1e6;
+        }
+    }
+
+    private static final class Endpoints {
+
+        private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+        private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+        private final URI login;
+        private final URI user;
+        private final String authorization;
+
+        Endpoints(int port) throws Exception {
+            String base = "http://localhost:" + port;
+            this.login = URI.create(base + "/api/auth/login");
+
+            HttpResponse<String> response = HttpClient.newHttpClient()
+                    .send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+            Matcher token = TOKEN.matcher(response.body());
+            Matcher id = ID.matcher(response.body());
+            if (response.statusCode() != 200 || !token.find() || !id.find()) {
+                throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+            }
+            this.authorization = "Bearer " + token.group(1);
+            this.user = URI.create(base + "/api/users/" + id.group(1));
+        }
+
+        int login(HttpClient client) {
+            return send(client, loginRequest());
+        }
+
+        int getUser(HttpClient client) {
+            return send(client, HttpRequest.newBuilder(user).header("Authorization", authorization).GET().build());
+        }
+
+        private HttpRequest loginRequest() {
+            return HttpRequest.newBuilder(login)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build();
+        }
+
+        private static int send(HttpClient client, HttpRequest request) {
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                return 599;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 599;
+            }
+        }
+    }
+
+    // Adds a fixed delay to every prepared statement, approximating a remote database
+    private static final class LatencyInjector implements BeanPostProcessor {
+
+        private final long latencyMillis;
+
+        LatencyInjector(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || !beanName.equals("dataSource") || latencyMillis <= 0) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return delayed(super.getConnection());
+                }
+            };
+        }
+
+        private Connection delayed(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement")) {
+                            Thread.sleep(latencyMillis);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.cit.submit.benchmark;
+
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.security.AccessTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original {@code base64(id:email:millis).UUID} token checks (split on
+ * "\\.", Base64-decode, split on ":") with {@link AccessTokenService#verify(String)}.
+ * Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private AccessTokenService accessTokenService;
+    private String signedHeader;
+    private String legacyHeader;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(12345L);
+        user.setEmail("juan.delacruz@cit.edu");
+        user.setRole(UserRole.MEMBER);
+        user.setActive(true);
+
+        accessTokenService = new AccessTokenService("benchmark-secret", 86_400_000L);
+        signedHeader = "Bearer " + accessTokenService.issue(user);
+
+        String payload = user.getId() + ":" + user.getEmail() + ":" + System.currentTimeMillis();
+        legacyHeader = "Bearer " + Base64.getEncoder().encodeToString(payload.getBytes()) + "." + UUID.randomUUID();
+    }
+
+    @Benchmark
+    public Long legacySplitAndDecode() {
+        String token = LegacyTokenFormat.extractTokenFromRequest(legacyHeader);
+        if (token != null && LegacyTokenFormat.validateToken(token)) {
+            return LegacyTokenFormat.extractUserIdFromToken(token);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public AccessTokenService.TokenClaims signedSinglePass() {
+        return accessTokenService.verify(signedHeader);
+    }
+
+    // Verbatim copy of the checks JwtAuthenticationFilter used before signed tokens
+    static final class LegacyTokenFormat {
+
+        static String extractTokenFromRequest(String bearerToken) {
+            if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+                return bearerToken.substring(7);
+            }
+            return null;
+        }
+
+        static boolean validateToken(String token) {
+            try {
+                String[] parts = token.split("\\.");
+                if (parts.length != 2) return false;
+
+                String payload = new String(Base64.getDecoder().decode(parts[0]));
+                String[] fields = payload.split(":");
+                return fields.length >= 3;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        static Long extractUserIdFromToken(String token) {
+            try {
+                String[] parts = token.split("\\.");
+                String payload = new String(Base64.getDecoder().decode(parts[0]));
+                String[] fields = payload.split(":");
+                return Long.parseLong(fields[0]);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
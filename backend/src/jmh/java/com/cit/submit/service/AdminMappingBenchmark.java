@@ -0,0 +1,83 @@
+package com.cit.submit.service;
+
+import com.cit.submit.dto.AuditLogResponse;
+import com.cit.submit.dto.UserAdminResponse;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping for one page (100 rows) of the admin screens. Lives in the
+ * service package because {@link AdminService#convertToAdminResponse(User)} is
+ * package-private. Audit rows are built by the JPQL constructor expression in
+ * AuditLogRepository, so that benchmark measures the constructor Hibernate calls per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdminMappingBenchmark {
+
+    private static final int ROWS = 100;
+
+    private final AdminService adminService = new AdminService();
+    private final User[] users = new User[ROWS];
+    private final Object[][] auditRows = new Object[ROWS][];
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2025, 8, 11, 9, 30);
+        for (int i = 0; i < ROWS; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@cit.edu");
+            user.setRole(i % 10 == 0 ? UserRole.MANAGER : UserRole.MEMBER);
+            user.setStudentId("22-" + (10000 + i));
+            user.setTeamCode("TEAM-" + (i % 25));
+            user.setFacultyId("F-" + i);
+            user.setDepartment("CCS");
+            user.setActive(true);
+            user.setEmailVerified(true);
+            user.setIsProfileComplete(true);
+            user.setAccountStatus("ACTIVE");
+            user.setCreatedAt(now.minusDays(i));
+            user.setApprovedAt(now.minusDays(i).plusHours(1));
+            users[i] = user;
+
+            auditRows[i] = new Object[] {(long) i, 1L, "Ada Admin", (long) i, user.getEmail(), "UPDATE",
+                    "Updated user: " + user.getEmail(), "name: User " + i + " -> Renamed " + i, now.minusMinutes(i)};
+        }
+    }
+
+    @Benchmark
+    public void convertToAdminResponse(Blackhole blackhole) {
+        for (User user : users) {
+            UserAdminResponse response = adminService.convertToAdminResponse(user);
+            blackhole.consume(response);
+        }
+    }
+
+    @Benchmark
+    public void auditLogResponseProjection(Blackhole blackhole) {
+        for (Object[] row : auditRows) {
+            blackhole.consume(new AuditLogResponse((Long) row[0], (Long) row[1], (String) row[2], (Long) row[3],
+                    (String) row[4], (String) row[5], (String) row[6], (String) row[7], (LocalDateTime) row[8]));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.cit.submit.config;
 
 import com.cit.submit.security.JwtAuthenticationFilter;
+import com.cit.submit.service.PasswordHashingService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -15,11 +18,13 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
     @Value("${app.cors.allowed-origins:http://localhost:5173}")
@@ -39,9 +44,14 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Avatars load through <img>, which cannot send a bearer token; the hash is the key,
+                        // and PhotoService serves only hashes recorded as profile photos
+                        .requestMatchers(HttpMethod.GET, "/api/photos/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/api/consultations/**").authenticated()
                         .requestMatchers("/api/schedules/**").authenticated()
-                        .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 // Add JWT filter
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -69,8 +79,11 @@ public class SecurityConfig {
         return source;
     }
 
+    // app.password.bcrypt-strength, or when 0 the highest cost that hashes within
+    // app.password.target-hash-time on this machine
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password.bcrypt-strength:0}") int strength,
+                                           @Value("${app.password.target-hash-time:100ms}") Duration targetHashTime) {
+        return new BCryptPasswordEncoder(strength > 0 ? strength : PasswordHashingService.calibrateStrength(targetHashTime));
     }
 }
\ No newline at end of file
@@ -1,113 +1,341 @@
 package com.cit.submit.controller;
 
+import com.cit.submit.dto.AdminStats;
 import com.cit.submit.dto.UserAdminRequest;
 import com.cit.submit.dto.UserAdminResponse;
+import com.cit.submit.dto.AuditLogFilter;
+import com.cit.submit.dto.AuditLogPage;
 import com.cit.submit.dto.AuditLogResponse;
+import com.cit.submit.dto.BulkOperationResponse;
+import com.cit.submit.dto.BulkUserRequest;
+import com.cit.submit.dto.PageResponse;
+import com.cit.submit.dto.UserFilter;
+import com.cit.submit.dto.UserPage;
+import com.cit.submit.dto.RosterImportStatus;
+import com.cit.submit.security.UserPrincipal;
 import com.cit.submit.service.AdminService;
+import com.cit.submit.service.AdminStatsService;
+import com.cit.submit.service.EmailValidationService;
+import com.cit.submit.service.RosterImportService;
+import com.cit.submit.service.ServiceBusyException;
+import com.cit.submit.service.TeamRosterService;
+import com.cit.submit.service.UploadTooLargeException;
+import com.cit.submit.service.UserExportService;
+import com.cit.submit.service.VersionConflictException;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+// Admin role is checked from the authenticated principal before any handler runs
 @RestController
 @RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
 @CrossOrigin(origins = "*")
 public class AdminController {
 
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private RosterImportService rosterImportService;
+
+    @Autowired
+    private EmailValidationService emailValidationService;
+
+    @Autowired
+    private TeamRosterService teamRosterService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Value("${app.export.timeout:30m}")
+    private Duration exportTimeout;
+
+    // Dashboard headline numbers from a cached snapshot; see AdminStatsService
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        try {
+            AdminStats stats = adminStatsService.getStats();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(@RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        try {
+            // Only ids and versions are read to answer a 304
+            ResponseEntity<?> notModified = EntityTags.notModified(request,
+                    EntityTags.ofVersions(adminService.getUserVersions(page, size)));
+            if (notModified != null) {
+                return notModified;
+            }
+            // Tagged from the rows sent, in case one changed since the versions were read
+            PageResponse<UserAdminResponse> users = adminService.getAllUsers(page, size);
+            return ResponseEntity.ok().cacheControl(EntityTags.REVALIDATE).eTag(EntityTags.ofPage(users)).body(users);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Written straight to the response from an async thread; only this endpoint gets the
+    // long app.export.timeout, other async requests keep the default
+    @GetMapping("/users/export")
+    public WebAsyncTask<ResponseEntity<?>> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            UserExportService.Format exportFormat;
+            try {
+                exportFormat = UserExportService.Format.valueOf(format.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse("Unsupported export format: " + format));
+            }
+            boolean csv = exportFormat == UserExportService.Format.CSV;
+
+            response.setContentType(csv ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"");
+            userExportService.exportUsers(exportFormat, response.getOutputStream());
+            // The body has been written; null tells MVC there is nothing more to render
+            return null;
+        });
+    }
+
+    // Raw CSV body (text/csv); processed in the background, poll the returned job id
+    @PostMapping("/users/import")
+    public ResponseEntity<?> importUsers(InputStream body, @AuthenticationPrincipal UserPrincipal admin) {
+        try {
+            RosterImportStatus status = rosterImportService.startImport(body, admin.id());
+            return ResponseEntity.accepted().body(status);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/users/import/{jobId}")
+    public ResponseEntity<?> getImportStatus(@PathVariable String jobId) {
+        try {
+            RosterImportStatus status = rosterImportService.getStatus(jobId);
+            return ResponseEntity.ok(status);
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Recomputes the team member counts from users; only needed after out-of-band edits
+    @PostMapping("/teams/rebuild-counts")
+    public ResponseEntity<?> rebuildTeamCounts() {
         try {
-            List<UserAdminResponse> users = adminService.getAllUsers(adminId);
+            int rows = teamRosterService.rebuild();
+            return ResponseEntity.ok(Map.of("rows", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Keyset-paged user search; only the supplied filters are applied
+    @GetMapping("/users/search")
+    public ResponseEntity<?> searchUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String accountStatus,
+            @RequestParam(required = false) String teamCode,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            com.cit.submit.model.UserRole userRole = role == null || role.isEmpty()
+                    ? null : com.cit.submit.model.UserRole.valueOf(role.toUpperCase());
+            UserFilter filter = new UserFilter(userRole, active, accountStatus, teamCode, department,
+                    createdFrom, createdTo, search);
+            UserPage users = adminService.searchUsers(filter, sort, direction, cursor, limit);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
-            return ResponseEntity.status(403).body(new ErrorResponse(e.getMessage()));
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @GetMapping("/users/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id, @RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> getUserById(@PathVariable Long id, WebRequest request) {
         try {
-            UserAdminResponse user = adminService.getUserById(id, adminId);
-            return ResponseEntity.ok(user);
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                ResponseEntity<?> notModified = EntityTags.notModified(request, EntityTags.of(adminService.getUserVersion(id)));
+                if (notModified != null) {
+                    return notModified;
+                }
+            }
+            UserAdminResponse user = adminService.getUserById(id);
+            return ResponseEntity.ok().cacheControl(EntityTags.REVALIDATE).eTag(EntityTags.of(user.getVersion())).body(user);
         } catch (Exception e) {
-            return ResponseEntity.status(403).body(new ErrorResponse(e.getMessage()));
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @PostMapping("/users")
-    public ResponseEntity<?> createUser(@RequestBody UserAdminRequest request, @RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> createUser(@RequestBody UserAdminRequest request, @AuthenticationPrincipal UserPrincipal admin) {
         try {
-            UserAdminResponse user = adminService.createUser(request, adminId);
+            UserAdminResponse user = adminService.createUser(request, admin.id());
             return ResponseEntity.ok(user);
+        } catch (ServiceBusyException e) {
+            // The password hashing pool is full
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @PutMapping("/users/{id}")
-    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody UserAdminRequest request, @RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody UserAdminRequest request, @AuthenticationPrincipal UserPrincipal admin,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            UserAdminResponse user = adminService.updateUser(id, request, adminId);
-            return ResponseEntity.ok(user);
+            UserAdminResponse user = adminService.updateUser(id, request, admin.id(), EntityTags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(user.getVersion())).body(user);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @PutMapping("/users/{id}/role")
-    public ResponseEntity<?> changeRole(@PathVariable Long id, @RequestParam String roleStr, @RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> changeRole(@PathVariable Long id, @RequestParam String roleStr, @AuthenticationPrincipal UserPrincipal admin,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             com.cit.submit.model.UserRole role = com.cit.submit.model.UserRole.valueOf(roleStr.toUpperCase());
-            UserAdminResponse user = adminService.changeRole(id, role, adminId);
-            return ResponseEntity.ok(user);
+            UserAdminResponse user = adminService.changeRole(id, role, admin.id(), EntityTags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(user.getVersion())).body(user);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @PutMapping("/users/{id}/deactivate")
-    public ResponseEntity<?> deactivateUser(@PathVariable Long id, @RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> deactivateUser(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal admin,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            UserAdminResponse user = adminService.deactivateUser(id, adminId);
-            return ResponseEntity.ok(user);
+            UserAdminResponse user = adminService.deactivateUser(id, admin.id(), EntityTags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(user.getVersion())).body(user);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @PutMapping("/users/{id}/reactivate")
-    public ResponseEntity<?> reactivateUser(@PathVariable Long id, @RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> reactivateUser(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal admin,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            UserAdminResponse user = adminService.reactivateUser(id, adminId);
-            return ResponseEntity.ok(user);
+            UserAdminResponse user = adminService.reactivateUser(id, admin.id(), EntityTags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(user.getVersion())).body(user);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Bulk operations take {"userIds": [...]} or a filter such as {"teamCode": "T-01"}
+    @PutMapping("/users/bulk/role")
+    public ResponseEntity<?> bulkChangeRole(@RequestBody BulkUserRequest request, @RequestParam String roleStr, @AuthenticationPrincipal UserPrincipal admin) {
+        try {
+            com.cit.submit.model.UserRole role = com.cit.submit.model.UserRole.valueOf(roleStr.toUpperCase());
+            BulkOperationResponse result = adminService.bulkChangeRole(request, role, admin.id());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/users/bulk/deactivate")
+    public ResponseEntity<?> bulkDeactivate(@RequestBody BulkUserRequest request, @AuthenticationPrincipal UserPrincipal admin) {
+        try {
+            BulkOperationResponse result = adminService.bulkDeactivate(request, admin.id());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/users/bulk/reactivate")
+    public ResponseEntity<?> bulkReactivate(@RequestBody BulkUserRequest request, @AuthenticationPrincipal UserPrincipal admin) {
+        try {
+            BulkOperationResponse result = adminService.bulkReactivate(request, admin.id());
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @GetMapping("/audit-logs")
-    public ResponseEntity<?> getAuditLogs(@RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> getAuditLogs(
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Long adminId,
+            @RequestParam(required = false) Long targetUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<AuditLogResponse> logs = adminService.getAuditLogs(adminId);
-            return ResponseEntity.ok(logs);
+            AuditLogFilter filter = new AuditLogFilter(action, adminId, targetUserId, from, to);
+            AuditLogPage page = adminService.getAuditLogs(filter, cursor, limit);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
-            return ResponseEntity.status(403).body(new ErrorResponse(e.getMessage()));
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @GetMapping("/audit-logs/user/{userId}")
-    public ResponseEntity<?> getAuditLogsForUser(@PathVariable Long userId, @RequestHeader("X-User-Id") Long adminId) {
+    public ResponseEntity<?> getAuditLogsForUser(@PathVariable Long userId) {
         try {
-            List<AuditLogResponse> logs = adminService.getAuditLogsForUser(userId, adminId);
+            List<AuditLogResponse> logs = adminService.getAuditLogsForUser(userId);
             return ResponseEntity.ok(logs);
         } catch (Exception e) {
-            return ResponseEntity.status(403).body(new ErrorResponse(e.getMessage()));
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    // Picks up institution_domains changes now instead of at the next scheduled refresh
+    @PostMapping("/institution-domains/reload")
+    public ResponseEntity<?> reloadInstitutionDomains() {
+        int domains = emailValidationService.reload();
+        return ResponseEntity.ok(Map.of("domains", domains));
+    }
+
     static class ErrorResponse {
         public String error;
         public ErrorResponse(String error) {
@@ -3,8 +3,13 @@ package com.cit.submit.controller;
 import com.cit.submit.dto.LoginRequest;
 import com.cit.submit.dto.LoginResponse;
 import com.cit.submit.dto.RegisterRequest;
+import com.cit.submit.security.LoginRateLimiter;
 import com.cit.submit.service.AuthService;
+import com.cit.submit.service.ServiceBusyException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,35 +21,38 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest http) {
+        long retryAfter = loginRateLimiter.tryAcquire(http.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
         try {
             LoginResponse response = authService.login(request.getEmail(), request.getPassword());
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerManual(@RequestBody RegisterRequest request) {
-        try {
-            LoginResponse response = authService.registerManual(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    public ResponseEntity<?> registerManual(@RequestBody RegisterRequest request, HttpServletRequest http) {
+        long retryAfter = loginRateLimiter.tryAcquire(http.getRemoteAddr(), request.getEmail());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
         }
-    }
-
-    @PostMapping("/register-oauth")
-    public ResponseEntity<?> registerOAuth(@RequestBody OAuthRequest request) {
         try {
-            LoginResponse response = authService.registerOAuth(
-                    request.getEmail(),
-                    request.getName(),
-                    request.getOauthProvider()
-            );
+            LoginResponse response = authService.registerManual(request);
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
@@ -61,7 +69,12 @@ public class AuthController {
     }
 
     @PostMapping("/google")
-    public ResponseEntity<?> googleAuth(@RequestBody GoogleAuthRequest request) {
+    public ResponseEntity<?> googleAuth(@RequestBody GoogleAuthRequest request, HttpServletRequest http) {
+        // The email is inside the token, so only the client IP is limited here
+        long retryAfter = loginRateLimiter.tryAcquire(http.getRemoteAddr(), null);
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
         try {
             LoginResponse response = authService.authenticateWithGoogle(request.getToken());
             return ResponseEntity.ok(response);
@@ -75,6 +88,13 @@ public class AuthController {
         return ResponseEntity.ok(new MessageResponse("Backend is working!"));
     }
 
+    // Rejected before any database or password work
+    private ResponseEntity<?> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponse("Too many attempts, please try again later"));
+    }
+
     static class ErrorResponse {
         public String error;
         public ErrorResponse(String error) {
@@ -89,24 +109,6 @@ public class AuthController {
         }
     }
 
-    static class OAuthRequest {
-        public String email;
-        public String name;
-        public String oauthProvider;
-        public String oauthId;
-
-        public OAuthRequest() {}
-
-        public String getEmail() { return email; }
-        public void setEmail(String email) { this.email = email; }
-        public String getName() { return name; }
-        public void setName(String name) { this.name = name; }
-        public String getOauthProvider() { return oauthProvider; }
-        public void setOauthProvider(String oauthProvider) { this.oauthProvider = oauthProvider; }
-        public String getOauthId() { return oauthId; }
-        public void setOauthId(String oauthId) { this.oauthId = oauthId; }
-    }
-
     static class GoogleAuthRequest {
         public String token;
 
@@ -0,0 +1,95 @@
+package com.cit.submit.controller;
+
+import com.cit.submit.dto.PageResponse;
+import com.cit.submit.dto.UserAdminResponse;
+import com.cit.submit.repository.UserVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * ETags derived from {@code @Version} columns, so a conditional GET can be answered
+ * from a single-column lookup instead of loading and serializing the entity; stored
+ * files are tagged with their content hash.
+ */
+final class EntityTags {
+
+    // Browsers keep the body but revalidate it on every use
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // Stored files never change under their hash, so a cached copy needs no revalidation
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    private EntityTags() {
+    }
+
+    static String of(Long version) {
+        return "\"v" + version + "\"";
+    }
+
+    // Strong: the SHA-256 of the stored bytes
+    static String ofContent(String sha256) {
+        return "\"" + sha256 + "\"";
+    }
+
+    // Weak: equal tags mean the same rows at the same versions and the same total, not
+    // byte-identical JSON. Computed from the ids and versions alone, so a 304 needs no
+    // entities loaded
+    static String ofVersions(PageResponse<UserVersion> page) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (UserVersion user : page.getContent()) {
+            digest.update((user.id() + ":" + user.version() + ";").getBytes(StandardCharsets.US_ASCII));
+        }
+        String rows = HexFormat.of().formatHex(digest.digest(), 0, 8);
+        return "W/\"u" + page.getTotalElements() + "-p" + page.getPage() + "-" + page.getSize() + "-" + rows + "\"";
+    }
+
+    // The same tag for a loaded page
+    static String ofPage(PageResponse<UserAdminResponse> page) {
+        List<UserVersion> versions = page.getContent().stream()
+                .map(user -> new UserVersion(user.getId(), user.getVersion()))
+                .toList();
+        return ofVersions(new PageResponse<>(versions, page.getPage(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages()));
+    }
+
+    // 304 if If-None-Match already names this tag, otherwise null and the caller loads the body
+    static ResponseEntity<?> notModified(WebRequest request, String etag) {
+        if (!request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(etag).build();
+    }
+
+    // The version an If-Match header asks for; null when absent or "*"
+    static Long expectedVersion(String ifMatch) throws Exception {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"v") || !tag.endsWith("\"")) {
+            throw new Exception("Invalid If-Match header");
+        }
+        try {
+            return Long.parseLong(tag.substring(2, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new Exception("Invalid If-Match header");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.cit.submit.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes stored files to the response.
+ *
+ * On Tomcat's NIO connector a whole file or a single range is handed to the connector,
+ * which sends it with sendfile once the handler returns; only that path is zero-copy.
+ * Otherwise, and for multi-range responses, the bytes go out through
+ * {@link FileChannel#transferTo} into a channel over the servlet output stream, which
+ * the JDK serves with a buffered copy. Ranges follow
+ * RFC 9110: one range is a 206 with Content-Range, several are multipart/byteranges, an
+ * If-Range that does not match the ETag gets the whole file, and a Range with no
+ * satisfiable part gets 416.
+ */
+final class FileDownloads {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // More ranges than this are answered with the whole file, as RFC 9110 allows
+    private static final int MAX_RANGES = 16;
+
+    private FileDownloads() {
+    }
+
+    static void write(HttpServletRequest request, HttpServletResponse response, Path file, long length,
+                      String contentType, String etag) throws IOException {
+        write(request, response, file, length, contentType, etag, EntityTags.IMMUTABLE);
+    }
+
+    static void write(HttpServletRequest request, HttpServletResponse response, Path file, long length,
+                      String contentType, String etag, CacheControl cacheControl) throws IOException {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        boolean head = "HEAD".equals(request.getMethod());
+
+        List<Range> ranges = ranges(request, etag, length);
+        if (ranges != null && ranges.isEmpty()) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        if (ranges == null || ranges.size() == 1) {
+            Range range = ranges == null ? new Range(0, length - 1) : ranges.getFirst();
+            if (ranges != null) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + length);
+            }
+            response.setContentType(contentType);
+            response.setContentLengthLong(range.length());
+            if (!head) {
+                send(request, response, file, range);
+            }
+            return;
+        }
+
+        String boundary = UUID.randomUUID().toString();
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long total = 0;
+        for (Range range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + range.start() + "-" + range.end() + "/" + length
+                    + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            total += partHeader.length + range.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(total + closing.length);
+        if (head) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel channel = Channels.newChannel(out);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                transfer(in, ranges.get(i), channel);
+            }
+        }
+        out.write(closing);
+    }
+
+    private static void send(HttpServletRequest request, HttpServletResponse response, Path file, Range range)
+            throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(in, range, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    // transferTo may send less than asked for, so it is called until the range is done
+    private static void transfer(FileChannel in, Range range, WritableByteChannel out) throws IOException {
+        long position = range.start();
+        long end = range.end() + 1;
+        while (position < end) {
+            long sent = in.transferTo(position, end - position, out);
+            if (sent <= 0) {
+                throw new IOException("File ended before the requested range");
+            }
+            position += sent;
+        }
+    }
+
+    // null means send the whole file; an empty list means nothing requested is satisfiable
+    private static List<Range> ranges(HttpServletRequest request, String etag, long length) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(etag)) {
+            return null;
+        }
+
+        String[] specs = header.substring("bytes=".length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<Range> ranges = new ArrayList<>(specs.length);
+        long total = 0;
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                long start;
+                long end;
+                if (dash == 0) {
+                    // Suffix range: the last n bytes
+                    long suffix = Long.parseLong(spec.substring(1));
+                    if (suffix == 0) {
+                        continue;
+                    }
+                    start = Math.max(0, length - suffix);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(spec.substring(0, dash));
+                    end = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+                    if (end < start) {
+                        return null;
+                    }
+                    end = Math.min(end, length - 1);
+                }
+                if (start >= length) {
+                    continue;
+                }
+                ranges.add(new Range(start, end));
+                total += end - start + 1;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        // Overlapping ranges adding up to more than the file are answered with the file
+        return total > length ? null : ranges;
+    }
+
+    private record Range(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cit.submit.controller;
+
+import com.cit.submit.service.PhotoService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/photos")
+@CrossOrigin(origins = "*")
+public class PhotoController {
+
+    @Autowired
+    private PhotoService photoService;
+
+    // Public, see SecurityConfig. A rendered variant is immutable; the original stands in
+    // for it until then and must be revalidated, so browsers pick up the variant later
+    @GetMapping("/{sha256}/{size}")
+    public ResponseEntity<?> getPhoto(
+            @PathVariable String sha256,
+            @PathVariable int size,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        PhotoService.PhotoFile photo;
+        try {
+            photo = photoService.find(sha256, size);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        }
+
+        String etag = photo.variant() ? EntityTags.ofContent(sha256 + "-" + size) : EntityTags.ofContent(sha256);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(photo.variant() ? EntityTags.IMMUTABLE : EntityTags.REVALIDATE)
+                    .eTag(etag)
+                    .build();
+        }
+        try {
+            FileDownloads.write(request, response, photo.file(), photo.size(), photo.contentType(), etag,
+                    photo.variant() ? EntityTags.IMMUTABLE : EntityTags.REVALIDATE);
+            return null;
+        } catch (IOException e) {
+            if (response.isCommitted()) {
+                return null;
+            }
+            response.reset();
+            return ResponseEntity.internalServerError().body(new ErrorResponse("Could not read the photo"));
+        }
+    }
+
+    static class ErrorResponse {
+        public String error;
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+    }
+}
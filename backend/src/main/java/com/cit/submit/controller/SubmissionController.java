@@ -0,0 +1,190 @@
+package com.cit.submit.controller;
+
+import com.cit.submit.dto.SubmissionResponse;
+import com.cit.submit.dto.UploadSessionRequest;
+import com.cit.submit.dto.UploadSessionStatus;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.security.UserPrincipal;
+import com.cit.submit.service.ResumableUploadService;
+import com.cit.submit.service.SubmissionService;
+import com.cit.submit.service.UploadTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class SubmissionController {
+
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private ResumableUploadService resumableUploadService;
+
+    // The raw file is the request body (not multipart), so it streams straight to disk;
+    // its type is the Content-Type and its name the filename parameter
+    @PostMapping("/deliverables/{deliverableId}/submissions")
+    public ResponseEntity<?> submit(
+            @PathVariable Long deliverableId,
+            @RequestParam String filename,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body,
+            @AuthenticationPrincipal UserPrincipal user) {
+        try {
+            SubmissionResponse submission = submissionService.submit(user.id(), deliverableId, filename, contentType,
+                    contentLength == null ? -1 : contentLength, body);
+            return ResponseEntity.status(HttpStatus.CREATED).body(submission);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // The signed-in user's own submissions, newest first
+    @GetMapping("/submissions")
+    public ResponseEntity<?> getMySubmissions(@AuthenticationPrincipal UserPrincipal user) {
+        try {
+            List<SubmissionResponse> submissions = submissionService.getSubmissions(user.id());
+            return ResponseEntity.ok(submissions);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/deliverables/{deliverableId}/submissions")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<?> getDeliverableSubmissions(@PathVariable Long deliverableId) {
+        try {
+            List<SubmissionResponse> submissions = submissionService.getSubmissionsForDeliverable(deliverableId);
+            return ResponseEntity.ok(submissions);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // The stored file itself; supports Range requests and If-None-Match on its content hash.
+    // Returns null once FileDownloads has written the response.
+    @GetMapping("/submissions/{id}/content")
+    public ResponseEntity<?> downloadSubmission(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal user,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        SubmissionService.Download download;
+        try {
+            boolean staff = user.role() == UserRole.MANAGER || user.role() == UserRole.ADMIN;
+            download = submissionService.getDownload(id, user.id(), staff);
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+        }
+
+        String etag = EntityTags.ofContent(download.sha256());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(EntityTags.IMMUTABLE).eTag(etag).build();
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(download.fileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        try {
+            FileDownloads.write(request, response, download.file(), download.size(), download.contentType(), etag);
+            return null;
+        } catch (IOException e) {
+            // Usually the client went away mid-download; nothing more can be sent once committed
+            if (response.isCommitted()) {
+                return null;
+            }
+            response.reset();
+            return ResponseEntity.internalServerError().body(new ErrorResponse("Could not read the submitted file"));
+        }
+    }
+
+    // Resumable uploads: start a session, PUT chunks in any order, then complete it
+
+    @PostMapping("/deliverables/{deliverableId}/uploads")
+    public ResponseEntity<?> startUpload(
+            @PathVariable Long deliverableId,
+            @RequestBody UploadSessionRequest request,
+            @AuthenticationPrincipal UserPrincipal user) {
+        try {
+            UploadSessionStatus session = resumableUploadService.start(user.id(), deliverableId, request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(session);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Which chunks have arrived, for a client resuming after a dropped connection
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> getUpload(@PathVariable String uploadId, @AuthenticationPrincipal UserPrincipal user) {
+        try {
+            UploadSessionStatus session = resumableUploadService.getStatus(user.id(), uploadId);
+            return ResponseEntity.ok(session);
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/uploads/{uploadId}/chunks/{index}")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            InputStream body,
+            @AuthenticationPrincipal UserPrincipal user) {
+        try {
+            resumableUploadService.writeChunk(user.id(), uploadId, index, body);
+            return ResponseEntity.noContent().build();
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String uploadId, @AuthenticationPrincipal UserPrincipal user) {
+        try {
+            SubmissionResponse submission = resumableUploadService.complete(user.id(), uploadId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(submission);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<?> cancelUpload(@PathVariable String uploadId, @AuthenticationPrincipal UserPrincipal user) {
+        try {
+            resumableUploadService.cancel(user.id(), uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    static class ErrorResponse {
+        public String error;
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+    }
+}
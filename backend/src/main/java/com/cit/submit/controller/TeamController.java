@@ -0,0 +1,49 @@
+package com.cit.submit.controller;
+
+import com.cit.submit.dto.TeamSummary;
+import com.cit.submit.service.TeamRosterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Team sizes come from the maintained counts, not from listing users
+@RestController
+@RequestMapping("/api/teams")
+@PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+@CrossOrigin(origins = "*")
+public class TeamController {
+
+    @Autowired
+    private TeamRosterService teamRosterService;
+
+    @GetMapping
+    public ResponseEntity<?> getTeams() {
+        try {
+            List<TeamSummary> teams = teamRosterService.getTeams();
+            return ResponseEntity.ok(teams);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Counts by role and status plus the active members
+    @GetMapping("/{teamCode}")
+    public ResponseEntity<?> getTeam(@PathVariable String teamCode) {
+        try {
+            TeamSummary team = teamRosterService.getTeam(teamCode);
+            return ResponseEntity.ok(team);
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    static class ErrorResponse {
+        public String error;
+        public ErrorResponse(String error) {
+            this.error = error;
+        }
+    }
+}
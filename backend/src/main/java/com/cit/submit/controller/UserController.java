@@ -2,10 +2,21 @@ package com.cit.submit.controller;
 
 import com.cit.submit.dto.UserProfileRequest;
 import com.cit.submit.dto.UserProfileResponse;
+import com.cit.submit.service.PhotoService;
+import com.cit.submit.service.UploadTooLargeException;
 import com.cit.submit.service.UserService;
+import com.cit.submit.service.VersionConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/users")
@@ -15,23 +26,60 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PhotoService photoService;
+
+    // Users may only read and edit their own profile; admins may access any
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserProfile(@PathVariable Long id) {
+    @PreAuthorize("#id == principal.id() or hasRole('ADMIN')")
+    public ResponseEntity<?> getUserProfile(@PathVariable Long id, WebRequest request) {
         try {
+            // Revalidation only reads the version column
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                ResponseEntity<?> notModified = EntityTags.notModified(request, EntityTags.of(userService.getProfileVersion(id)));
+                if (notModified != null) {
+                    return notModified;
+                }
+            }
             UserProfileResponse profile = userService.getUserProfile(id);
-            return ResponseEntity.ok(profile);
+            return ResponseEntity.ok().cacheControl(EntityTags.REVALIDATE).eTag(EntityTags.of(profile.getVersion())).body(profile);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
 
     @PutMapping("/{id}")
+    @PreAuthorize("#id == principal.id() or hasRole('ADMIN')")
     public ResponseEntity<?> updateUserProfile(
             @PathVariable Long id,
-            @RequestBody UserProfileRequest request) {
+            @RequestBody UserProfileRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            UserProfileResponse profile = userService.updateUserProfile(id, request);
-            return ResponseEntity.ok(profile);
+            UserProfileResponse profile = userService.updateUserProfile(id, request, EntityTags.expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(EntityTags.of(profile.getVersion())).body(profile);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    // Returns as soon as the original is stored; resized variants are rendered in the background
+    @RequestMapping(path = "/{id}/photo", method = {RequestMethod.PUT, RequestMethod.POST})
+    @PreAuthorize("#id == principal.id() or hasRole('ADMIN')")
+    public ResponseEntity<?> uploadPhoto(@PathVariable Long id, @RequestParam("photo") MultipartFile photo) {
+        try (InputStream in = photo.getInputStream()) {
+            String sha256 = photoService.store(in);
+            String pictureUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/photos/{sha256}/{size}")
+                    .buildAndExpand(sha256, PhotoService.PROFILE_SIZE)
+                    .toUriString();
+            UserProfileResponse profile = userService.updatePicture(id, pictureUrl);
+            return ResponseEntity.ok().eTag(EntityTags.of(profile.getVersion())).body(profile);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body(new ErrorResponse(e.getMessage()));
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
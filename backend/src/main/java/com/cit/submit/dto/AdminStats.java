@@ -0,0 +1,22 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminStats {
+    private long totalUsers;
+    private Map<String, Long> byRole;
+    private Map<String, Long> byStatus; // PENDING, ACTIVE, DEACTIVATED
+    private List<DailyCount> signUpsPerDay; // oldest first, days without sign-ups included
+    private Map<String, Long> actionsByType; // admin actions over the same window
+    private List<AuditLogResponse> recentActions;
+    private LocalDateTime computedAt;
+}
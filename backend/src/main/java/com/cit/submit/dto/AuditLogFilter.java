@@ -0,0 +1,18 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogFilter {
+    private String action;
+    private Long adminId;
+    private Long targetUserId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
@@ -0,0 +1,15 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPage {
+    private List<AuditLogResponse> items;
+    private String nextCursor; // null on the last page
+}
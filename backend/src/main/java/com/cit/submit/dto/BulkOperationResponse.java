@@ -0,0 +1,26 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+    private String action;
+    private int requested;
+    private int updated;
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long userId;
+        private String outcome; // UPDATED, UNCHANGED, NOT_FOUND, SKIPPED
+        private String message;
+    }
+}
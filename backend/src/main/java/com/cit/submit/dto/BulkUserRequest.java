@@ -0,0 +1,18 @@
+package com.cit.submit.dto;
+
+import com.cit.submit.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Selects users for a bulk operation: either explicit ids or a filter, not both
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserRequest {
+    private List<Long> userIds;
+    private String teamCode;
+    private UserRole role;
+}
@@ -0,0 +1,15 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCount {
+    private LocalDate day;
+    private Long count;
+}
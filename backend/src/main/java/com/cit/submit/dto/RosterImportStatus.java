@@ -0,0 +1,23 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterImportStatus {
+    private String jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private long processed;
+    private long created;
+    private long skipped; // duplicates of existing users or of earlier rows
+    private long failed;  // rows that could not be parsed or validated
+    private List<String> errors; // first few problems, with line numbers
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,21 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionResponse {
+    private Long id;
+    private Long userId;
+    private Long deliverableId;
+    private String fileName;
+    private String contentType;
+    private Long sizeBytes;
+    private String sha256;
+    private LocalDateTime submittedAt;
+}
@@ -0,0 +1,17 @@
+package com.cit.submit.dto;
+
+import com.cit.submit.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamMemberResponse {
+    private Long id;
+    private String name;
+    private String email;
+    private UserRole role;
+    private String studentId;
+}
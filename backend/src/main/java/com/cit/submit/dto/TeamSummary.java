@@ -0,0 +1,19 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamSummary {
+    private String teamCode;
+    private long memberCount;
+    private Map<String, Long> byRole;
+    private Map<String, Long> byStatus;
+    private List<TeamMemberResponse> activeMembers; // only filled in for a single team
+}
@@ -0,0 +1,20 @@
+package com.cit.submit.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionStatus {
+    private String uploadId;
+    private Long deliverableId;
+    private String fileName;
+    private Long size;
+    private Integer chunkSize; // every chunk but the last is exactly this long
+    private Integer totalChunks;
+    private List<Integer> receivedChunks; // a resumed upload sends only the others
+}
@@ -23,4 +23,5 @@ public class UserAdminResponse {
     private String accountStatus;
     private String createdAt;
     private String approvedAt;
+    private Long version;
 }
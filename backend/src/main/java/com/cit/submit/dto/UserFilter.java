@@ -0,0 +1,22 @@
+package com.cit.submit.dto;
+
+import com.cit.submit.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFilter {
+    private UserRole role;
+    private Boolean active;
+    private String accountStatus;
+    private String teamCode;
+    private String department;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private String search; // prefix of the name, email or student ID
+}
@@ -15,4 +15,5 @@ public class UserProfileResponse {
     private String studentId;
     private String teamCode;
     private String pictureUrl;
+    private Long version;
 }
@@ -0,0 +1,34 @@
+package com.cit.submit.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "institution_domains")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstitutionDomain {
+    @Id
+    @Column(length = 253)
+    private String domain; // lower case, e.g. "cit.edu"; subdomains match too
+
+    private String name;
+
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (active == null) {
+            active = true;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cit.submit.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// An uploaded profile photo; only content recorded here is served by the public photo route
+@Entity
+@Table(name = "profile_photos")
+@Data
+@NoArgsConstructor
+public class ProfilePhoto {
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "content_type", length = 32, nullable = false)
+    private String contentType;
+
+    @Column(name = "width", nullable = false)
+    private Integer width;
+
+    @Column(name = "height", nullable = false)
+    private Integer height;
+
+    @Column(name = "render_failed", nullable = false)
+    private boolean renderFailed;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
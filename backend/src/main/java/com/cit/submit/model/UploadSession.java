@@ -0,0 +1,61 @@
+package com.cit.submit.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+// A resumable upload in progress; received chunks are rows in upload_chunks and the
+// bytes are in ContentStore's session file until the upload is completed
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@NoArgsConstructor
+public class UploadSession implements Persistable<String> {
+    @Id
+    @Column(length = 36)
+    private String id; // random UUID, also the name of the session file
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deliverable_id", nullable = false)
+    private Long deliverableId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Column(name = "sha256", length = 64, nullable = false)
+    private String sha256; // declared by the client, checked when the upload is completed
+
+    @Column(name = "completing", nullable = false)
+    private Boolean completing = false; // set by the one complete call that gets to run
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public int getTotalChunks() {
+        return (int) ((sizeBytes + chunkSize - 1) / chunkSize);
+    }
+
+    // Sessions are only ever inserted; lets save() persist without first selecting the id
+    @Override
+    public boolean isNew() {
+        return createdAt == null;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
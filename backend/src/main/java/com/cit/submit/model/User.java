@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -53,7 +54,7 @@ public class User {
     @Column(name = "email_verified")
     private Boolean emailVerified = false;
 
-    @Column(name = "active")
+    @Column(name = "active", nullable = false)
     private Boolean active = true;
 
     @Column(name = "account_status")
@@ -65,6 +66,11 @@ public class User {
     @Column(name = "approved_at")
     private LocalDateTime approvedAt;
 
+    // Optimistic lock; also the ETag of the user's profile and admin views
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
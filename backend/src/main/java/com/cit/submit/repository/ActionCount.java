@@ -0,0 +1,5 @@
+package com.cit.submit.repository;
+
+// One GROUP BY row of the admin dashboard's audit breakdown
+public record ActionCount(String action, Long count) {
+}
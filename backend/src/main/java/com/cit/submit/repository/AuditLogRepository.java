@@ -1,6 +1,8 @@
 package com.cit.submit.repository;
 
+import com.cit.submit.dto.AuditLogResponse;
 import com.cit.submit.model.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,11 +12,24 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    List<AuditLog> findByTargetUserIdOrderByTimestampDesc(Long targetUserId);
-    List<AuditLog> findByAdminIdOrderByTimestampDesc(Long adminId);
-    List<AuditLog> findByActionOrderByTimestampDesc(String action);
-    
-    @Query("SELECT al FROM AuditLog al WHERE al.timestamp BETWEEN :startDate AND :endDate ORDER BY al.timestamp DESC")
-    List<AuditLog> findByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, AuditLogRepositoryCustom {
+    // Audit log rows with the admin name and target email resolved in the same query
+    String RESPONSE_SELECT = "SELECT new com.cit.submit.dto.AuditLogResponse(" +
+            "al.id, al.adminId, COALESCE(admin.name, 'Unknown'), " +
+            "al.targetUserId, COALESCE(target.email, 'Unknown'), " +
+            "al.action, al.description, al.changedFields, al.timestamp) " +
+            "FROM AuditLog al " +
+            "LEFT JOIN User admin ON admin.id = al.adminId " +
+            "LEFT JOIN User target ON target.id = al.targetUserId ";
+
+    @Query(RESPONSE_SELECT + "WHERE al.targetUserId = :targetUserId ORDER BY al.timestamp DESC, al.id DESC")
+    List<AuditLogResponse> findResponsesByTargetUserId(@Param("targetUserId") Long targetUserId);
+
+    // Admin dashboard aggregates (AdminStatsService); both read idx_audit_logs_timestamp_id
+    @Query("SELECT new com.cit.submit.repository.ActionCount(al.action, COUNT(al)) " +
+           "FROM AuditLog al WHERE al.timestamp >= :since GROUP BY al.action")
+    List<ActionCount> countActionsSince(@Param("since") LocalDateTime since);
+
+    @Query(RESPONSE_SELECT + "ORDER BY al.timestamp DESC, al.id DESC")
+    List<AuditLogResponse> findRecentResponses(Pageable limit);
 }
@@ -0,0 +1,13 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.dto.AuditLogFilter;
+import com.cit.submit.dto.AuditLogResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditLogRepositoryCustom {
+
+    // Newest-first page of audit logs strictly after the (timestamp, id) cursor; null cursor starts at the top
+    List<AuditLogResponse> findPage(AuditLogFilter filter, LocalDateTime cursorTimestamp, Long cursorId, int limit);
+}
@@ -0,0 +1,61 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.dto.AuditLogFilter;
+import com.cit.submit.dto.AuditLogResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Builds the keyset query with only the filters that were supplied, so each
+// combination maps onto one of the composite indexes from V2__audit_log_keyset_indexes.sql
+class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AuditLogResponse> findPage(AuditLogFilter filter, LocalDateTime cursorTimestamp, Long cursorId, int limit) {
+        StringBuilder jpql = new StringBuilder(AuditLogRepository.RESPONSE_SELECT).append("WHERE 1 = 1 ");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter != null) {
+            if (filter.getAction() != null) {
+                jpql.append("AND al.action = :action ");
+                params.put("action", filter.getAction());
+            }
+            if (filter.getAdminId() != null) {
+                jpql.append("AND al.adminId = :adminId ");
+                params.put("adminId", filter.getAdminId());
+            }
+            if (filter.getTargetUserId() != null) {
+                jpql.append("AND al.targetUserId = :targetUserId ");
+                params.put("targetUserId", filter.getTargetUserId());
+            }
+            if (filter.getFrom() != null) {
+                jpql.append("AND al.timestamp >= :from ");
+                params.put("from", filter.getFrom());
+            }
+            if (filter.getTo() != null) {
+                jpql.append("AND al.timestamp < :to ");
+                params.put("to", filter.getTo());
+            }
+        }
+
+        if (cursorTimestamp != null && cursorId != null) {
+            jpql.append("AND (al.timestamp, al.id) < (:cursorTimestamp, :cursorId) ");
+            params.put("cursorTimestamp", cursorTimestamp);
+            params.put("cursorId", cursorId);
+        }
+
+        jpql.append("ORDER BY al.timestamp DESC, al.id DESC");
+
+        TypedQuery<AuditLogResponse> query = entityManager.createQuery(jpql.toString(), AuditLogResponse.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,28 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.model.EmailVerificationToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, String> {
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.userId IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    // Sweeper: expired tokens one batch at a time (served by the expires_at index)
+    @Query("SELECT t.tokenHash FROM EmailVerificationToken t WHERE t.expiresAt < :now ORDER BY t.expiresAt")
+    List<String> findExpiredTokenHashes(@Param("now") LocalDateTime now, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.tokenHash IN :tokenHashes")
+    int deleteByTokenHashIn(@Param("tokenHashes") Collection<String> tokenHashes);
+}
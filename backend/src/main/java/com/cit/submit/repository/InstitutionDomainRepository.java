@@ -0,0 +1,14 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.model.InstitutionDomain;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InstitutionDomainRepository extends JpaRepository<InstitutionDomain, String> {
+    @Query("SELECT d.domain FROM InstitutionDomain d WHERE d.active = true")
+    List<String> findActiveDomains();
+}
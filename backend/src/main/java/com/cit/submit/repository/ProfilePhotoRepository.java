@@ -0,0 +1,30 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.model.ProfilePhoto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProfilePhotoRepository extends JpaRepository<ProfilePhoto, String> {
+
+    // The same photo uploaded twice, or by two users at once, is recorded once
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO profile_photos (sha256, content_type, width, height, render_failed, created_at) " +
+                   "VALUES (:sha256, :contentType, :width, :height, FALSE, :createdAt) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int record(@Param("sha256") String sha256, @Param("contentType") String contentType,
+               @Param("width") int width, @Param("height") int height,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ProfilePhoto p SET p.renderFailed = true WHERE p.sha256 = :sha256")
+    int markRenderFailed(@Param("sha256") String sha256);
+}
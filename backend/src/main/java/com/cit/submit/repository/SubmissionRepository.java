@@ -0,0 +1,25 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.dto.SubmissionResponse;
+import com.cit.submit.model.Submission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+    String RESPONSE_SELECT = "SELECT new com.cit.submit.dto.SubmissionResponse(" +
+            "s.id, s.userId, s.deliverableId, s.fileName, s.contentType, s.sizeBytes, s.sha256, s.submittedAt) " +
+            "FROM Submission s ";
+
+    // Uses idx_submissions_user_submitted_at
+    @Query(RESPONSE_SELECT + "WHERE s.userId = :userId ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    // Uses idx_submissions_deliverable_submitted_at
+    @Query(RESPONSE_SELECT + "WHERE s.deliverableId = :deliverableId ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SubmissionResponse> findResponsesByDeliverableId(@Param("deliverableId") Long deliverableId);
+}
@@ -0,0 +1,71 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.model.UploadSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    long countByUserId(Long userId);
+
+    // A chunk sent twice (a retry after a lost response) is recorded once
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO upload_chunks (upload_id, chunk_index, received_at) " +
+                   "VALUES (:uploadId, :chunkIndex, :receivedAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int recordChunk(@Param("uploadId") String uploadId, @Param("chunkIndex") int chunkIndex,
+                    @Param("receivedAt") LocalDateTime receivedAt);
+
+    @Query(value = "SELECT chunk_index FROM upload_chunks WHERE upload_id = :uploadId ORDER BY chunk_index",
+           nativeQuery = true)
+    List<Integer> findReceivedChunks(@Param("uploadId") String uploadId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM upload_chunks WHERE upload_id = :uploadId", nativeQuery = true)
+    int clearChunks(@Param("uploadId") String uploadId);
+
+    // Cancelling: whoever deletes the row owns the session file; its chunk rows go with it
+    // (ON DELETE CASCADE). A session being completed is left to its completion
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM UploadSession s WHERE s.id = :id AND s.completing = false")
+    int claim(@Param("id") String id);
+
+    // Only one caller starts completing a session; chunks and cancels are refused from then on
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.completing = true WHERE s.id = :id AND s.completing = false")
+    int markCompleting(@Param("id") String id);
+
+    // A completion that failed hands the session back to the client
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.completing = false WHERE s.id = :id")
+    int reopen(@Param("id") String id);
+
+    // Removes a completed session once its submission is recorded
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM UploadSession s WHERE s.id = :id AND s.completing = true")
+    int finish(@Param("id") String id);
+
+    // Sweeper: sessions started before the cutoff that have received nothing since
+    @Query(value = "SELECT s.id FROM upload_sessions s WHERE s.created_at < :cutoff AND NOT EXISTS (" +
+                   "SELECT 1 FROM upload_chunks c WHERE c.upload_id = s.id AND c.received_at >= :cutoff) " +
+                   "ORDER BY s.created_at", nativeQuery = true)
+    List<String> findAbandonedIds(@Param("cutoff") LocalDateTime cutoff, Pageable limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM UploadSession s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+}
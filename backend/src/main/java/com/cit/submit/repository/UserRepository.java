@@ -1,14 +1,113 @@
 package com.cit.submit.repository;
 
+import com.cit.submit.dto.DailyCount;
+import com.cit.submit.dto.TeamMemberResponse;
 import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
-    Optional<User> findByVerificationToken(String token);
     boolean existsByEmail(String email);
+
+    // Set-based duplicate checks for bulk imports. Emails are compared case-insensitively
+    // (idx_users_lower_email), so pass them lowercased; they come back lowercased
+    @Query("SELECT LOWER(u.email) FROM User u WHERE LOWER(u.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.studentId FROM User u WHERE u.studentId IN :studentIds")
+    List<String> findExistingStudentIds(@Param("studentIds") Collection<String> studentIds);
+
+    // Conditional GETs compare versions without loading the entity
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Uses idx_users_team_code_id; teams are small, so the list is not paged
+    @Query("SELECT new com.cit.submit.dto.TeamMemberResponse(u.id, u.name, u.email, u.role, u.studentId) " +
+           "FROM User u WHERE u.teamCode = :teamCode AND u.accountStatus = 'ACTIVE' ORDER BY u.name, u.id")
+    List<TeamMemberResponse> findActiveTeamMembers(@Param("teamCode") String teamCode);
+
+    // Admin dashboard aggregates (AdminStatsService)
+    @Query("SELECT new com.cit.submit.repository.UserStatusCount(u.role, u.accountStatus, COUNT(u)) " +
+           "FROM User u GROUP BY u.role, u.accountStatus")
+    List<UserStatusCount> countByRoleAndStatus();
+
+    // Range scan of idx_users_created_at_id
+    @Query("SELECT new com.cit.submit.dto.DailyCount(CAST(u.createdAt AS LocalDate), COUNT(u)) " +
+           "FROM User u WHERE u.createdAt >= :since GROUP BY CAST(u.createdAt AS LocalDate)")
+    List<DailyCount> countSignUpsPerDay(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.cit.submit.repository.UserState(u.id, u.email, u.role, u.active, u.teamCode, u.accountStatus) " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // The same page as findAll(pageable), reading only what its ETag needs
+    @Query(value = "SELECT new com.cit.submit.repository.UserVersion(u.id, u.version) FROM User u",
+           countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserVersion> findVersions(Pageable pageable);
+
+    // Bulk admin operations: lock and classify the selection, then change it with one UPDATE.
+    // The rows stay locked until the bulk transaction ends, so nothing changes in between.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.cit.submit.repository.UserState(u.id, u.email, u.role, u.active, u.teamCode, u.accountStatus) " +
+           "FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<UserState> lockStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.cit.submit.repository.UserState(u.id, u.email, u.role, u.active, u.teamCode, u.accountStatus) FROM User u " +
+           "WHERE (:teamCode IS NULL OR u.teamCode = :teamCode) AND (:role IS NULL OR u.role = :role) " +
+           "ORDER BY u.id")
+    List<UserState> lockStatesByFilter(@Param("teamCode") String teamCode, @Param("role") UserRole role,
+                                       Pageable limit);
+
+    // The extra conditions keep rows changed concurrently from being counted twice;
+    // bulk updates bypass @Version, so they bump it themselves
+    @Modifying
+    @Query("UPDATE User u SET u.role = :role, u.version = u.version + 1 WHERE u.id IN :ids AND u.role <> :role")
+    int updateRoleByIdIn(@Param("ids") Collection<Long> ids, @Param("role") UserRole role);
+
+    @Modifying
+    @Query("UPDATE User u SET u.active = :active, u.accountStatus = :accountStatus, u.version = u.version + 1 " +
+           "WHERE u.id IN :ids AND u.active <> :active")
+    int updateActiveByIdIn(@Param("ids") Collection<Long> ids, @Param("active") boolean active,
+                           @Param("accountStatus") String accountStatus);
+
+    // Only a PENDING account becomes ACTIVE; one deactivated meanwhile stays deactivated
+    @Modifying
+    @Query("UPDATE User u SET u.emailVerified = true, " +
+           "u.accountStatus = CASE WHEN u.accountStatus = 'PENDING' THEN 'ACTIVE' ELSE u.accountStatus END, " +
+           "u.version = u.version + 1 WHERE u.id = :id")
+    int markEmailVerified(@Param("id") Long id);
+
+    // Self-registrations that were never verified (roster imports and OAuth users are left alone)
+    @Query("SELECT u.id FROM User u WHERE u.accountStatus = 'PENDING' AND u.emailVerified = false " +
+           "AND u.authProvider = 'email' AND u.createdAt < :cutoff ORDER BY u.id")
+    List<Long> findStalePendingIds(@Param("cutoff") LocalDateTime cutoff, Pageable limit);
+
+    // Re-checks the status so a user verified since the SELECT is kept
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids AND u.accountStatus = 'PENDING' AND u.emailVerified = false")
+    int deletePendingByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Compare-and-set so a password changed meanwhile is not overwritten by a login upgrade
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :newHash, u.version = u.version + 1 " +
+           "WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,13 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.dto.UserFilter;
+import com.cit.submit.model.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    // One page of users in (sort, id) order strictly after the cursor; a null cursorId starts at the top.
+    // cursorValue is the sort column's value on the last row of the previous page (unused for ID).
+    List<User> findPage(UserFilter filter, UserSort sort, boolean descending, Object cursorValue, Long cursorId, int limit);
+}
@@ -0,0 +1,97 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.dto.UserFilter;
+import com.cit.submit.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Builds the keyset query with only the filters that were supplied, so each
+// combination maps onto one of the indexes from V8__user_search_indexes.sql. The
+// search term is a prefix only, served by the LOWER(...) indexes from V13 and V14
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<User> findPage(UserFilter filter, UserSort sort, boolean descending, Object cursorValue, Long cursorId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT u FROM User u WHERE 1 = 1 ");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter != null) {
+            if (filter.getRole() != null) {
+                jpql.append("AND u.role = :role ");
+                params.put("role", filter.getRole());
+            }
+            if (filter.getActive() != null) {
+                jpql.append("AND u.active = :active ");
+                params.put("active", filter.getActive());
+            }
+            if (filter.getAccountStatus() != null) {
+                jpql.append("AND u.accountStatus = :accountStatus ");
+                params.put("accountStatus", filter.getAccountStatus());
+            }
+            if (filter.getTeamCode() != null) {
+                jpql.append("AND u.teamCode = :teamCode ");
+                params.put("teamCode", filter.getTeamCode());
+            }
+            if (filter.getDepartment() != null) {
+                jpql.append("AND u.department = :department ");
+                params.put("department", filter.getDepartment());
+            }
+            if (filter.getCreatedFrom() != null) {
+                jpql.append("AND u.createdAt >= :createdFrom ");
+                params.put("createdFrom", filter.getCreatedFrom());
+            }
+            if (filter.getCreatedTo() != null) {
+                jpql.append("AND u.createdAt < :createdTo ");
+                params.put("createdTo", filter.getCreatedTo());
+            }
+            if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
+                jpql.append("AND (LOWER(u.email) LIKE :search ESCAPE '\\' OR LOWER(u.name) LIKE :search ESCAPE '\\' " +
+                        "OR LOWER(u.studentId) LIKE :search ESCAPE '\\') ");
+                params.put("search", escapeLike(filter.getSearch().trim().toLowerCase(Locale.ROOT)) + "%");
+            }
+        }
+
+        // Nulls sort as the highest value, as PostgreSQL does by default, so the (column, id)
+        // indexes still serve the order: last when ascending, first when descending
+        String comparison = descending ? "<" : ">";
+        if (cursorId != null) {
+            if (sort == UserSort.ID) {
+                jpql.append("AND u.id ").append(comparison).append(" :cursorId ");
+            } else if (cursorValue == null) {
+                jpql.append("AND ((").append(sort.path).append(" IS NULL AND u.id ").append(comparison)
+                        .append(" :cursorId)");
+                jpql.append(descending ? " OR " + sort.path + " IS NOT NULL) " : ") ");
+            } else {
+                jpql.append("AND ((").append(sort.path).append(", u.id) ").append(comparison)
+                        .append(" (:cursorValue, :cursorId)");
+                jpql.append(descending ? ") " : " OR " + sort.path + " IS NULL) ");
+                params.put("cursorValue", cursorValue);
+            }
+            params.put("cursorId", cursorId);
+        }
+
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append("ORDER BY ");
+        if (sort != UserSort.ID) {
+            jpql.append(sort.path).append(direction).append(descending ? " NULLS FIRST, " : " NULLS LAST, ");
+        }
+        jpql.append("u.id").append(direction);
+
+        TypedQuery<User> query = entityManager.createQuery(jpql.toString(), User.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
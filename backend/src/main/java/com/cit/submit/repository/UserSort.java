@@ -0,0 +1,30 @@
+package com.cit.submit.repository;
+
+// Sort orders for the admin user search; every order ends with the id so the keyset is unique
+public enum UserSort {
+    ID("id", "u.id"),
+    CREATED_AT("createdAt", "u.createdAt"),
+    NAME("name", "u.name"),
+    EMAIL("email", "u.email");
+
+    private final String property;
+    final String path;
+
+    UserSort(String property, String path) {
+        this.property = property;
+        this.path = path;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public static UserSort fromProperty(String property) throws Exception {
+        for (UserSort sort : values()) {
+            if (sort.property.equals(property)) {
+                return sort;
+            }
+        }
+        throw new Exception("Cannot sort users by " + property);
+    }
+}
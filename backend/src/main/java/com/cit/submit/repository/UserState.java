@@ -0,0 +1,6 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.model.UserRole;
+
+// The columns bulk operations need to classify a user, without loading the entity
+public record UserState(Long id, String email, UserRole role, Boolean active, String teamCode, String accountStatus) {}
@@ -0,0 +1,7 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.model.UserRole;
+
+// One GROUP BY row of the admin dashboard's user breakdown
+public record UserStatusCount(UserRole role, String accountStatus, Long count) {
+}
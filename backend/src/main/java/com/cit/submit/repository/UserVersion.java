@@ -0,0 +1,4 @@
+package com.cit.submit.repository;
+
+// A user's id and version; enough to tag a page of users without loading them
+public record UserVersion(Long id, Long version) {}
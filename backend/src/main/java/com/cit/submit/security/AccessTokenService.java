@@ -0,0 +1,210 @@
+package com.cit.submit.security;
+
+import com.cit.submit.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Issues and verifies signed access tokens.
+ *
+ * A token is {@code base64url(claims) + "." + base64url(HMAC-SHA256(claims))} where the
+ * claims are a fixed 25-byte record: version, user id, issued-at and expiry (epoch
+ * seconds). Both parts have a fixed length, so verification walks the Authorization
+ * header once, decoding into small fixed-size buffers, and never needs the database.
+ * The token only says who the caller is; role and active state are read from the
+ * users table through {@link PrincipalCache}, so they are not in the claims.
+ *
+ * Requests may run on virtual threads, where a per-thread Mac would be initialised for
+ * every request and then thrown away, so initialised Macs are borrowed from a small
+ * shared pool instead.
+ */
+@Component
+public class AccessTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenService.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 2;
+
+    private static final int CLAIMS_LENGTH = 25;
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_CLAIMS_LENGTH = 34;     // 25 bytes, unpadded
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;  // 32 bytes, unpadded
+    private static final int TOKEN_LENGTH = ENCODED_CLAIMS_LENGTH + 1 + ENCODED_SIGNATURE_LENGTH;
+
+    // Idle Macs kept for reuse; more may exist while requests are busy
+    private static final int MAC_POOL_SIZE = 64;
+
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final long ttlSeconds;
+    private final Clock clock;
+    private final SecretKeySpec keySpec;
+    private final BlockingQueue<Mac> macs = new ArrayBlockingQueue<>(MAC_POOL_SIZE);
+
+    @Autowired
+    public AccessTokenService(@Value("${app.security.token.secret:}") String secret,
+                              @Value("${app.security.token.ttl:86400000}") long ttlMillis) {
+        this(secret, ttlMillis, Clock.systemUTC());
+    }
+
+    AccessTokenService(String secret, long ttlMillis, Clock clock) {
+        this.ttlSeconds = Math.max(1, ttlMillis / 1000);
+        this.clock = clock;
+
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            log.warn("app.security.token.secret is not set; using a random key, tokens will not survive a restart");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.keySpec = new SecretKeySpec(key, ALGORITHM);
+
+        // Fail at startup rather than on the first request
+        macs.offer(newMac());
+    }
+
+    public String issue(User user) {
+        long now = clock.millis() / 1000;
+        byte[] claims = new byte[CLAIMS_LENGTH];
+        claims[0] = VERSION;
+        putLong(claims, 1, user.getId());
+        putLong(claims, 9, now);
+        putLong(claims, 17, now + ttlSeconds);
+
+        Mac m = borrowMac();
+        byte[] signature;
+        try {
+            signature = m.doFinal(claims);
+        } finally {
+            macs.offer(m);
+        }
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(claims) + "." + encoder.encodeToString(signature);
+    }
+
+    // Verifies an Authorization header value; returns null unless it carries a valid, unexpired token
+    public TokenClaims verify(String authorizationHeader) {
+        if (authorizationHeader == null
+                || authorizationHeader.length() != BEARER_PREFIX.length() + TOKEN_LENGTH
+                || !authorizationHeader.startsWith(BEARER_PREFIX)
+                || authorizationHeader.charAt(BEARER_PREFIX.length() + ENCODED_CLAIMS_LENGTH) != '.') {
+            return null;
+        }
+
+        byte[] claims = new byte[CLAIMS_LENGTH];
+        byte[] signature = new byte[SIGNATURE_LENGTH];
+        int offset = BEARER_PREFIX.length();
+        if (!decode(authorizationHeader, offset, ENCODED_CLAIMS_LENGTH, claims)
+                || !decode(authorizationHeader, offset + ENCODED_CLAIMS_LENGTH + 1, ENCODED_SIGNATURE_LENGTH, signature)) {
+            return null;
+        }
+
+        byte[] expected;
+        Mac m = borrowMac();
+        try {
+            expected = m.doFinal(claims);
+        } finally {
+            macs.offer(m);
+        }
+
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            diff |= expected[i] ^ signature[i];
+        }
+        if (diff != 0) {
+            return null;
+        }
+
+        if (claims[0] != VERSION) {
+            return null;
+        }
+
+        long expiresAt = getLong(claims, 17);
+        if (clock.millis() / 1000 >= expiresAt) {
+            return null;
+        }
+
+        return new TokenClaims(getLong(claims, 1), getLong(claims, 9), expiresAt);
+    }
+
+    // doFinal() leaves a Mac reset and ready for the next message, so it can go straight back
+    private Mac borrowMac() {
+        Mac m = macs.poll();
+        return m != null ? m : newMac();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(keySpec);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    // Decodes unpadded base64url in place; rejects bad characters and non-canonical trailing bits
+    private static boolean decode(String source, int offset, int length, byte[] target) {
+        int out = 0;
+        int buffer = 0;
+        int bits = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                target[out++] = (byte) (buffer >> bits);
+            }
+        }
+        return out == target.length && (buffer & ((1 << bits) - 1)) == 0;
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    public record TokenClaims(long userId, long issuedAt, long expiresAt) {}
+}
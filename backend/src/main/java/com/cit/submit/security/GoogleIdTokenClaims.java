@@ -0,0 +1,16 @@
+package com.cit.submit.security;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// The Google ID token claims the application uses; other claims are ignored
+public record GoogleIdTokenClaims(
+        String iss,
+        String aud,
+        String sub,
+        String email,
+        @JsonProperty("email_verified") boolean emailVerified,
+        String name,
+        String picture,
+        long exp,
+        long iat) {
+}
@@ -0,0 +1,261 @@
+package com.cit.submit.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Verifies Google Sign-In ID tokens locally.
+ *
+ * Google's signing keys ({@code app.security.google.jwks-uri}) are loaded right after
+ * startup and re-read in the background every
+ * {@code app.security.google.jwks-refresh-interval-ms}; a token signed with a key id the
+ * cache has not seen triggers one early reload (at most every
+ * {@code min-reload-interval}, however many such tokens arrive at once), which covers key
+ * rotation. Signature, issuer, audience
+ * ({@code app.security.google.client-id}), expiry and email_verified are all checked.
+ * Without a client id no token can be addressed to this application, so every token is
+ * rejected and Google sign-in is effectively off.
+ *
+ * The JWKS location may be any Spring resource, so tests and offline development can
+ * point it at a key file ({@code file:...}) instead of Google.
+ */
+@Component
+public class GoogleIdTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleIdTokenVerifier.class);
+
+    private static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    // Built once and shared; ObjectReader is immutable and thread-safe
+    private static final JsonMapper JSON = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private static final ObjectReader CLAIMS_READER = JSON.readerFor(GoogleIdTokenClaims.class);
+    private static final ObjectReader HEADER_READER = JSON.readerFor(Header.class);
+    private static final ObjectReader KEY_SET_READER = JSON.readerFor(KeySet.class);
+
+    private final String jwksLocation;
+    private final String clientId;
+    private final long minReloadMillis;
+    private final Clock clock;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final Counter valid;
+    private final Counter invalid;
+    private final Counter reloadFailures;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastLoadAttempt;
+
+    @Autowired
+    public GoogleIdTokenVerifier(MeterRegistry meterRegistry,
+                                 @Value("${app.security.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}") String jwksLocation,
+                                 @Value("${app.security.google.client-id:}") String clientId,
+                                 @Value("${app.security.google.min-reload-interval:30s}") Duration minReloadInterval) {
+        this(meterRegistry, jwksLocation, clientId, minReloadInterval, Clock.systemUTC());
+    }
+
+    GoogleIdTokenVerifier(MeterRegistry meterRegistry, String jwksLocation, String clientId,
+                          Duration minReloadInterval, Clock clock) {
+        this.jwksLocation = jwksLocation;
+        this.clientId = clientId == null || clientId.isBlank() ? null : clientId;
+        this.minReloadMillis = minReloadInterval.toMillis();
+        this.clock = clock;
+
+        if (this.clientId == null) {
+            log.warn("app.security.google.client-id is not set; every Google ID token will be rejected");
+        }
+
+        this.valid = Counter.builder("auth.google.tokens")
+                .tag("result", "valid")
+                .register(meterRegistry);
+        this.invalid = Counter.builder("auth.google.tokens")
+                .tag("result", "invalid")
+                .register(meterRegistry);
+        this.reloadFailures = Counter.builder("auth.google.jwks.reload.failures")
+                .description("Failed attempts to fetch Google's signing keys")
+                .register(meterRegistry);
+    }
+
+    // Returns the token's claims, or throws with a message safe to show the user
+    public GoogleIdTokenClaims verify(String idToken) throws Exception {
+        try {
+            GoogleIdTokenClaims claims = check(idToken);
+            valid.increment();
+            return claims;
+        } catch (Exception e) {
+            invalid.increment();
+            throw e;
+        }
+    }
+
+    // Also runs right after startup, so the first sign-in does not wait for the fetch
+    @Scheduled(fixedDelayString = "${app.security.google.jwks-refresh-interval-ms:3600000}")
+    public void refresh() {
+        if (clientId != null) {
+            reload();
+        }
+    }
+
+    private GoogleIdTokenClaims check(String idToken) throws Exception {
+        if (clientId == null) {
+            throw new Exception("Google sign-in is not configured");
+        }
+        String[] parts = idToken == null ? new String[0] : idToken.split("\\.");
+        if (parts.length != 3) {
+            throw new Exception("Invalid token format");
+        }
+
+        Header header;
+        GoogleIdTokenClaims claims;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            header = HEADER_READER.readValue(decoder.decode(parts[0]));
+            claims = CLAIMS_READER.readValue(decoder.decode(parts[1]));
+            signature = decoder.decode(parts[2]);
+        } catch (IllegalArgumentException | JacksonException e) {
+            throw new Exception("Invalid token format");
+        }
+        // The key map does not accept a null key id
+        if (header == null || header.kid() == null || claims == null) {
+            throw new Exception("Invalid token format");
+        }
+
+        if (!"RS256".equals(header.alg())) {
+            throw new Exception("Unsupported token algorithm");
+        }
+        PublicKey key = keyFor(header.kid());
+        if (key == null) {
+            throw new Exception("Token signed with an unknown key");
+        }
+        Signature verifier = Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(key);
+        verifier.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        if (!verifier.verify(signature)) {
+            throw new Exception("Invalid token signature");
+        }
+
+        long now = clock.millis() / 1000;
+        if (!ISSUERS.contains(claims.iss())) {
+            throw new Exception("Token was not issued by Google");
+        }
+        if (!clientId.equals(claims.aud())) {
+            throw new Exception("Token was issued for a different application");
+        }
+        if (claims.exp() + CLOCK_SKEW_SECONDS < now || claims.iat() - CLOCK_SKEW_SECONDS > now) {
+            throw new Exception("Token has expired");
+        }
+        if (claims.email() == null) {
+            throw new Exception("Email not found in token");
+        }
+        if (!claims.emailVerified()) {
+            throw new Exception("Google has not verified this email address");
+        }
+        return claims;
+    }
+
+    private PublicKey keyFor(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null && clock.millis() - lastLoadAttempt >= minReloadMillis) {
+            key = reloadForUnknownKey(kid);
+        }
+        return key;
+    }
+
+    // Unknown key id: Google may have rotated keys since the last refresh. Threads that
+    // queued here while another one reloaded find its keys, or the throttle, and skip the fetch
+    private synchronized PublicKey reloadForUnknownKey(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null && clock.millis() - lastLoadAttempt >= minReloadMillis) {
+            reload();
+            key = keys.get(kid);
+        }
+        return key;
+    }
+
+    private synchronized void reload() {
+        lastLoadAttempt = clock.millis();
+        try {
+            KeySet keySet = KEY_SET_READER.readValue(fetchKeySet());
+            Map<String, PublicKey> loaded = new HashMap<>();
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (Jwk jwk : keySet.keys()) {
+                if ("RSA".equals(jwk.kty()) && jwk.kid() != null) {
+                    Base64.Decoder decoder = Base64.getUrlDecoder();
+                    loaded.put(jwk.kid(), keyFactory.generatePublic(new RSAPublicKeySpec(
+                            new BigInteger(1, decoder.decode(jwk.n())), new BigInteger(1, decoder.decode(jwk.e())))));
+                }
+            }
+            if (!loaded.keySet().equals(keys.keySet())) {
+                log.info("Loaded {} Google signing keys", loaded.size());
+            }
+            keys = Map.copyOf(loaded);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            // Keep verifying with the keys we have; the next refresh tries again
+            reloadFailures.increment();
+            log.warn("Could not load Google signing keys from {}", jwksLocation, e);
+        }
+    }
+
+    private byte[] fetchKeySet() throws IOException {
+        if (jwksLocation.startsWith("http://") || jwksLocation.startsWith("https://")) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(jwksLocation)).timeout(Duration.ofSeconds(5)).GET().build();
+            try {
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != 200) {
+                    throw new IOException("HTTP " + response.statusCode());
+                }
+                return response.body();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+        }
+        try (InputStream in = new DefaultResourceLoader().getResource(jwksLocation).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private record Header(String alg, String kid) {
+    }
+
+    private record KeySet(List<Jwk> keys) {
+    }
+
+    private record Jwk(String kty, String kid, String n, String e) {
+    }
+}
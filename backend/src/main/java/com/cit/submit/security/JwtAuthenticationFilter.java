@@ -1,7 +1,5 @@
 package com.cit.submit.security;
 
-import com.cit.submit.repository.UserRepository;
-import com.cit.submit.model.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,31 +12,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Base64;
-import java.util.Collection;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private UserRepository userRepository;
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String token = extractTokenFromRequest(request);
-            if (token != null && validateToken(token)) {
-                Long userId = extractUserIdFromToken(token);
-                User user = userRepository.findById(userId).orElse(null);
-                
-                if (user != null && user.getActive()) {
-                    Collection<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                    authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole().toString()));
-                    
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(user.getEmail(), null, authorities);
+            AccessTokenService.TokenClaims claims = accessTokenService.verify(request.getHeader("Authorization"));
+            if (claims != null) {
+                // The token proves who the caller is; role and active come from the stored user,
+                // so a deactivation or role change outlives neither the token nor a restart
+                UserPrincipal user = principalCache.get(claims.userId());
+
+                if (user != null && user.active()) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.role())));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
@@ -49,36 +46,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
-
-    private String extractTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-
-    private boolean validateToken(String token) {
-        try {
-            String[] parts = token.split("\\.");
-            if (parts.length != 2) return false;
-            
-            String payload = new String(Base64.getDecoder().decode(parts[0]));
-            String[] fields = payload.split(":");
-            return fields.length >= 3;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private Long extractUserIdFromToken(String token) {
-        try {
-            String[] parts = token.split("\\.");
-            String payload = new String(Base64.getDecoder().decode(parts[0]));
-            String[] fields = payload.split(":");
-            return Long.parseLong(fields[0]);
-        } catch (Exception e) {
-            return null;
-        }
-    }
 }
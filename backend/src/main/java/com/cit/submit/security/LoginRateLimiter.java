@@ -0,0 +1,170 @@
+package com.cit.submit.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket limits on sign-in attempts, per client IP and per email address.
+ *
+ * Each key holds a single {@link AtomicLong}: the time at which its bucket would be full
+ * again (the GCRA form of a token bucket). Taking a token is one compare-and-set, so
+ * checks never lock and cost nothing next to the database and BCrypt work they protect.
+ * A key whose bucket has refilled carries no information and is dropped by
+ * {@link #evictIdle()}, so memory follows the number of recently active keys. If a map
+ * still reaches {@code max-keys}, a new key sweeps it inline at most once a second, and
+ * until a sweep frees room new keys of that kind are let through untracked; the other
+ * limit still applies.
+ */
+@Component
+public class LoginRateLimiter {
+
+    // A bucket being evicted; an attempt that finds it starts a new one
+    private static final long RETIRED = Long.MIN_VALUE;
+    private static final long INLINE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Limiter byIp;
+    private final Limiter byEmail;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${app.security.rate-limit.ip.capacity:300}") int ipCapacity,
+                            @Value("${app.security.rate-limit.ip.period:1m}") Duration ipPeriod,
+                            @Value("${app.security.rate-limit.email.capacity:10}") int emailCapacity,
+                            @Value("${app.security.rate-limit.email.period:15m}") Duration emailPeriod,
+                            @Value("${app.security.rate-limit.max-keys:100000}") int maxKeys) {
+        this(meterRegistry, ipCapacity, ipPeriod, emailCapacity, emailPeriod, maxKeys, System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, int ipCapacity, Duration ipPeriod,
+                     int emailCapacity, Duration emailPeriod, int maxKeys, LongSupplier clock) {
+        long now = clock.getAsLong();
+        this.byIp = new Limiter("ip", ipCapacity, ipPeriod, maxKeys, now, meterRegistry);
+        this.byEmail = new Limiter("email", emailCapacity, emailPeriod, maxKeys, now, meterRegistry);
+        this.clock = clock;
+    }
+
+    // Takes one attempt from the IP and, if given, the email; returns 0 if allowed, else seconds to wait
+    public long tryAcquire(String clientIp, String email) {
+        long now = clock.getAsLong();
+        long waitNanos = byIp.tryAcquire(clientIp, now);
+        if (waitNanos == 0 && email != null && !email.isBlank()) {
+            waitNanos = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+        }
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        byIp.evictIdle(now);
+        byEmail.evictIdle(now);
+    }
+
+    private static final class Limiter {
+
+        private final ConcurrentHashMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+        private final long intervalNanos; // one token refills every interval
+        private final long periodNanos;   // capacity * interval: how far ahead fullAt may run
+        private final int maxKeys;
+        private final AtomicLong nextInlineSweep;
+
+        private final Counter allowed;
+        private final Counter throttled;
+        private final Counter untracked;
+
+        Limiter(String kind, int capacity, Duration period, int maxKeys, long now, MeterRegistry meterRegistry) {
+            this.intervalNanos = Math.max(1, period.toNanos() / capacity);
+            this.periodNanos = intervalNanos * capacity;
+            this.maxKeys = maxKeys;
+            this.nextInlineSweep = new AtomicLong(now);
+
+            this.allowed = Counter.builder("auth.ratelimit.requests")
+                    .tag("key", kind)
+                    .tag("result", "allowed")
+                    .register(meterRegistry);
+            this.throttled = Counter.builder("auth.ratelimit.requests")
+                    .tag("key", kind)
+                    .tag("result", "throttled")
+                    .description("Sign-in attempts rejected before any database or password work")
+                    .register(meterRegistry);
+            this.untracked = Counter.builder("auth.ratelimit.requests")
+                    .tag("key", kind)
+                    .tag("result", "untracked")
+                    .description("Attempts let through because the key table was full")
+                    .register(meterRegistry);
+            Gauge.builder("auth.ratelimit.keys", fullAt, Map::size)
+                    .tag("key", kind)
+                    .register(meterRegistry);
+        }
+
+        // Returns 0 if a token was taken, else nanoseconds until the next one
+        long tryAcquire(String key, long now) {
+            if (key == null) {
+                key = "";
+            }
+            while (true) {
+                AtomicLong state = fullAt.get(key);
+                if (state == null) {
+                    if (fullAt.size() >= maxKeys && !sweepWhenFull(now)) {
+                        untracked.increment();
+                        return 0;
+                    }
+                    state = fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+                }
+
+                long current = state.get();
+                if (current == RETIRED) {
+                    // Evicted between the lookup and here; help remove it and start afresh
+                    fullAt.remove(key, state);
+                    continue;
+                }
+                long next = Math.max(current, now) + intervalNanos;
+                if (next - now > periodNanos) {
+                    throttled.increment();
+                    return next - now - periodNanos;
+                }
+                if (state.compareAndSet(current, next)) {
+                    allowed.increment();
+                    return 0;
+                }
+            }
+        }
+
+        // Only one caller per interval pays for an O(n) sweep of a full table
+        private boolean sweepWhenFull(long now) {
+            long due = nextInlineSweep.get();
+            if (now - due < 0 || !nextInlineSweep.compareAndSet(due, now + INLINE_SWEEP_INTERVAL_NANOS)) {
+                return false;
+            }
+            evictIdle(now);
+            return fullAt.size() < maxKeys;
+        }
+
+        // A bucket that has refilled is the same as no bucket. It is retired with a
+        // compare-and-set on the value that was checked, so a token taken meanwhile keeps
+        // it, and removed only if the key still maps to that bucket
+        void evictIdle(long now) {
+            for (Map.Entry<String, AtomicLong> entry : fullAt.entrySet()) {
+                AtomicLong state = entry.getValue();
+                long current = state.get();
+                if (current != RETIRED && current - now <= 0 && state.compareAndSet(current, RETIRED)) {
+                    fullAt.remove(entry.getKey(), state);
+                }
+            }
+        }
+    }
+}
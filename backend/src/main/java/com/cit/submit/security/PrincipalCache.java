@@ -0,0 +1,152 @@
+package com.cit.submit.security;
+
+import com.cit.submit.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-expiring cache of {@link UserPrincipal}s keyed by user id.
+ * Saves the filter a database round-trip per request; admin mutations call
+ * {@link #invalidate(Long)} so role and active changes apply immediately on this
+ * instance. Every entry is re-read from the users table after {@code ttl}, so other
+ * instances, and this one after a restart, see the change within that time.
+ */
+@Component
+public class PrincipalCache {
+
+    // How many entries to look at when picking an eviction victim
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+    private static final long EXPIRED_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with one is not cached
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+    private final AtomicLong nextExpiredSweep = new AtomicLong(System.nanoTime());
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${app.security.principal-cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+
+        this.hits = Counter.builder("auth.principal.cache.requests")
+                .tag("result", "hit")
+                .description("Principal lookups served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.principal.cache.requests")
+                .tag("result", "miss")
+                .description("Principal lookups that went to the database")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("auth.principal.cache.evictions")
+                .description("Entries dropped because the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", entries, Map::size)
+                .description("Principals currently cached")
+                .register(meterRegistry);
+    }
+
+    // Returns the cached principal, loading it from the database on a miss; null if the user does not exist
+    public UserPrincipal get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            hits.increment();
+            return entry.principal;
+        }
+
+        misses.increment();
+        long epoch = invalidationEpoch.get();
+        UserPrincipal principal = userRepository.findById(userId)
+                .map(UserPrincipal::from)
+                .orElse(null);
+
+        if (principal == null) {
+            entries.remove(userId);
+            return null;
+        }
+
+        if (epoch == invalidationEpoch.get()) {
+            if (entries.size() >= maxSize && !entries.containsKey(userId)) {
+                evict(now);
+            }
+            Entry loaded = new Entry(principal, now);
+            entries.put(userId, loaded);
+            // An invalidation between the check and the put may have removed the key
+            // before the put; drop the entry ourselves rather than keep it for the TTL
+            if (epoch != invalidationEpoch.get()) {
+                entries.remove(userId, loaded);
+            }
+        }
+        return principal;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        invalidationEpoch.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    public void invalidateAll() {
+        invalidationEpoch.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops expired entries, at most once per interval since that walks the whole map,
+    // or failing that the oldest of a small sample
+    private void evict(long now) {
+        long due = nextExpiredSweep.get();
+        if (now - due >= 0 && nextExpiredSweep.compareAndSet(due, now + EXPIRED_SWEEP_INTERVAL_NANOS)) {
+            entries.values().removeIf(e -> now - e.loadedAt >= ttlNanos);
+            if (entries.size() < maxSize) {
+                return;
+            }
+        }
+
+        Long victim = null;
+        long oldest = Long.MAX_VALUE;
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && it.hasNext(); i++) {
+            Map.Entry<Long, Entry> candidate = it.next();
+            if (candidate.getValue().loadedAt < oldest) {
+                oldest = candidate.getValue().loadedAt;
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null && entries.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    private record Entry(UserPrincipal principal, long loadedAt) {}
+}
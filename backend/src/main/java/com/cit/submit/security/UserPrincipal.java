@@ -0,0 +1,17 @@
+package com.cit.submit.security;
+
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+
+// Minimal view of a user needed to authenticate a request
+public record UserPrincipal(Long id, String email, UserRole role, boolean active) {
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getEmail(),
+                user.getRole(),
+                Boolean.TRUE.equals(user.getActive())
+        );
+    }
+}
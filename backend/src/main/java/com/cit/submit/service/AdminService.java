@@ -2,51 +2,153 @@ package com.cit.submit.service;
 
 import com.cit.submit.dto.UserAdminRequest;
 import com.cit.submit.dto.UserAdminResponse;
+import com.cit.submit.dto.AuditLogFilter;
+import com.cit.submit.dto.BulkOperationResponse;
+import com.cit.submit.dto.BulkUserRequest;
+import com.cit.submit.dto.AuditLogPage;
 import com.cit.submit.dto.AuditLogResponse;
+import com.cit.submit.dto.PageResponse;
+import com.cit.submit.dto.UserFilter;
+import com.cit.submit.dto.UserPage;
 import com.cit.submit.model.User;
 import com.cit.submit.model.UserRole;
 import com.cit.submit.model.AuditLog;
 import com.cit.submit.repository.UserRepository;
 import com.cit.submit.repository.AuditLogRepository;
+import com.cit.submit.repository.UserSort;
+import com.cit.submit.repository.UserState;
+import com.cit.submit.repository.UserVersion;
+import com.cit.submit.security.PrincipalCache;
+import com.cit.submit.service.TeamRosterService.Membership;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
+// adminId parameters identify the acting admin for audit entries; the caller
+// passes the authenticated principal's id
 @Service
+@PreAuthorize("hasRole('ADMIN')")
 public class AdminService {
 
+    private static final int MAX_AUDIT_PAGE_SIZE = 200;
+    private static final int MAX_USER_PAGE_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 5000;
+    // Keeps each IN (...) list well under the database's bind parameter limit
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private AuditLogRepository auditLogRepository;
 
-    // Verify if user is admin
-    public boolean isAdmin(Long userId) throws Exception {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new Exception("User not found"));
-        return user.getRole() == UserRole.ADMIN;
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmailValidationService emailValidationService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TeamRosterService teamRosterService;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    // Get one page of users, ordered by id
+    public PageResponse<UserAdminResponse> getAllUsers(int page, int size) throws Exception {
+        Page<User> users = userRepository.findAll(userPage(page, size));
+        return PageResponse.of(users.map(this::convertToAdminResponse));
+    }
+
+    // Ids and versions of the page getAllUsers would return, for answering conditional GETs
+    public PageResponse<UserVersion> getUserVersions(int page, int size) {
+        return PageResponse.of(userRepository.findVersions(userPage(page, size)));
     }
 
-    // Get all users
-    public List<UserAdminResponse> getAllUsers(Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can view users");
+    // Filtered, sorted page of users; pass the previous page's nextCursor to continue
+    public UserPage searchUsers(UserFilter filter, String sort, String direction, String cursor, int limit) throws Exception {
+        int pageSize = Math.max(1, Math.min(limit, MAX_USER_PAGE_SIZE));
+        UserSort userSort = UserSort.fromProperty(sort == null || sort.isEmpty() ? "id" : sort);
+        boolean descending = "desc".equalsIgnoreCase(direction);
+
+        // The cursor records the order it was issued for, so it cannot be replayed under another one
+        String order = userSort.property() + (descending ? ":desc" : ":asc");
+        Object cursorValue = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+                if (!parts[0].equals(order)) {
+                    throw new IllegalArgumentException();
+                }
+                cursorId = Long.parseLong(parts[1]);
+                // No third part: the last row had no value in the sort column
+                if (parts.length == 3) {
+                    cursorValue = userSort == UserSort.CREATED_AT ? LocalDateTime.parse(parts[2]) : parts[2];
+                }
+            } catch (RuntimeException e) {
+                throw new Exception("Invalid cursor");
+            }
         }
 
-        return userRepository.findAll().stream()
-                .map(this::convertToAdminResponse)
-                .collect(Collectors.toList());
-    }
+        // Fetch one extra row to know whether another page exists
+        List<User> rows = userRepository.findPage(filter, userSort, descending, cursorValue, cursorId, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            User last = rows.get(pageSize - 1);
+            Object value = switch (userSort) {
+                case ID -> null;
+                case CREATED_AT -> last.getCreatedAt();
+                case NAME -> last.getName();
+                case EMAIL -> last.getEmail();
+            };
+            String raw = order + "|" + last.getId() + (value == null ? "" : "|" + value);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
 
-    // Get user details
-    public UserAdminResponse getUserById(Long userId, Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can view users");
+        List<UserAdminResponse> items = new ArrayList<>(rows.size());
+        for (User user : rows) {
+            items.add(convertToAdminResponse(user));
         }
+        return new UserPage(items, nextCursor);
+    }
+
+    public Long getUserVersion(Long userId) throws Exception {
+        return userRepository.findVersionById(userId)
+                .orElseThrow(() -> new Exception("User not found"));
+    }
 
+    // Get user details
+    public UserAdminResponse getUserById(Long userId) throws Exception {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new Exception("User not found"));
         return convertToAdminResponse(user);
@@ -54,12 +156,8 @@ public class AdminService {
 
     // Create new user (admin only)
     public UserAdminResponse createUser(UserAdminRequest request, Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can create users");
-        }
-
         // Validate email
-        if (!EmailValidationService.isValidInstitutionalEmail(request.getEmail())) {
+        if (!emailValidationService.isValidInstitutionalEmail(request.getEmail())) {
             throw new Exception("Invalid institutional email domain");
         }
 
@@ -76,7 +174,10 @@ public class AdminService {
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setRole(request.getRole());
-        user.setPasswordHash(request.getPasswordHash());
+        // The admin form sends the initial password in plain text
+        if (request.getPasswordHash() != null && !request.getPasswordHash().isEmpty()) {
+            user.setPasswordHash(passwordHashingService.hash(request.getPasswordHash()));
+        }
         
         // Set role-specific ID
         if (request.getRole() == UserRole.MEMBER) {
@@ -90,7 +191,7 @@ public class AdminService {
         user.setActive(true);
         user.setEmailVerified(true); // Admin-created accounts are pre-verified
 
-        user = userRepository.save(user);
+        user = teamRosterService.saveUser(user, null);
 
         // Log the action
         logAuditEvent(adminId, user.getId(), "CREATE", 
@@ -99,14 +200,10 @@ public class AdminService {
         return convertToAdminResponse(user);
     }
 
-    // Update user (admin only)
-    public UserAdminResponse updateUser(Long userId, UserAdminRequest request, Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can update users");
-        }
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new Exception("User not found"));
+    // Update user (admin only); expectedVersion comes from If-Match and null skips the check
+    public UserAdminResponse updateUser(Long userId, UserAdminRequest request, Long adminId, Long expectedVersion) throws Exception {
+        User user = findForUpdate(userId, expectedVersion);
+        Membership before = Membership.of(user);
 
         StringBuilder changedFields = new StringBuilder();
 
@@ -149,7 +246,8 @@ public class AdminService {
             user.setActive(request.getActive());
         }
 
-        user = userRepository.save(user);
+        user = saveVersioned(user, before);
+        principalCache.invalidate(userId);
 
         // Log the action
         logAuditEvent(adminId, userId, "UPDATE", 
@@ -159,21 +257,18 @@ public class AdminService {
     }
 
     // Change user role
-    public UserAdminResponse changeRole(Long userId, UserRole newRole, Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can change roles");
-        }
-
+    public UserAdminResponse changeRole(Long userId, UserRole newRole, Long adminId, Long expectedVersion) throws Exception {
         if (newRole == null) {
             throw new Exception("Invalid role");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new Exception("User not found"));
+        User user = findForUpdate(userId, expectedVersion);
+        Membership before = Membership.of(user);
 
         UserRole oldRole = user.getRole();
         user.setRole(newRole);
-        user = userRepository.save(user);
+        user = saveVersioned(user, before);
+        principalCache.invalidate(userId);
 
         // Log the action
         logAuditEvent(adminId, userId, "ROLE_CHANGE", 
@@ -184,13 +279,9 @@ public class AdminService {
     }
 
     // Deactivate user
-    public UserAdminResponse deactivateUser(Long userId, Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can deactivate users");
-        }
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new Exception("User not found"));
+    public UserAdminResponse deactivateUser(Long userId, Long adminId, Long expectedVersion) throws Exception {
+        User user = findForUpdate(userId, expectedVersion);
+        Membership before = Membership.of(user);
 
         if (!user.getActive()) {
             throw new Exception("User is already deactivated");
@@ -198,7 +289,8 @@ public class AdminService {
 
         user.setActive(false);
         user.setAccountStatus("DEACTIVATED");
-        user = userRepository.save(user);
+        user = saveVersioned(user, before);
+        principalCache.invalidate(userId);
 
         // Log the action
         logAuditEvent(adminId, userId, "DEACTIVATE", 
@@ -208,13 +300,9 @@ public class AdminService {
     }
 
     // Reactivate user
-    public UserAdminResponse reactivateUser(Long userId, Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can reactivate users");
-        }
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new Exception("User not found"));
+    public UserAdminResponse reactivateUser(Long userId, Long adminId, Long expectedVersion) throws Exception {
+        User user = findForUpdate(userId, expectedVersion);
+        Membership before = Membership.of(user);
 
         if (user.getActive()) {
             throw new Exception("User is already active");
@@ -222,7 +310,8 @@ public class AdminService {
 
         user.setActive(true);
         user.setAccountStatus("ACTIVE");
-        user = userRepository.save(user);
+        user = saveVersioned(user, before);
+        principalCache.invalidate(userId);
 
         // Log the action
         logAuditEvent(adminId, userId, "REACTIVATE", 
@@ -231,30 +320,214 @@ public class AdminService {
         return convertToAdminResponse(user);
     }
 
-    // Get audit logs
-    public List<AuditLogResponse> getAuditLogs(Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can view audit logs");
+    // Change the role of many users at once
+    public BulkOperationResponse bulkChangeRole(BulkUserRequest request, UserRole newRole, Long adminId) throws Exception {
+        if (newRole == null) {
+            throw new Exception("Invalid role");
         }
 
-        return auditLogRepository.findAll().stream()
-                .sorted((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()))
-                .map(this::convertToAuditLogResponse)
-                .collect(Collectors.toList());
+        return applyBulk("ROLE_CHANGE", request, adminId,
+                user -> user.role() == newRole ? "Role is already " + newRole : null,
+                ids -> userRepository.updateRoleByIdIn(ids, newRole),
+                user -> Membership.of(user).withRole(newRole),
+                user -> auditEntry(adminId, user, "ROLE_CHANGE", "Changed role for: " + user.email(),
+                        "role: " + user.role() + " -> " + newRole));
     }
 
-    // Get audit logs for specific user
-    public List<AuditLogResponse> getAuditLogsForUser(Long userId, Long adminId) throws Exception {
-        if (!isAdmin(adminId)) {
-            throw new Exception("Access denied: Only admins can view audit logs");
+    // Deactivate many users at once
+    public BulkOperationResponse bulkDeactivate(BulkUserRequest request, Long adminId) throws Exception {
+        return applyBulk("DEACTIVATE", request, adminId,
+                user -> Boolean.FALSE.equals(user.active()) ? "User is already deactivated" : null,
+                ids -> userRepository.updateActiveByIdIn(ids, false, "DEACTIVATED"),
+                user -> Membership.of(user).withStatus("DEACTIVATED"),
+                user -> auditEntry(adminId, user, "DEACTIVATE", "Deactivated user: " + user.email(), null));
+    }
+
+    // Reactivate many users at once
+    public BulkOperationResponse bulkReactivate(BulkUserRequest request, Long adminId) throws Exception {
+        return applyBulk("REACTIVATE", request, adminId,
+                user -> Boolean.TRUE.equals(user.active()) ? "User is already active" : null,
+                ids -> userRepository.updateActiveByIdIn(ids, true, "ACTIVE"),
+                user -> Membership.of(user).withStatus("ACTIVE"),
+                user -> auditEntry(adminId, user, "REACTIVATE", "Reactivated user: " + user.email(), null));
+    }
+
+    // Get one page of audit logs, newest first, optionally filtered
+    public AuditLogPage getAuditLogs(AuditLogFilter filter, String cursor, int limit) throws Exception {
+        int pageSize = Math.max(1, Math.min(limit, MAX_AUDIT_PAGE_SIZE));
+        LocalDateTime cursorTimestamp = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                cursorTimestamp = LocalDateTime.parse(decoded.substring(0, separator));
+                cursorId = Long.parseLong(decoded.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new Exception("Invalid cursor");
+            }
         }
 
-        return auditLogRepository.findByTargetUserIdOrderByTimestampDesc(userId).stream()
-                .map(this::convertToAuditLogResponse)
-                .collect(Collectors.toList());
+        // Fetch one extra row to know whether another page exists
+        List<AuditLogResponse> rows = auditLogRepository.findPage(filter, cursorTimestamp, cursorId, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AuditLogResponse last = rows.get(pageSize - 1);
+            String raw = last.getTimestamp() + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        return new AuditLogPage(new ArrayList<>(rows), nextCursor);
+    }
+
+    // Get audit logs for specific user
+    public List<AuditLogResponse> getAuditLogsForUser(Long userId) throws Exception {
+        return auditLogRepository.findResponsesByTargetUserId(userId);
     }
 
     // Helper methods
+
+    private static PageRequest userPage(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_USER_PAGE_SIZE)), Sort.by("id"));
+    }
+
+    // Locks and classifies the selection, then changes every eligible user with set-based
+    // UPDATEs and one batched audit insert, all in a single transaction. The locks keep the
+    // rows as they were classified, so the users reported, audited and recounted as UPDATED
+    // are exactly the rows the UPDATEs change.
+    private BulkOperationResponse applyBulk(String action, BulkUserRequest request, Long adminId,
+                                            Function<UserState, String> unchangedReason,
+                                            ToIntFunction<List<Long>> update,
+                                            Function<UserState, Membership> membershipAfter,
+                                            Function<UserState, AuditLog> auditEntry) throws Exception {
+        checkBulkRequest(request);
+        List<UserState> toChange = new ArrayList<>();
+
+        BulkOperationResponse response = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<Long, UserState> selected = lockBulkTargets(request);
+            if (selected == null) {
+                return null;
+            }
+
+            List<BulkOperationResponse.Result> results = new ArrayList<>();
+            for (Map.Entry<Long, UserState> entry : selected.entrySet()) {
+                Long userId = entry.getKey();
+                UserState user = entry.getValue();
+                if (user == null) {
+                    results.add(new BulkOperationResponse.Result(userId, "NOT_FOUND", "User not found"));
+                    continue;
+                }
+                if (userId.equals(adminId)) {
+                    results.add(new BulkOperationResponse.Result(userId, "SKIPPED", "Cannot change your own account in a bulk operation"));
+                    continue;
+                }
+                String reason = unchangedReason.apply(user);
+                if (reason != null) {
+                    results.add(new BulkOperationResponse.Result(userId, "UNCHANGED", reason));
+                } else {
+                    results.add(new BulkOperationResponse.Result(userId, "UPDATED", null));
+                    toChange.add(user);
+                }
+            }
+
+            int updated = 0;
+            for (int from = 0; from < toChange.size(); from += BULK_CHUNK_SIZE) {
+                List<Long> ids = toChange.subList(from, Math.min(from + BULK_CHUNK_SIZE, toChange.size()))
+                        .stream().map(UserState::id).toList();
+                updated += update.applyAsInt(ids);
+            }
+            // Cannot happen while the rows are locked; rolling back beats reporting changes that were not made
+            if (updated != toChange.size()) {
+                throw new IllegalStateException("Bulk " + action + " changed " + updated + " of "
+                        + toChange.size() + " locked users");
+            }
+            if (!toChange.isEmpty()) {
+                auditLogRepository.saveAll(toChange.stream().map(auditEntry).toList());
+                teamRosterService.recordChanges(toChange.stream().map(Membership::of).toList(),
+                        toChange.stream().map(membershipAfter).toList());
+            }
+            return new BulkOperationResponse(action, results.size(), updated, results);
+        });
+        if (response == null) {
+            throw new Exception("Filter matches more than " + MAX_BULK_SIZE + " users; narrow it down");
+        }
+
+        if (!toChange.isEmpty()) {
+            // After commit, so a concurrent reload cannot cache the old state
+            toChange.forEach(user -> principalCache.invalidate(user.id()));
+            adminStatsService.invalidate();
+        }
+        return response;
+    }
+
+    private static void checkBulkRequest(BulkUserRequest request) throws Exception {
+        if (request == null) {
+            throw new Exception("Select users by userIds or by teamCode/role");
+        }
+        boolean byIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        boolean byFilter = bulkTeamCode(request) != null || request.getRole() != null;
+        if (byIds == byFilter) {
+            throw new Exception("Select users by userIds or by teamCode/role, not both");
+        }
+        if (byIds && new HashSet<>(request.getUserIds()).stream().filter(id -> id != null).count() > MAX_BULK_SIZE) {
+            throw new Exception("A bulk operation can change at most " + MAX_BULK_SIZE + " users");
+        }
+    }
+
+    // Resolves ids or a filter to users, locking their rows in id order and keeping request
+    // order in the result; missing ids map to null. Null when the filter matches too many users.
+    private Map<Long, UserState> lockBulkTargets(BulkUserRequest request) {
+        Map<Long, UserState> selected = new LinkedHashMap<>();
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>(request.getUserIds());
+            ids.remove(null);
+            List<Long> sorted = ids.stream().sorted().toList();
+            Map<Long, UserState> found = new HashMap<>();
+            for (int from = 0; from < sorted.size(); from += BULK_CHUNK_SIZE) {
+                userRepository.lockStatesByIdIn(sorted.subList(from, Math.min(from + BULK_CHUNK_SIZE, sorted.size())))
+                        .forEach(user -> found.put(user.id(), user));
+            }
+            ids.forEach(id -> selected.put(id, found.get(id)));
+        } else {
+            List<UserState> matches = userRepository.lockStatesByFilter(bulkTeamCode(request), request.getRole(),
+                    PageRequest.of(0, MAX_BULK_SIZE + 1));
+            if (matches.size() > MAX_BULK_SIZE) {
+                return null;
+            }
+            matches.forEach(user -> selected.put(user.id(), user));
+        }
+        return selected;
+    }
+
+    private static String bulkTeamCode(BulkUserRequest request) {
+        return request.getTeamCode() == null || request.getTeamCode().isBlank() ? null : request.getTeamCode();
+    }
+
+    private AuditLog auditEntry(Long adminId, UserState user, String action, String description, String changedFields) {
+        AuditLog log = new AuditLog(adminId, user.id(), action, description);
+        log.setChangedFields(changedFields);
+        return log;
+    }
+
+    // Loads a user for a single-user edit, rejecting a stale If-Match version up front
+    private User findForUpdate(Long userId, Long expectedVersion) throws Exception {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new Exception("User not found"));
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new VersionConflictException("User was changed by someone else, reload and try again");
+        }
+        return user;
+    }
+
+    // The @Version check at save catches an edit that lands between the load and the save
+    private User saveVersioned(User user, Membership before) throws Exception {
+        try {
+            return teamRosterService.saveUser(user, before);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException("User was changed by someone else, reload and try again");
+        }
+    }
+
     private void logAuditEvent(Long adminId, Long targetUserId, String action, String description, String changedFields) {
         AuditLog log = new AuditLog();
         log.setAdminId(adminId);
@@ -263,10 +536,12 @@ public class AdminService {
         log.setDescription(description);
         log.setChangedFields(changedFields);
         log.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(log);
+        // The writer invalidates the dashboard stats once the entry is committed
+        auditLogWriter.enqueue(log);
     }
 
-    private UserAdminResponse convertToAdminResponse(User user) {
+    // Package-private for AdminMappingBenchmark
+    UserAdminResponse convertToAdminResponse(User user) {
         UserAdminResponse response = new UserAdminResponse();
         response.setId(user.getId());
         response.setName(user.getName());
@@ -288,24 +563,8 @@ public class AdminService {
         response.setAccountStatus(user.getAccountStatus());
         response.setCreatedAt(user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
         response.setApprovedAt(user.getApprovedAt() != null ? user.getApprovedAt().toString() : null);
+        response.setVersion(user.getVersion());
         
         return response;
     }
-
-    private AuditLogResponse convertToAuditLogResponse(AuditLog log) {
-        User admin = userRepository.findById(log.getAdminId()).orElse(null);
-        User targetUser = userRepository.findById(log.getTargetUserId()).orElse(null);
-
-        return new AuditLogResponse(
-                log.getId(),
-                log.getAdminId(),
-                admin != null ? admin.getName() : "Unknown",
-                log.getTargetUserId(),
-                targetUser != null ? targetUser.getEmail() : "Unknown",
-                log.getAction(),
-                log.getDescription(),
-                log.getChangedFields(),
-                log.getTimestamp()
-        );
-    }
 }
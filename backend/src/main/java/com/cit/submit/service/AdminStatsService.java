@@ -0,0 +1,164 @@
+package com.cit.submit.service;
+
+import com.cit.submit.dto.AdminStats;
+import com.cit.submit.dto.DailyCount;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.repository.ActionCount;
+import com.cit.submit.repository.AuditLogRepository;
+import com.cit.submit.repository.UserRepository;
+import com.cit.submit.repository.UserStatusCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Headline numbers for the admin dashboard, computed with a few GROUP BY queries over
+ * users and audit_logs and served from an in-memory snapshot.
+ *
+ * The snapshot is recomputed every {@code app.admin.stats.refresh-interval-ms}, and on the
+ * next read after {@link #invalidate()}, which AuditLogWriter calls once an admin change's
+ * audit entry has committed (and AdminService after a bulk change). One thread recomputes
+ * at a time; readers that find a stale snapshot while it does get the previous one
+ * instead of queueing behind the queries. Changes made outside AdminService
+ * (registrations, verification, roster imports) appear at the next refresh.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final int RECENT_ACTIONS = 10;
+    private static final List<String> STATUSES = List.of("PENDING", "ACTIVE", "DEACTIVATED");
+
+    private final UserRepository userRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final int windowDays;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // Bumped on every invalidation; a snapshot computed from an older generation is stale
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer computeLatency;
+
+    public AdminStatsService(UserRepository userRepository,
+                             AuditLogRepository auditLogRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.admin.stats.window-days:30}") int windowDays) {
+        this.userRepository = userRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.windowDays = Math.max(1, windowDays);
+
+        this.hits = Counter.builder("admin.stats.cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("admin.stats.cache.requests")
+                .tag("result", "miss")
+                .description("Dashboard reads that found the snapshot invalidated or missing")
+                .register(meterRegistry);
+        this.computeLatency = Timer.builder("admin.stats.compute.latency")
+                .register(meterRegistry);
+    }
+
+    public AdminStats getStats() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()) {
+            hits.increment();
+            return current.stats();
+        }
+        misses.increment();
+
+        if (current == null) {
+            refreshLock.lock();
+        } else if (!refreshLock.tryLock()) {
+            // Someone else is already recomputing
+            return current.stats();
+        }
+        try {
+            current = snapshot;
+            if (current != null && current.generation() == generation.get()) {
+                return current.stats();
+            }
+            return compute();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin.stats.refresh-interval-ms:60000}",
+               initialDelayString = "${app.admin.stats.refresh-interval-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            compute();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Caller holds refreshLock
+    private AdminStats compute() {
+        long startedGeneration = generation.get();
+        AdminStats stats = computeLatency.record(this::query);
+        snapshot = new Snapshot(stats, startedGeneration);
+        return stats;
+    }
+
+    private AdminStats query() {
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(windowDays - 1);
+        LocalDateTime since = firstDay.atStartOfDay();
+
+        Map<String, Long> byRole = new LinkedHashMap<>();
+        for (UserRole role : UserRole.values()) {
+            byRole.put(role.name(), 0L);
+        }
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        STATUSES.forEach(status -> byStatus.put(status, 0L));
+        long total = 0;
+        for (UserStatusCount row : userRepository.countByRoleAndStatus()) {
+            total += row.count();
+            byRole.merge(row.role().name(), row.count(), Long::sum);
+            // Same convention as the team counts: no status yet means pending
+            byStatus.merge(row.accountStatus() == null ? "PENDING" : row.accountStatus(), row.count(), Long::sum);
+        }
+
+        Map<LocalDate, Long> signUps = new HashMap<>();
+        userRepository.countSignUpsPerDay(since).forEach(row -> signUps.put(row.getDay(), row.getCount()));
+        List<DailyCount> signUpsPerDay = new ArrayList<>(windowDays);
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            signUpsPerDay.add(new DailyCount(day, signUps.getOrDefault(day, 0L)));
+        }
+
+        Map<String, Long> actionsByType = new TreeMap<>();
+        for (ActionCount row : auditLogRepository.countActionsSince(since)) {
+            actionsByType.put(row.action() == null ? "UNKNOWN" : row.action(), row.count());
+        }
+
+        return new AdminStats(total, byRole, byStatus, signUpsPerDay, actionsByType,
+                auditLogRepository.findRecentResponses(PageRequest.of(0, RECENT_ACTIONS)),
+                LocalDateTime.now());
+    }
+
+    private record Snapshot(AdminStats stats, long generation) {}
+}
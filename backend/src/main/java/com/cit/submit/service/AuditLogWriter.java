@@ -0,0 +1,213 @@
+package com.cit.submit.service;
+
+import com.cit.submit.model.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists audit log entries off the request path.
+ *
+ * Admin actions hand their {@link AuditLog} to {@link #enqueue(AuditLog)}, which only
+ * touches a bounded in-memory queue. A single background thread drains the queue and
+ * inserts entries in JDBC batches. When the queue is full the caller waits up to
+ * {@code app.audit.offer-timeout}, then writes its own entry synchronously, so a slow
+ * database pushes back on admin requests instead of dropping audit rows. The queue is
+ * flushed when the application shuts down.
+ *
+ * The dashboard's recent actions come from audit_logs, so each committed batch
+ * invalidates the {@link AdminStatsService} snapshot; invalidating when an entry is only
+ * queued would let the next recompute miss it.
+ */
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (admin_id, target_user_id, action, description, changed_fields, timestamp, ip_address) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AdminStatsService adminStatsService;
+    private final BlockingQueue<AuditLog> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+
+    private final Timer flushLatency;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter backpressure;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          AdminStatsService adminStatsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.audit.batch-size:200}") int batchSize,
+                          @Value("${app.audit.flush-interval:200ms}") Duration flushInterval,
+                          @Value("${app.audit.offer-timeout:50ms}") Duration offerTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.adminStatsService = adminStatsService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.offerTimeoutMillis = offerTimeout.toMillis();
+
+        Gauge.builder("audit.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("audit.writer.flush.latency")
+                .description("Time to insert one batch of audit entries")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.writer.entries")
+                .tag("result", "written")
+                .register(meterRegistry);
+        this.failed = Counter.builder("audit.writer.entries")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.backpressure = Counter.builder("audit.writer.backpressure")
+                .description("Entries written on the caller's thread because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(AuditLog entry) {
+        if (entry.getTimestamp() == null) {
+            entry.setTimestamp(LocalDateTime.now());
+        }
+
+        if (running) {
+            try {
+                if (queue.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Queue full or writer stopped: the caller pays for its own insert
+        backpressure.increment();
+        write(List.of(entry));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything still queued (e.g. the join timed out) is written here
+        flushRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server has stopped accepting requests, start before it
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditLog first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // stop() interrupts us; the loop condition decides whether to exit
+            }
+        }
+        flushRemaining();
+    }
+
+    private synchronized void flushRemaining() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                flushLatency.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                    ps.setObject(1, entry.getAdminId());
+                    ps.setObject(2, entry.getTargetUserId());
+                    ps.setString(3, entry.getAction());
+                    ps.setString(4, entry.getDescription());
+                    ps.setString(5, entry.getChangedFields());
+                    ps.setTimestamp(6, Timestamp.valueOf(entry.getTimestamp()));
+                    ps.setString(7, entry.getIpAddress());
+                }));
+                written.increment(batch.size());
+                adminStatsService.invalidate();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    failed.increment(batch.size());
+                    log.error("Dropping {} audit entries after {} attempts", batch.size(), MAX_ATTEMPTS, e);
+                    batch.forEach(entry -> log.error("Lost audit entry: admin={} target={} action={} description={}",
+                            entry.getAdminId(), entry.getTargetUserId(), entry.getAction(), entry.getDescription()));
+                    return;
+                }
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
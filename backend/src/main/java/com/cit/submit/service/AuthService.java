@@ -5,13 +5,13 @@ import com.cit.submit.dto.RegisterRequest;
 import com.cit.submit.model.User;
 import com.cit.submit.model.UserRole;
 import com.cit.submit.repository.UserRepository;
+import com.cit.submit.security.AccessTokenService;
+import com.cit.submit.security.GoogleIdTokenClaims;
+import com.cit.submit.security.GoogleIdTokenVerifier;
+import com.cit.submit.service.TeamRosterService.Membership;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
-import java.util.Base64;
-import java.util.UUID;
-import java.util.Map;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class AuthService {
@@ -19,6 +19,27 @@ public class AuthService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private GoogleIdTokenVerifier googleIdTokenVerifier;
+
+    @Autowired
+    private EmailValidationService emailValidationService;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private EmailVerificationService emailVerificationService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TeamRosterService teamRosterService;
+
     public LoginResponse login(String email, String password) throws Exception {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new Exception("User not found"));
@@ -27,9 +48,14 @@ public class AuthService {
             throw new Exception("Email not verified. Please check your email for verification link.");
         }
 
-        if (user.getPasswordHash() != null && !user.getPasswordHash().equals(password)) {
+        // BCrypt runs on the hashing pool; legacy plaintext and low-cost hashes are upgraded afterwards
+        String storedHash = user.getPasswordHash();
+        if (!passwordHashingService.matches(password, storedHash)) {
             throw new Exception("Invalid password");
         }
+        Long userId = user.getId();
+        passwordHashingService.upgradeInBackground(password, storedHash,
+                newHash -> userRepository.replacePasswordHash(userId, storedHash, newHash));
 
         String token = generateToken(user);
 
@@ -43,7 +69,7 @@ public class AuthService {
 
     public LoginResponse registerManual(RegisterRequest request) throws Exception {
         // Validate institutional email domain
-        if (!EmailValidationService.isValidInstitutionalEmail(request.getEmail())) {
+        if (!emailValidationService.isValidInstitutionalEmail(request.getEmail())) {
             throw new Exception("Please use an institutional email address (@school.edu)");
         }
 
@@ -58,7 +84,7 @@ public class AuthService {
         // Create unverified user
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPasswordHash(request.getPassword());
+        user.setPasswordHash(passwordHashingService.hash(request.getPassword()));
         user.setName(request.getName());
         user.setStudentId(request.getStudentId());
         user.setTeamCode(request.getTeamCode());
@@ -67,11 +93,10 @@ public class AuthService {
         user.setAuthProvider("email");
         user.setAccountStatus("PENDING");
 
-        user = userRepository.save(user);
+        user = teamRosterService.saveUser(user, null);
 
-        // In production, send verification email via Gmail API
-        // String verificationLink = "http://localhost:5173/verify?token=" + user.getVerificationToken();
-        // sendVerificationEmail(user.getEmail(), user.getName(), verificationLink);
+        // Queues the verification link; the mail server is not contacted here
+        emailVerificationService.sendVerification(user);
 
         return new LoginResponse(null, new LoginResponse.UserInfo(
                 user.getId(),
@@ -81,69 +106,15 @@ public class AuthService {
         ));
     }
 
-    public LoginResponse registerOAuth(String email, String name, String oauthProvider) throws Exception {
-        // Validate institutional email domain
-        if (!EmailValidationService.isValidInstitutionalEmail(email)) {
-            throw new Exception("Please use an institutional email address");
-        }
-
-        User user = userRepository.findByEmail(email).orElse(null);
-
-        if (user == null) {
-            // Create new user with OAuth
-            user = new User();
-            user.setEmail(email);
-            user.setName(name);
-            user.setAuthProvider(oauthProvider);
-            user.setRole(UserRole.MEMBER); // Default role
-            user.setEmailVerified(true); // OAuth verified automatically
-            user.setAccountStatus("ACTIVE");
-            user = userRepository.save(user);
-        } else if (!user.getEmailVerified()) {
-            // Verify existing unverified user
-            user.setEmailVerified(true);
-            user.setAuthProvider(oauthProvider);
-            user.setAccountStatus("ACTIVE");
-            user = userRepository.save(user);
-        }
-
-        String token = generateToken(user);
-
-        return new LoginResponse(token, new LoginResponse.UserInfo(
-                user.getId(),
-                user.getEmail(),
-                user.getRole().toString(),
-                user.getName()
-        ));
-    }
-
     public LoginResponse authenticateWithGoogle(String googleToken) throws Exception {
         try {
-            // Decode the Google JWT token (already verified by Google frontend)
-            // Format: header.payload.signature
-            String[] parts = googleToken.split("\\.");
-            if (parts.length != 3) {
-                throw new Exception("Invalid token format");
-            }
-
-            // Decode the payload (second part)
-            String payload = new String(Base64.getUrlDecoder().decode(parts[1]));
-            
-            // Parse JSON payload
-            ObjectMapper objectMapper = new ObjectMapper();
-            Map<String, Object> tokenPayload = objectMapper.readValue(payload, Map.class);
-
-            // Extract user information from token
-            String email = (String) tokenPayload.get("email");
-            String name = (String) tokenPayload.get("name");
-            String picture = (String) tokenPayload.get("picture");
-
-            if (email == null) {
-                throw new Exception("Email not found in token");
-            }
+            // Signature, issuer, audience and expiry are checked against Google's cached keys
+            GoogleIdTokenClaims claims = googleIdTokenVerifier.verify(googleToken);
+            String email = claims.email();
+            String picture = claims.picture();
 
             // Validate institutional email
-            if (!EmailValidationService.isValidInstitutionalEmail(email)) {
+            if (!emailValidationService.isValidInstitutionalEmail(email)) {
                 throw new Exception("Please use an institutional email address");
             }
 
@@ -154,23 +125,35 @@ public class AuthService {
                 // Create new user with Google OAuth
                 user = new User();
                 user.setEmail(email);
-                user.setName(name);
+                user.setName(claims.name() != null ? claims.name() : email);
                 user.setAuthProvider("google");
                 user.setPictureUrl(picture);
                 user.setRole(UserRole.MEMBER);
                 user.setEmailVerified(true);
                 user.setAccountStatus("ACTIVE");
                 user.setPasswordHash(""); // OAuth users don't have password
-                user = userRepository.save(user);
+                user = teamRosterService.saveUser(user, null);
+                sendWelcomeEmail(user);
             } else {
-                // Update existing user
-                user.setAuthProvider("google");
-                user.setEmailVerified(true);
-                user.setAccountStatus("ACTIVE");
-                if (picture != null) {
+                // Only write the row when something actually changed
+                Membership before = Membership.of(user);
+                boolean changed = false;
+                if (!Boolean.TRUE.equals(user.getEmailVerified()) || !"google".equals(user.getAuthProvider())) {
+                    user.setAuthProvider("google");
+                    user.setEmailVerified(true);
+                    if ("PENDING".equals(user.getAccountStatus())) {
+                        user.setAccountStatus("ACTIVE"); // a deactivated account stays deactivated
+                    }
+                    changed = true;
+                }
+                // A photo the user uploaded takes precedence over their Google picture
+                if (picture != null && !picture.equals(user.getPictureUrl()) && !PhotoService.isUploaded(user.getPictureUrl())) {
                     user.setPictureUrl(picture);
+                    changed = true;
+                }
+                if (changed) {
+                    user = teamRosterService.saveUser(user, before);
                 }
-                user = userRepository.save(user);
             }
 
             // Generate backend JWT token
@@ -189,13 +172,16 @@ public class AuthService {
     }
 
     public void verifyEmail(String token) throws Exception {
-        // Note: The new User model doesn't have verification token field
-        // You may want to implement a separate token management service
-        throw new Exception("Email verification not implemented in new model");
+        emailVerificationService.verify(token);
+    }
+
+    // Queued, not sent: registration never waits on the mail server
+    private void sendWelcomeEmail(User user) {
+        mailDispatcher.enqueue(user.getEmail(), EmailService.OAUTH_WELCOME_SUBJECT,
+                EmailService.buildOAuthVerificationEmail(user.getName()));
     }
 
     private String generateToken(User user) {
-        String payload = user.getId() + ":" + user.getEmail() + ":" + System.currentTimeMillis();
-        return Base64.getEncoder().encodeToString(payload.getBytes()) + "." + UUID.randomUUID().toString();
+        return accessTokenService.issue(user);
     }
 }
@@ -0,0 +1,314 @@
+package com.cit.submit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file storage for uploads.
+ *
+ * An upload is copied from the request channel to a file under {@code incoming/} through
+ * one direct buffer of {@code app.storage.buffer-size}, and the same bytes feed a SHA-256
+ * digest on the way, so heap use per upload does not depend on the file size. The
+ * finished file is then renamed to {@code <root>/ab/cd/<sha256>}; if that file already
+ * exists the copy is dropped, so identical content is kept once however often it is
+ * submitted. Stored files are never modified, which lets readers serve them without locks.
+ *
+ * Resumable uploads get a preallocated file under {@code uploads/} that chunks are written
+ * into at their own offsets, in any order and in parallel. To publish it, the assembled
+ * file is copied to {@code incoming/} like a streamed upload, hashing the bytes as they
+ * are written, and the copy is published only if it matches the SHA-256 the client
+ * declared. A chunk writer still holding the session file open cannot change the copy.
+ *
+ * Files derived from stored content, such as resized images, are kept under
+ * {@code variants/} under their source's hash, so the same content never renders twice.
+ *
+ * Direct buffers are costly to allocate, so up to {@value #POOLED_BUFFERS} are kept for reuse.
+ */
+@Component
+public class ContentStore {
+
+    private static final int POOLED_BUFFERS = 64;
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Pattern VARIANT_NAME = Pattern.compile("[a-z0-9]+(\\.[a-z0-9]+)?");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path root;
+    private final Path incoming;
+    private final Path uploads;
+    private final Path variants;
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    private final Counter stored;
+    private final Counter deduplicated;
+    private final Counter bytesWritten;
+
+    public ContentStore(MeterRegistry meterRegistry,
+                        @Value("${app.storage.root:./data/files}") String root,
+                        @Value("${app.storage.buffer-size:64KB}") DataSize bufferSize) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        this.bufferSize = (int) Math.max(4096, Math.min(bufferSize.toBytes(), 16L * 1024 * 1024));
+        this.uploads = this.root.resolve("uploads");
+        this.variants = this.root.resolve("variants");
+        Files.createDirectories(incoming);
+        Files.createDirectories(uploads);
+        Files.createDirectories(variants);
+
+        this.stored = Counter.builder("storage.uploads")
+                .tag("result", "stored")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("storage.uploads")
+                .tag("result", "deduplicated")
+                .description("Uploads whose content was already stored")
+                .register(meterRegistry);
+        this.bytesWritten = Counter.builder("storage.bytes.written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public StoredContent store(InputStream in, long maxBytes) throws IOException, UploadTooLargeException {
+        return store(Channels.newChannel(in), maxBytes);
+    }
+
+    // Reads the channel to its end; nothing is kept if it fails or exceeds maxBytes
+    public StoredContent store(ReadableByteChannel in, long maxBytes) throws IOException, UploadTooLargeException {
+        Received received = receive(in, maxBytes);
+        try {
+            return publish(received.file(), received.sha256(), received.size());
+        } finally {
+            Files.deleteIfExists(received.file());
+        }
+    }
+
+    // Like store, but the check sees the received file first and may reject it by throwing;
+    // a rejected file is deleted without ever being published
+    public StoredContent store(InputStream in, long maxBytes, ContentCheck check) throws Exception {
+        Received received = receive(Channels.newChannel(in), maxBytes);
+        try {
+            check.check(received.file());
+            return publish(received.file(), received.sha256(), received.size());
+        } finally {
+            Files.deleteIfExists(received.file());
+        }
+    }
+
+    // Copies to a new file under incoming/, hashing what is written; the caller deletes the
+    // file once it has been published or rejected
+    private Received receive(ReadableByteChannel in, long maxBytes) throws IOException, UploadTooLargeException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        ByteBuffer buffer = acquireBuffer();
+        boolean received = false;
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new UploadTooLargeException("File exceeds the " + DataSize.ofBytes(maxBytes).toMegabytes() + " MB limit");
+                    }
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.rewind();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                out.force(true);
+            }
+            bytesWritten.increment(size);
+            received = true;
+            return new Received(temp, HEX.formatHex(digest.digest()), size);
+        } finally {
+            releaseBuffer(buffer);
+            if (!received) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Resumable uploads: one preallocated file per session under uploads/, filled by
+    // positional writes in any order, then verified and published like a streamed upload
+    public void createUpload(String uploadId, long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(uploadPath(uploadId).toFile(), "rw")) {
+            file.setLength(size);
+        }
+    }
+
+    // Copies exactly length bytes to the given offset; the file must already exist
+    public void writeChunk(String uploadId, long position, long length, ReadableByteChannel in)
+            throws IOException, UploadTooLargeException {
+        ByteBuffer buffer = acquireBuffer();
+        try (FileChannel out = FileChannel.open(uploadPath(uploadId), StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (true) {
+                // Room for one byte more than expected, so an oversized chunk is noticed
+                buffer.clear().limit((int) Math.min(buffer.capacity(), length - written + 1));
+                int read = in.read(buffer);
+                if (read == -1) {
+                    break;
+                }
+                if (written + read > length) {
+                    throw new UploadTooLargeException("Chunk is larger than " + length + " bytes");
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    written += out.write(buffer, position + written);
+                }
+            }
+            if (written != length) {
+                throw new IOException("Chunk ended after " + written + " of " + length + " bytes");
+            }
+            out.force(false);
+            bytesWritten.increment(written);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    // Publishes a copy of the assembled session file if it matches the declared hash; the
+    // session file itself is left for the caller to delete. A mismatch publishes nothing,
+    // and the client sends its chunks again. Only the caller completing the session may do this
+    public StoredContent publishUpload(String uploadId, String expectedSha256, long size) throws Exception {
+        Received received;
+        try (FileChannel in = FileChannel.open(uploadPath(uploadId), StandardOpenOption.READ)) {
+            received = receive(in, size);
+        }
+        try {
+            if (!received.sha256().equalsIgnoreCase(expectedSha256)) {
+                throw new Exception("Uploaded file does not match its SHA-256; send its chunks again");
+            }
+            return publish(received.file(), received.sha256(), received.size());
+        } finally {
+            Files.deleteIfExists(received.file());
+        }
+    }
+
+    public void deleteUpload(String uploadId) throws IOException {
+        Files.deleteIfExists(uploadPath(uploadId));
+    }
+
+    // Session files are touched by every chunk, so an old one belongs to no live session
+    public int deleteUploadsOlderThan(Instant cutoff) throws IOException {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploads)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // Location of stored content; the hash is validated so it cannot point outside the root
+    public Path resolve(String sha256) throws Exception {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            throw new Exception("Invalid content hash");
+        }
+        return pathFor(sha256);
+    }
+
+    // Location of a file derived from stored content; it may not have been written yet
+    public Path resolveVariant(String sha256, String name) throws Exception {
+        if (name == null || !VARIANT_NAME.matcher(name).matches()) {
+            throw new Exception("Invalid variant name");
+        }
+        resolve(sha256);
+        return variants.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256 + "-" + name);
+    }
+
+    // Variants are small and rendered in memory; readers see either nothing or the whole file
+    public void storeVariant(String sha256, String name, byte[] data) throws Exception {
+        Path target = resolveVariant(sha256, name);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(incoming, "variant-", ".part");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        bytesWritten.increment(data.length);
+    }
+
+    // Moves a finished file into place, or drops it if the same content is already stored
+    private StoredContent publish(Path file, String sha256, long size) throws IOException {
+        Path target = pathFor(sha256);
+        if (Files.exists(target)) {
+            deduplicated.increment();
+            return new StoredContent(sha256, size, true);
+        }
+        Files.createDirectories(target.getParent());
+        // Same content under the same name, so losing a race to another upload is harmless
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        stored.increment();
+        return new StoredContent(sha256, size, false);
+    }
+
+    private Path uploadPath(String uploadId) throws IOException {
+        if (uploadId == null || !UPLOAD_ID.matcher(uploadId).matches()) {
+            throw new IOException("Invalid upload id");
+        }
+        return uploads.resolve(uploadId);
+    }
+
+    private Path pathFor(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record StoredContent(String sha256, long size, boolean deduplicated) {}
+
+    // Inspects a received file before it is stored; throws to reject it
+    @FunctionalInterface
+    public interface ContentCheck {
+        void check(Path file) throws Exception;
+    }
+
+    private record Received(Path file, String sha256, long size) {}
+}
@@ -5,6 +5,48 @@ import java.util.Base64;
 
 public class EmailService {
 
+    // Compiled once; rendering only appends the static segments and escaped values
+    private static final MailTemplate VERIFICATION = MailTemplate.compile(
+            "<!DOCTYPE html>" +
+            "<html>" +
+            "<head><style>" +
+            "body { font-family: Arial, sans-serif; }" +
+            ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
+            ".button { background-color: #4CAF50; color: white; padding: 10px 20px; text-decoration: none; border-radius: 5px; }" +
+            "</style></head>" +
+            "<body>" +
+            "<div class='container'>" +
+            "<h2>Welcome to DeliverEase, {{userName}}!</h2>" +
+            "<p>Please verify your email address to activate your account.</p>" +
+            "<p><a href='{{verificationLink}}' class='button'>Verify Email</a></p>" +
+            "<p>If you didn't create this account, please ignore this email.</p>" +
+            "<p>This link expires in 24 hours.</p>" +
+            "</div>" +
+            "</body>" +
+            "</html>",
+            "userName", "verificationLink");
+
+    private static final MailTemplate OAUTH_WELCOME = MailTemplate.compile(
+            "<!DOCTYPE html>" +
+            "<html>" +
+            "<head><style>" +
+            "body { font-family: Arial, sans-serif; }" +
+            ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
+            "</style></head>" +
+            "<body>" +
+            "<div class='container'>" +
+            "<h2>Welcome to DeliverEase, {{userName}}!</h2>" +
+            "<p>Your account has been successfully created via Google Sign-In.</p>" +
+            "<p>You can now log in and start managing your deliverables.</p>" +
+            "<p>Default Role: Contributor</p>" +
+            "</div>" +
+            "</body>" +
+            "</html>",
+            "userName");
+
+    public static final String VERIFICATION_SUBJECT = "Verify your DeliverEase account";
+    public static final String OAUTH_WELCOME_SUBJECT = "Welcome to DeliverEase";
+
     public static String generateVerificationToken() {
         SecureRandom random = new SecureRandom();
         byte[] tokenBytes = new byte[24];
@@ -13,40 +55,10 @@ public class EmailService {
     }
 
     public static String buildVerificationEmail(String userName, String verificationLink) {
-        return "<!DOCTYPE html>" +
-               "<html>" +
-               "<head><style>" +
-               "body { font-family: Arial, sans-serif; }" +
-               ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
-               ".button { background-color: #4CAF50; color: white; padding: 10px 20px; text-decoration: none; border-radius: 5px; }" +
-               "</style></head>" +
-               "<body>" +
-               "<div class='container'>" +
-               "<h2>Welcome to DeliverEase, " + userName + "!</h2>" +
-               "<p>Please verify your email address to activate your account.</p>" +
-               "<p><a href='" + verificationLink + "' class='button'>Verify Email</a></p>" +
-               "<p>If you didn't create this account, please ignore this email.</p>" +
-               "<p>This link expires in 24 hours.</p>" +
-               "</div>" +
-               "</body>" +
-               "</html>";
+        return VERIFICATION.render(userName, verificationLink);
     }
 
     public static String buildOAuthVerificationEmail(String userName) {
-        return "<!DOCTYPE html>" +
-               "<html>" +
-               "<head><style>" +
-               "body { font-family: Arial, sans-serif; }" +
-               ".container { max-width: 600px; margin: 0 auto; padding: 20px; }" +
-               "</style></head>" +
-               "<body>" +
-               "<div class='container'>" +
-               "<h2>Welcome to DeliverEase, " + userName + "!</h2>" +
-               "<p>Your account has been successfully created via Google Sign-In.</p>" +
-               "<p>You can now log in and start managing your deliverables.</p>" +
-               "<p>Default Role: Contributor</p>" +
-               "</div>" +
-               "</body>" +
-               "</html>";
+        return OAUTH_WELCOME.render(userName);
     }
 }
@@ -1,29 +1,60 @@
 package com.cit.submit.service;
 
-import java.util.Arrays;
+import com.cit.submit.repository.InstitutionDomainRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Decides whether an email belongs to an allowed institution.
+ *
+ * Allowed domains are the ones in {@code app.institution.domains} plus the active rows
+ * of the institution_domains table. The table is re-read every
+ * {@code app.institution.refresh-interval-ms} (or on demand through {@link #reload()}),
+ * and the matcher is swapped atomically, so partner domains can be added without a
+ * restart. Until the first load finishes only the configured domains are accepted.
+ */
+@Service
 public class EmailValidationService {
 
-    // List of allowed institutional email domains
-    private static final List<String> ALLOWED_DOMAINS = Arrays.asList(
-        "school.edu",
-        "university.edu",
-        "cit.edu",
-        "citc.edu.ph",
-        "ateneo.edu",
-        "dlsu.edu.ph",
-        "upd.edu.ph"
-    );
-
-    public static boolean isValidInstitutionalEmail(String email) {
-        if (email == null || !email.contains("@")) {
-            return false;
-        }
+    private static final Logger log = LoggerFactory.getLogger(EmailValidationService.class);
 
-        String domain = email.substring(email.indexOf("@") + 1).toLowerCase();
-        return ALLOWED_DOMAINS.stream()
-                .anyMatch(allowedDomain -> domain.equals(allowedDomain) || domain.endsWith("." + allowedDomain));
+    private final InstitutionDomainRepository institutionDomainRepository;
+    private final List<String> configuredDomains;
+    private volatile InstitutionDomainMatcher matcher;
+
+    public EmailValidationService(InstitutionDomainRepository institutionDomainRepository,
+                                  @Value("${app.institution.domains:}") List<String> configuredDomains) {
+        this.institutionDomainRepository = institutionDomainRepository;
+        this.configuredDomains = List.copyOf(configuredDomains);
+        this.matcher = InstitutionDomainMatcher.of(this.configuredDomains);
+    }
+
+    public boolean isValidInstitutionalEmail(String email) {
+        return matcher.matchesEmail(email);
+    }
+
+    // Rebuilds the matcher from configuration and the table; returns the number of domains
+    @Scheduled(fixedDelayString = "${app.institution.refresh-interval-ms:300000}")
+    public int reload() {
+        try {
+            List<String> domains = new ArrayList<>(configuredDomains);
+            domains.addAll(institutionDomainRepository.findActiveDomains());
+            InstitutionDomainMatcher reloaded = InstitutionDomainMatcher.of(domains);
+            if (reloaded.size() != matcher.size()) {
+                log.info("Institution domains reloaded: {} allowed", reloaded.size());
+            }
+            matcher = reloaded;
+        } catch (RuntimeException e) {
+            // Keep serving the previous list; the next refresh tries again
+            log.warn("Could not reload institution domains, keeping {} current entries", matcher.size(), e);
+        }
+        return matcher.size();
     }
 
     public static String getDomain(String email) {
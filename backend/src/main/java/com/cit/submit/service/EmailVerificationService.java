@@ -0,0 +1,158 @@
+package com.cit.submit.service;
+
+import com.cit.submit.model.EmailVerificationToken;
+import com.cit.submit.model.User;
+import com.cit.submit.repository.EmailVerificationTokenRepository;
+import com.cit.submit.repository.UserRepository;
+import com.cit.submit.repository.UserState;
+import com.cit.submit.service.TeamRosterService.Membership;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and redeems email verification links.
+ *
+ * Tokens are kept in the email_verification_tokens table as SHA-256 hashes, so a leaked
+ * table does not contain usable links and verification is a single primary-key lookup.
+ * A scheduled sweep deletes expired tokens, and self-registrations still PENDING after
+ * {@code app.verification.pending-retention}, one batch per transaction so it never
+ * holds long locks on users.
+ */
+@Service
+public class EmailVerificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailVerificationService.class);
+
+    private final EmailVerificationTokenRepository tokenRepository;
+    private final UserRepository userRepository;
+    private final MailDispatcher mailDispatcher;
+    private final TeamRosterService teamRosterService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration tokenTtl;
+    private final Duration pendingRetention;
+    private final String linkBase;
+    private final int sweepBatchSize;
+
+    public EmailVerificationService(EmailVerificationTokenRepository tokenRepository,
+                                    UserRepository userRepository,
+                                    MailDispatcher mailDispatcher,
+                                    TeamRosterService teamRosterService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.verification.token-ttl:24h}") Duration tokenTtl,
+                                    @Value("${app.verification.pending-retention:7d}") Duration pendingRetention,
+                                    @Value("${app.verification.link-base:http://localhost:5173/verify?token=}") String linkBase,
+                                    @Value("${app.verification.sweep-batch-size:500}") int sweepBatchSize) {
+        this.tokenRepository = tokenRepository;
+        this.userRepository = userRepository;
+        this.mailDispatcher = mailDispatcher;
+        this.teamRosterService = teamRosterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tokenTtl = tokenTtl;
+        this.pendingRetention = pendingRetention;
+        this.linkBase = linkBase;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    // Stores a new token for the user and queues the verification mail
+    public void sendVerification(User user) {
+        String token = EmailService.generateVerificationToken();
+        tokenRepository.save(new EmailVerificationToken(hash(token), user.getId(), LocalDateTime.now().plus(tokenTtl)));
+        mailDispatcher.enqueue(user.getEmail(), EmailService.VERIFICATION_SUBJECT,
+                EmailService.buildVerificationEmail(user.getName(), linkBase + token));
+    }
+
+    // Marks the token's user verified, and active if still pending; every token of that user is used up
+    public void verify(String token) throws Exception {
+        EmailVerificationToken stored = token == null ? null : tokenRepository.findById(hash(token))
+                .filter(t -> t.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElse(null);
+        if (stored == null) {
+            throw new Exception("Invalid or expired verification link");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Locked so an admin cannot deactivate the user between this read and the update
+            Membership before = userRepository.lockStatesByIdIn(List.of(stored.getUserId())).stream()
+                    .map(Membership::of).findFirst().orElse(null);
+            if (userRepository.markEmailVerified(stored.getUserId()) > 0 && before != null
+                    && "PENDING".equals(before.accountStatus())) {
+                teamRosterService.recordChange(before, before.withStatus("ACTIVE"));
+            }
+            tokenRepository.deleteByUserIdIn(List.of(stored.getUserId()));
+        });
+    }
+
+    // Returns the number of tokens and users deleted
+    @Scheduled(fixedDelayString = "${app.verification.sweep-interval-ms:3600000}",
+               initialDelayString = "${app.verification.sweep-interval-ms:3600000}")
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int tokens = deleteInBatches(limit -> {
+            List<String> expired = tokenRepository.findExpiredTokenHashes(now, limit);
+            if (!expired.isEmpty()) {
+                tokenRepository.deleteByTokenHashIn(expired);
+            }
+            return expired.size();
+        });
+
+        LocalDateTime cutoff = now.minus(pendingRetention);
+        int users = deleteInBatches(limit -> {
+            List<Long> stale = userRepository.findStalePendingIds(cutoff, limit);
+            if (stale.isEmpty()) {
+                return 0;
+            }
+            List<UserState> candidates = userRepository.findStatesByIdIn(stale);
+            tokenRepository.deleteByUserIdIn(stale);
+            userRepository.deletePendingByIdIn(stale);
+            // Users verified since the SELECT survive the DELETE and keep their counts
+            Set<Long> kept = userRepository.findStatesByIdIn(stale).stream().map(UserState::id).collect(Collectors.toSet());
+            teamRosterService.recordChanges(candidates.stream().filter(u -> !kept.contains(u.id())).map(Membership::of).toList(),
+                    List.of());
+            return stale.size();
+        });
+
+        if (tokens > 0 || users > 0) {
+            log.info("Verification sweep removed {} expired tokens and {} unverified accounts", tokens, users);
+        }
+        return tokens + users;
+    }
+
+    // Runs one batch per transaction until a batch comes back short
+    private int deleteInBatches(Function<PageRequest, Integer> batch) {
+        PageRequest limit = PageRequest.of(0, sweepBatchSize);
+        int total = 0;
+        int deleted;
+        do {
+            Integer result = transactionTemplate.execute(status -> batch.apply(limit));
+            deleted = result == null ? 0 : result;
+            total += deleted;
+        } while (deleted == sweepBatchSize);
+        return total;
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
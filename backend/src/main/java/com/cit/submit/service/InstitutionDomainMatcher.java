@@ -0,0 +1,117 @@
+package com.cit.submit.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable set of institutional domains that matches an email's domain, or any parent
+ * domain of it, without allocating.
+ *
+ * Domains are stored in an open-addressing hash table keyed by a case-insensitive hash
+ * computed right to left. Matching walks the email once from the end towards the '@';
+ * at every '.' (and at the '@') the running hash is the hash of the suffix to its right,
+ * so each candidate suffix ("students.dlsu.edu.ph", "dlsu.edu.ph", "edu.ph", "ph") costs
+ * one probe and, on a hash hit, one case-insensitive region compare.
+ */
+public final class InstitutionDomainMatcher {
+
+    private final String[] domains;
+    private final int[] hashes;
+    private final int mask;
+    private final int size;
+
+    private InstitutionDomainMatcher(Set<String> normalized) {
+        // Load factor at most 0.5 keeps probe chains short
+        int capacity = Integer.highestOneBit(Math.max(4, normalized.size() * 2 - 1)) << 1;
+        this.domains = new String[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = normalized.size();
+
+        for (String domain : normalized) {
+            int hash = hash(domain, 0, domain.length());
+            int slot = spread(hash) & mask;
+            while (domains[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            domains[slot] = domain;
+            hashes[slot] = hash;
+        }
+    }
+
+    // Blank entries are ignored; entries are trimmed, lower-cased and stripped of a leading '@' or '.'
+    public static InstitutionDomainMatcher of(Collection<String> domains) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String domain : domains) {
+            if (domain == null) {
+                continue;
+            }
+            String value = domain.trim().toLowerCase(Locale.ROOT);
+            while (value.startsWith("@") || value.startsWith(".")) {
+                value = value.substring(1);
+            }
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        return new InstitutionDomainMatcher(normalized);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // True if the part after the first '@' is an allowed domain or a subdomain of one
+    public boolean matchesEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        int at = email.indexOf('@');
+        if (at < 0) {
+            return false;
+        }
+
+        int end = email.length();
+        int hash = 0;
+        for (int i = end - 1; i > at; i--) {
+            char c = email.charAt(i);
+            if (c == '.' && contains(hash, email, i + 1, end)) {
+                return true;
+            }
+            hash = 31 * hash + Character.toLowerCase(c);
+        }
+        return contains(hash, email, at + 1, end);
+    }
+
+    private boolean contains(int hash, String source, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return false;
+        }
+        int slot = spread(hash) & mask;
+        String candidate;
+        while ((candidate = domains[slot]) != null) {
+            if (hashes[slot] == hash && candidate.length() == length
+                    && candidate.regionMatches(true, 0, source, from, length)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    // Same hash matchesEmail builds incrementally: characters folded in from the right
+    private static int hash(String value, int from, int to) {
+        int hash = 0;
+        for (int i = to - 1; i >= from; i--) {
+            hash = 31 * hash + Character.toLowerCase(value.charAt(i));
+        }
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
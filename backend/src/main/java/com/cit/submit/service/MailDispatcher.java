@@ -0,0 +1,306 @@
+package com.cit.submit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends outbound mail off the request path.
+ *
+ * {@link #enqueue} only offers the message to a bounded in-memory queue, so a slow or
+ * unreachable SMTP server never adds to registration latency. A few worker threads
+ * drain the queue in batches; each batch goes out over a single SMTP connection
+ * ({@link JavaMailSender#send(MimeMessage...)}), so the number of workers bounds the
+ * connections held open against the server. Messages the server rejects are retried by
+ * the same worker with exponential backoff; after {@code app.mail.max-attempts}, or when
+ * the queue is full, they are written to the {@code mail_dead_letters} table instead of
+ * being dropped. Queued mail is flushed when the application shuts down.
+ */
+@Component
+public class MailDispatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO mail_dead_letters (recipient, subject, body, attempts, last_error, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JavaMailSender mailSender;
+    private final JdbcTemplate jdbcTemplate;
+    private final String from;
+    private final BlockingQueue<Delivery> queue;
+    private final int batchSize;
+    private final int workerCount;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long pollIntervalMillis;
+
+    private final Timer batchLatency;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public MailDispatcher(JavaMailSender mailSender,
+                          JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.mail.from:no-reply@deliverease.local}") String from,
+                          @Value("${app.mail.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.mail.batch-size:50}") int batchSize,
+                          @Value("${app.mail.workers:2}") int workerCount,
+                          @Value("${app.mail.max-attempts:5}") int maxAttempts,
+                          @Value("${app.mail.retry-backoff:2s}") Duration retryBackoff,
+                          @Value("${app.mail.poll-interval:500ms}") Duration pollInterval) {
+        this.mailSender = mailSender;
+        this.jdbcTemplate = jdbcTemplate;
+        this.from = from;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.workerCount = workerCount;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.pollIntervalMillis = pollInterval.toMillis();
+
+        Gauge.builder("mail.dispatcher.queue.depth", queue, BlockingQueue::size)
+                .description("Messages waiting for a worker")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("mail.dispatcher.batch.latency")
+                .description("Time to send one batch over one SMTP connection")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sent = Counter.builder("mail.dispatcher.messages")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.retried = Counter.builder("mail.dispatcher.messages")
+                .tag("result", "retried")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("mail.dispatcher.messages")
+                .tag("result", "dead_lettered")
+                .register(meterRegistry);
+    }
+
+    // Returns false if the message went straight to the dead-letter table
+    public boolean enqueue(String to, String subject, String html) {
+        Delivery delivery = new Delivery(to, subject, html);
+        if (running && queue.offer(delivery)) {
+            return true;
+        }
+        deadLetter(delivery, running ? "Mail queue full" : "Mail dispatcher not running");
+        return false;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drainLoop, "mail-dispatcher-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        // Anything still queued (e.g. a join timed out) gets one attempt here
+        flushRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server has stopped accepting requests, start before it
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        PriorityQueue<Delivery> retries = new PriorityQueue<>(Comparator.comparingLong(Delivery::getNextAttemptAt));
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                long wait = pollIntervalMillis;
+                Delivery due = retries.peek();
+                if (due != null) {
+                    wait = Math.max(0, Math.min(wait, due.getNextAttemptAt() - System.currentTimeMillis()));
+                }
+                Delivery first = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                }
+                long now = System.currentTimeMillis();
+                while (batch.size() < batchSize && !retries.isEmpty() && retries.peek().getNextAttemptAt() <= now) {
+                    batch.add(retries.poll());
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                if (!batch.isEmpty()) {
+                    send(batch, retries);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts us; the loop condition decides whether to exit
+            }
+        }
+
+        // Shutting down: messages waiting for a retry get one last attempt
+        while (!retries.isEmpty()) {
+            batch.add(retries.poll());
+            if (batch.size() == batchSize || retries.isEmpty()) {
+                send(batch, retries);
+                batch.clear();
+            }
+        }
+        flushRemaining();
+    }
+
+    private synchronized void flushRemaining() {
+        PriorityQueue<Delivery> retries = new PriorityQueue<>(Comparator.comparingLong(Delivery::getNextAttemptAt));
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            send(batch, retries);
+            batch.clear();
+        }
+    }
+
+    private void send(List<Delivery> batch, PriorityQueue<Delivery> retries) {
+        List<Delivery> deliveries = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (Delivery delivery : batch) {
+            delivery.attempts++;
+            try {
+                messages.add(toMimeMessage(delivery));
+                deliveries.add(delivery);
+            } catch (MessagingException e) {
+                // A malformed address does not get better on retry
+                deadLetter(delivery, e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            batchFailure = failures.isEmpty() ? e : null;
+        } catch (MailException e) {
+            // e.g. authentication failed: nothing in the batch went out
+            batchFailure = e;
+        }
+        batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        for (int i = 0; i < messages.size(); i++) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages.get(i));
+            if (failure == null) {
+                sent.increment();
+            } else {
+                retryOrDeadLetter(deliveries.get(i), failure, retries);
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(Delivery delivery) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(delivery.to);
+        helper.setSubject(delivery.subject);
+        helper.setText(delivery.html, true);
+        return message;
+    }
+
+    private void retryOrDeadLetter(Delivery delivery, Exception failure, PriorityQueue<Delivery> retries) {
+        if (!running || delivery.attempts >= maxAttempts) {
+            deadLetter(delivery, failure.getMessage());
+            return;
+        }
+        // 1x, 2x, 4x ... the base backoff
+        long backoff = retryBackoffMillis << Math.min(delivery.attempts - 1, 16);
+        delivery.nextAttemptAt = System.currentTimeMillis() + backoff;
+        retries.add(delivery);
+        retried.increment();
+        log.debug("Mail to {} failed (attempt {}), retrying in {} ms: {}",
+                delivery.to, delivery.attempts, backoff, failure.getMessage());
+    }
+
+    private void deadLetter(Delivery delivery, String error) {
+        deadLettered.increment();
+        try {
+            jdbcTemplate.update(DEAD_LETTER_SQL, delivery.to, delivery.subject, delivery.html,
+                    delivery.attempts, error, Timestamp.valueOf(LocalDateTime.now()));
+            log.warn("Mail to {} dead-lettered after {} attempts: {}", delivery.to, delivery.attempts, error);
+        } catch (RuntimeException e) {
+            log.error("Lost mail to {} ({}) after {} attempts: {}",
+                    delivery.to, delivery.subject, delivery.attempts, error, e);
+        }
+    }
+
+    private static final class Delivery {
+
+        private final String to;
+        private final String subject;
+        private final String html;
+        private int attempts;
+        private long nextAttemptAt;
+
+        Delivery(String to, String subject, String html) {
+            this.to = to;
+            this.subject = subject;
+            this.html = html;
+        }
+
+        long getNextAttemptAt() {
+            return nextAttemptAt;
+        }
+    }
+}
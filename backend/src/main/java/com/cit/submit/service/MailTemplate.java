@@ -0,0 +1,91 @@
+package com.cit.submit.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTML mail template compiled once into static text segments and placeholder slots.
+ *
+ * Placeholders are written {@code {{name}}}; {@link #compile} resolves each one to the
+ * position of its name in the argument list, so {@link #render} only appends segments
+ * and HTML-escaped values into a builder sized for the whole message.
+ */
+public final class MailTemplate {
+
+    private final String[] segments; // segments[i] precedes slot i; the last one follows the last slot
+    private final int[] slots;       // index into render()'s values for each placeholder
+    private final int staticLength;
+    private final int valueCount;
+
+    private MailTemplate(String[] segments, int[] slots, int valueCount) {
+        this.segments = segments;
+        this.slots = slots;
+        this.valueCount = valueCount;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.staticLength = length;
+    }
+
+    public static MailTemplate compile(String template, String... names) {
+        List<String> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int from = 0;
+        int open;
+        while ((open = template.indexOf("{{", from)) >= 0) {
+            int close = template.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = template.substring(open + 2, close).trim();
+            int slot = List.of(names).indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {{" + name + "}}");
+            }
+            segments.add(template.substring(from, open));
+            slots.add(slot);
+            from = close + 2;
+        }
+        segments.add(template.substring(from));
+
+        return new MailTemplate(segments.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(), names.length);
+    }
+
+    // Values are given in the order of the names passed to compile(); null renders as empty
+    public String render(String... values) {
+        if (values.length != valueCount) {
+            throw new IllegalArgumentException("Expected " + valueCount + " values, got " + values.length);
+        }
+        int length = staticLength;
+        for (int slot : slots) {
+            length += values[slot] == null ? 0 : values[slot].length() + 16;
+        }
+
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(segments[i]);
+            appendEscaped(out, values[slots[i]]);
+        }
+        return out.append(segments[slots.length]).toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.cit.submit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashes and checks passwords on a dedicated pool, off the request threads.
+ *
+ * BCrypt is deliberately CPU-bound, so the pool has one thread per core
+ * ({@code app.password.threads}) and a short queue ({@code app.password.queue-capacity}).
+ * When both are full a login or registration fails fast with {@link ServiceBusyException}
+ * instead of piling up behind the others, and every other endpoint keeps its CPU.
+ *
+ * Stored values that are not BCrypt (accounts created before hashing) are compared as
+ * plaintext. Those, and BCrypt hashes below the current cost, are re-hashed in the
+ * background after a successful login, so accounts upgrade as people sign in.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer hashLatency;
+    private final Timer verifyLatency;
+    private final Counter rejected;
+    private final Counter upgraded;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.password.threads:0}") int threads,
+                                  @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.password.timeout:5s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeout.toMillis();
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hasher-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("password.hashing.queue.depth", executor.getQueue(), BlockingQueue::size)
+                .description("Password hash/verify tasks waiting for a thread")
+                .register(meterRegistry);
+        this.hashLatency = Timer.builder("password.hashing.latency")
+                .tag("operation", "hash")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.verifyLatency = Timer.builder("password.hashing.latency")
+                .tag("operation", "verify")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Requests turned away because the hashing pool was saturated")
+                .register(meterRegistry);
+        this.upgraded = Counter.builder("password.hashing.upgraded")
+                .description("Stored passwords re-hashed at login")
+                .register(meterRegistry);
+    }
+
+    public String hash(String rawPassword) throws Exception {
+        return run(() -> passwordEncoder.encode(rawPassword), hashLatency);
+    }
+
+    public boolean matches(String rawPassword, String storedHash) throws Exception {
+        // OAuth and imported accounts have no password
+        if (rawPassword == null || storedHash == null || storedHash.isEmpty()) {
+            return false;
+        }
+        if (!isBcrypt(storedHash)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedHash.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> passwordEncoder.matches(rawPassword, storedHash), verifyLatency);
+    }
+
+    public boolean needsUpgrade(String storedHash) {
+        return storedHash != null && !storedHash.isEmpty()
+                && (!isBcrypt(storedHash) || passwordEncoder.upgradeEncoding(storedHash));
+    }
+
+    // Re-hashes after a successful login without making the caller wait; skipped when busy
+    public void upgradeInBackground(String rawPassword, String storedHash, Consumer<String> store) {
+        if (!needsUpgrade(storedHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    store.accept(hashLatency.record(() -> passwordEncoder.encode(rawPassword)));
+                    upgraded.increment();
+                } catch (RuntimeException e) {
+                    log.warn("Could not upgrade stored password hash", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The next login tries again
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Highest cost whose hash takes no longer than the target on this machine
+    public static int calibrateStrength(Duration target) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("calibration warm-up");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long nanos = Math.max(1, System.nanoTime() - start);
+
+        // Each extra round doubles the work
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && nanos * 2 <= target.toNanos()) {
+            nanos *= 2;
+            strength++;
+        }
+        log.info("BCrypt strength calibrated to {} (about {} ms per hash)", strength, nanos / 1_000_000);
+        return strength;
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) throws Exception {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests right now, please try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests right now, please try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Sign-in was interrupted, please try again");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean isBcrypt(String storedHash) {
+        return storedHash.startsWith("$2a$") || storedHash.startsWith("$2b$") || storedHash.startsWith("$2y$");
+    }
+}
@@ -0,0 +1,354 @@
+package com.cit.submit.service;
+
+import com.cit.submit.model.ProfilePhoto;
+import com.cit.submit.repository.ProfilePhotoRepository;
+import com.cit.submit.service.ContentStore.StoredContent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Profile photos, stored in the {@link ContentStore} and served at URLs keyed by their SHA-256.
+ *
+ * An upload is checked to be a JPEG, PNG or GIF from its first bytes and streamed to a
+ * temporary file, where its dimensions are read from the image header; a file that is not
+ * a readable image, or is too large to resize, is rejected there and never stored. Accepted photos are recorded in
+ * profile_photos, and only those hashes are served: the content store also holds
+ * submissions, which the public photo route must not expose.
+ *
+ * The caller returns once the photo is stored. Square JPEG variants of {@link #SIZES} pixels
+ * are rendered afterwards on a small pool ({@code app.photos.threads}) with a bounded queue
+ * ({@code app.photos.queue-capacity}); when the queue is full the render is skipped, and
+ * the next request for a missing variant queues it again. Until then that request gets
+ * the original, so a photo shows up immediately and shrinks once its variants exist. A
+ * photo whose pixels cannot be decoded is marked as such and served whole from then on.
+ * Large photos are decoded subsampled, so a render needs a few MB of heap at most.
+ *
+ * A hash always names the same bytes, so variant URLs never change meaning and can be
+ * cached for a year; a new photo gets a new URL.
+ */
+@Service
+public class PhotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoService.class);
+
+    public static final List<Integer> SIZES = List.of(64, 256);
+    public static final int PROFILE_SIZE = 256;
+
+    // Larger images are rejected on upload; smaller ones are still decoded subsampled
+    private static final long MAX_PIXELS = 40_000_000L;
+    // About 16 MB as a decoded RGBA image
+    private static final long MAX_DECODED_PIXELS = 4_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final int SNIFF_BYTES = 8;
+    private static final Pattern UPLOADED_URL = Pattern.compile("/api/photos/[0-9a-f]{64}/\\d+$");
+
+    private final ContentStore contentStore;
+    private final ProfilePhotoRepository profilePhotoRepository;
+    private final long maxUploadBytes;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final Timer renderLatency;
+    private final Counter rendered;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public PhotoService(ContentStore contentStore,
+                        ProfilePhotoRepository profilePhotoRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.photos.max-upload-size:5MB}") DataSize maxUploadSize,
+                        @Value("${app.photos.threads:2}") int threads,
+                        @Value("${app.photos.queue-capacity:100}") int queueCapacity) {
+        this.contentStore = contentStore;
+        this.profilePhotoRepository = profilePhotoRepository;
+        this.maxUploadBytes = maxUploadSize.toBytes();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "photo-renderer-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("photos.render.queue.depth", executor.getQueue(), BlockingQueue::size)
+                .description("Photos waiting for their variants to be rendered")
+                .register(meterRegistry);
+        this.renderLatency = Timer.builder("photos.render.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rendered = Counter.builder("photos.renders")
+                .tag("result", "rendered")
+                .register(meterRegistry);
+        this.failed = Counter.builder("photos.renders")
+                .tag("result", "failed")
+                .description("Photos that could not be decoded or resized")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("photos.renders")
+                .tag("result", "rejected")
+                .description("Renders skipped because the queue was full")
+                .register(meterRegistry);
+    }
+
+    // True for picture URLs handed out for an upload, false for external ones such as Google's
+    public static boolean isUploaded(String pictureUrl) {
+        return pictureUrl != null && UPLOADED_URL.matcher(pictureUrl).find();
+    }
+
+    // Stores the original and queues its variants; returns the photo's content hash
+    public String store(InputStream in) throws Exception {
+        PushbackInputStream photo = new PushbackInputStream(in, SNIFF_BYTES);
+        byte[] head = photo.readNBytes(SNIFF_BYTES);
+        String contentType = contentType(head);
+        if (contentType == null) {
+            throw new Exception("Photo must be a JPEG, PNG or GIF image");
+        }
+        photo.unread(head);
+
+        // Checked before it is stored, so a rejected upload leaves nothing behind
+        int[] dimensions = new int[2];
+        StoredContent content = contentStore.store(photo, maxUploadBytes, file -> {
+            int[] read;
+            try {
+                read = dimensions(file);
+            } catch (IOException e) {
+                throw new Exception("Photo could not be read as an image");
+            }
+            if ((long) read[0] * read[1] > MAX_PIXELS) {
+                throw new Exception("Photo must be at most " + MAX_PIXELS / 1_000_000 + " megapixels");
+            }
+            dimensions[0] = read[0];
+            dimensions[1] = read[1];
+        });
+        profilePhotoRepository.record(content.sha256(), contentType, dimensions[0], dimensions[1], LocalDateTime.now());
+
+        if (!hasVariants(content.sha256())) {
+            renderInBackground(content.sha256());
+        }
+        return content.sha256();
+    }
+
+    // The variant if it has been rendered, else the original while the variant is (re)queued
+    public PhotoFile find(String sha256, int size) throws Exception {
+        if (!SIZES.contains(size) || sha256 == null) {
+            throw new Exception("Photo not found");
+        }
+        ProfilePhoto photo = profilePhotoRepository.findById(sha256)
+                .orElseThrow(() -> new Exception("Photo not found"));
+        Path variant = contentStore.resolveVariant(sha256, variantName(size));
+        if (Files.exists(variant)) {
+            return new PhotoFile(variant, "image/jpeg", Files.size(variant), true);
+        }
+
+        Path original = contentStore.resolve(sha256);
+        if (!Files.exists(original)) {
+            throw new Exception("Photo not found");
+        }
+        if (!photo.isRenderFailed()) {
+            renderInBackground(sha256);
+        }
+        return new PhotoFile(original, photo.getContentType(), Files.size(original), false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void renderInBackground(String sha256) {
+        // One render per photo at a time, however many requests ask for it
+        if (!pending.add(sha256)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    renderLatency.record(() -> render(sha256));
+                } finally {
+                    pending.remove(sha256);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(sha256);
+            rejected.increment();
+        }
+    }
+
+    private void render(String sha256) {
+        try {
+            BufferedImage image = read(contentStore.resolve(sha256));
+            for (int size : SIZES) {
+                contentStore.storeVariant(sha256, variantName(size), encode(square(image, size)));
+            }
+            rendered.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Could not render variants of photo {}; serving the original from now on", sha256, e);
+            profilePhotoRepository.markRenderFailed(sha256);
+        }
+    }
+
+    private boolean hasVariants(String sha256) throws Exception {
+        for (int size : SIZES) {
+            if (!Files.exists(contentStore.resolveVariant(sha256, variantName(size)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Width and height from the image header, without decoding any pixels
+    private static int[] dimensions(Path file) throws IOException {
+        return withReader(file, reader -> new int[] {reader.getWidth(0), reader.getHeight(0)});
+    }
+
+    private static BufferedImage read(Path file) throws IOException {
+        return withReader(file, reader -> {
+            int step = subsampling(reader.getWidth(0), reader.getHeight(0));
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        });
+    }
+
+    // Every step-th pixel of every step-th row: enough for twice the largest variant on the
+    // short side, and never more than MAX_DECODED_PIXELS however the image is shaped
+    static int subsampling(int width, int height) {
+        int forDetail = Math.min(width, height) / (2 * Collections.max(SIZES));
+        int forMemory = (int) Math.ceil(Math.sqrt((double) width * height / MAX_DECODED_PIXELS));
+        return Math.max(1, Math.max(forDetail, forMemory));
+    }
+
+    private static <T> T withReader(Path file, ReaderFunction<T> function) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return function.apply(reader);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Centre crop to a square, then scale down in halves so large photos stay sharp
+    static BufferedImage square(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current = source.getSubimage(
+                (source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+        while (side / 2 >= size) {
+            side /= 2;
+            current = scale(current, side);
+        }
+        return scale(current, size);
+    }
+
+    // JPEG has no alpha, so transparent pixels are painted white
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(source, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    // Judged from the magic bytes, never from what the client claimed
+    static String contentType(byte[] head) {
+        if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n')) {
+            return "image/png";
+        }
+        if (startsWith(head, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int... magic) {
+        if (head.length < magic.length) {
+            return false;
+        }
+        int[] prefix = new int[magic.length];
+        Arrays.setAll(prefix, i -> head[i] & 0xFF);
+        return Arrays.equals(prefix, magic);
+    }
+
+    private static String variantName(int size) {
+        return size + ".jpg";
+    }
+
+    private interface ReaderFunction<T> {
+        T apply(ImageReader reader) throws IOException;
+    }
+
+    public record PhotoFile(Path file, String contentType, long size, boolean variant) {}
+}
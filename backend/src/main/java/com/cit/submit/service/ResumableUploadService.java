@@ -0,0 +1,240 @@
+package com.cit.submit.service;
+
+import com.cit.submit.dto.SubmissionResponse;
+import com.cit.submit.dto.UploadSessionRequest;
+import com.cit.submit.dto.UploadSessionStatus;
+import com.cit.submit.model.UploadSession;
+import com.cit.submit.repository.UploadSessionRepository;
+import com.cit.submit.service.ContentStore.StoredContent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable deliverable uploads.
+ *
+ * A client declares the file (name, type, size, SHA-256) and gets an upload id and a chunk
+ * size. Chunks may then be sent in any order, several at once, and again after a dropped
+ * connection; each is written at its own offset of a preallocated file in
+ * {@link ContentStore}, and recorded in upload_chunks once it is on disk. Asking for the
+ * session's status tells a resuming client which chunks are still missing. Completing the
+ * upload first marks the session as completing, after which chunks and cancels are
+ * refused, then publishes a hashed copy of the assembled file; only a copy matching the
+ * declared SHA-256 becomes a submission, deduplicated like a streamed one. The session is
+ * deleted once the submission is recorded. A file that does not match keeps its session,
+ * with every chunk marked missing again, and any other failure leaves the session and its
+ * chunks for the client to complete again.
+ *
+ * Sessions that receive nothing for {@code app.uploads.session-ttl} are deleted with their
+ * files by a scheduled sweep, one batch per transaction.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumableUploadService.class);
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+    private static final int MAX_SESSIONS_PER_USER = 10;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ContentStore contentStore;
+    private final SubmissionService submissionService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration sessionTtl;
+    private final int sweepBatchSize;
+
+    public ResumableUploadService(UploadSessionRepository uploadSessionRepository,
+                                  ContentStore contentStore,
+                                  SubmissionService submissionService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.uploads.chunk-size:1MB}") DataSize chunkSize,
+                                  @Value("${app.uploads.session-ttl:24h}") Duration sessionTtl,
+                                  @Value("${app.uploads.sweep-batch-size:500}") int sweepBatchSize) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.contentStore = contentStore;
+        this.submissionService = submissionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = (int) Math.max(64 * 1024, Math.min(chunkSize.toBytes(), 64L * 1024 * 1024));
+        this.sessionTtl = sessionTtl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    public UploadSessionStatus start(Long userId, Long deliverableId, UploadSessionRequest request) throws Exception {
+        if (deliverableId == null) {
+            throw new Exception("Deliverable is required");
+        }
+        if (request == null) {
+            throw new Exception("Describe the file to upload");
+        }
+        String fileName = submissionService.checkFileName(request.getFileName());
+        String contentType = submissionService.checkContentType(request.getContentType());
+        if (request.getSize() == null || request.getSize() <= 0) {
+            throw new Exception("File is empty");
+        }
+        submissionService.checkSize(request.getSize());
+        if (request.getSha256() == null || !SHA256_HEX.matcher(request.getSha256()).matches()) {
+            throw new Exception("sha256 must be the file's hex SHA-256");
+        }
+        if (uploadSessionRepository.countByUserId(userId) >= MAX_SESSIONS_PER_USER) {
+            throw new Exception("Too many unfinished uploads; finish or cancel one first");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUserId(userId);
+        session.setDeliverableId(deliverableId);
+        session.setFileName(fileName);
+        session.setContentType(contentType);
+        session.setSizeBytes(request.getSize());
+        session.setChunkSize(chunkSize);
+        session.setSha256(request.getSha256().toLowerCase(Locale.ROOT));
+
+        contentStore.createUpload(session.getId(), session.getSizeBytes());
+        try {
+            session = uploadSessionRepository.save(session);
+        } catch (RuntimeException e) {
+            contentStore.deleteUpload(session.getId());
+            throw e;
+        }
+        return toStatus(session, List.of());
+    }
+
+    public UploadSessionStatus getStatus(Long userId, String uploadId) throws Exception {
+        UploadSession session = find(userId, uploadId);
+        return toStatus(session, uploadSessionRepository.findReceivedChunks(uploadId));
+    }
+
+    // Sending a chunk again overwrites it with the same bytes
+    public void writeChunk(Long userId, String uploadId, int index, InputStream body) throws Exception {
+        UploadSession session = find(userId, uploadId);
+        if (session.getCompleting()) {
+            throw new Exception("Upload is being completed");
+        }
+        if (index < 0 || index >= session.getTotalChunks()) {
+            throw new Exception("Chunk index must be between 0 and " + (session.getTotalChunks() - 1));
+        }
+        long position = (long) index * session.getChunkSize();
+        long length = Math.min(session.getChunkSize(), session.getSizeBytes() - position);
+
+        contentStore.writeChunk(uploadId, position, length, Channels.newChannel(body));
+        uploadSessionRepository.recordChunk(uploadId, index, LocalDateTime.now());
+    }
+
+    public SubmissionResponse complete(Long userId, String uploadId) throws Exception {
+        UploadSession session = find(userId, uploadId);
+        int received = uploadSessionRepository.findReceivedChunks(uploadId).size();
+        if (received < session.getTotalChunks()) {
+            throw new Exception("Upload is missing " + (session.getTotalChunks() - received) + " of "
+                    + session.getTotalChunks() + " chunks");
+        }
+        // From here chunk writes are refused, and a second complete (a retry, or a second tab)
+        // is too; a chunk already being written only changes the session file, not the copy
+        if (uploadSessionRepository.markCompleting(uploadId) == 0) {
+            throw new Exception("Upload is already being completed");
+        }
+
+        StoredContent content;
+        try {
+            content = contentStore.publishUpload(uploadId, session.getSha256(), session.getSizeBytes());
+        } catch (Exception e) {
+            // Not an I/O failure, so the hash did not match: a corrupted chunk cannot be told
+            // apart from the others, and the client resends every chunk
+            if (!(e instanceof IOException)) {
+                uploadSessionRepository.clearChunks(uploadId);
+            }
+            uploadSessionRepository.reopen(uploadId);
+            throw e;
+        }
+
+        // Recorded before the session is deleted, so a failed insert loses no chunks; the
+        // published content is simply deduplicated when the client completes again
+        SubmissionResponse submission;
+        try {
+            submission = submissionService.record(userId, session.getDeliverableId(), session.getFileName(),
+                    session.getContentType(), content);
+        } catch (Exception e) {
+            uploadSessionRepository.reopen(uploadId);
+            throw e;
+        }
+
+        uploadSessionRepository.finish(uploadId);
+        try {
+            contentStore.deleteUpload(uploadId);
+        } catch (IOException e) {
+            // The sweep removes it once it is old enough
+            log.warn("Could not remove the file of completed upload {}", uploadId, e);
+        }
+        return submission;
+    }
+
+    public void cancel(Long userId, String uploadId) throws Exception {
+        if (find(userId, uploadId).getCompleting()) {
+            throw new Exception("Upload is being completed");
+        }
+        if (uploadSessionRepository.claim(uploadId) > 0) {
+            contentStore.deleteUpload(uploadId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.uploads.sweep-interval-ms:900000}",
+               initialDelayString = "${app.uploads.sweep-interval-ms:900000}")
+    public int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(sessionTtl);
+        PageRequest limit = PageRequest.of(0, sweepBatchSize);
+        int sessions = 0;
+        int deleted;
+        do {
+            List<String> abandoned = transactionTemplate.execute(status -> {
+                List<String> ids = uploadSessionRepository.findAbandonedIds(cutoff, limit);
+                if (!ids.isEmpty()) {
+                    uploadSessionRepository.deleteByIdIn(ids);
+                }
+                return ids;
+            });
+            deleted = abandoned == null ? 0 : abandoned.size();
+            sessions += deleted;
+        } while (deleted == sweepBatchSize);
+
+        // Also catches files whose session row is already gone (a crash mid-complete)
+        int files = 0;
+        try {
+            files = contentStore.deleteUploadsOlderThan(cutoff.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (IOException e) {
+            log.warn("Could not remove abandoned upload files", e);
+        }
+        if (sessions > 0 || files > 0) {
+            log.info("Upload sweep removed {} abandoned sessions and {} files", sessions, files);
+        }
+        return sessions;
+    }
+
+    // Another user's session is reported as missing, not as forbidden
+    private UploadSession find(Long userId, String uploadId) throws Exception {
+        return uploadSessionRepository.findById(uploadId)
+                .filter(session -> session.getUserId().equals(userId))
+                .orElseThrow(() -> new Exception("Upload not found"));
+    }
+
+    private static UploadSessionStatus toStatus(UploadSession session, List<Integer> receivedChunks) {
+        return new UploadSessionStatus(session.getId(), session.getDeliverableId(), session.getFileName(),
+                session.getSizeBytes(), session.getChunkSize(), session.getTotalChunks(), receivedChunks);
+    }
+}
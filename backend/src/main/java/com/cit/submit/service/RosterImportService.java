@@ -0,0 +1,389 @@
+package com.cit.submit.service;
+
+import com.cit.submit.dto.RosterImportStatus;
+import com.cit.submit.model.AuditLog;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.repository.AuditLogRepository;
+import com.cit.submit.repository.UserRepository;
+import com.cit.submit.service.TeamRosterService.Membership;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk-creates student accounts from a CSV roster.
+ *
+ * The upload is spooled to a temp file, up to {@code app.import.max-upload-size}, and
+ * processed on a single background thread, so the request returns as soon as the body
+ * is on disk. Rows are parsed one at a time and handled in chunks of
+ * {@code app.import.chunk-size}: each chunk costs one email lookup, one student id
+ * lookup and one transaction, and its users and audit rows go out as JDBC batches
+ * (sequence ids let Hibernate batch the inserts). Emails are lowercased, so an address
+ * already taken with different capitals is a duplicate.
+ *
+ * Required columns are {@code email} and {@code name}; {@code studentId},
+ * {@code teamCode} and {@code department} are optional. Header names are matched
+ * case-insensitively and ignore spaces, dashes and underscores.
+ */
+@Service
+public class RosterImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_QUEUED_IMPORTS = 4;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final UserRepository userRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final EmailValidationService emailValidationService;
+    private final TeamRosterService teamRosterService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final DataSize maxUploadSize;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public RosterImportService(UserRepository userRepository,
+                               AuditLogRepository auditLogRepository,
+                               EmailValidationService emailValidationService,
+                               TeamRosterService teamRosterService,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.import.chunk-size:500}") int chunkSize,
+                               @Value("${app.import.max-upload-size:20MB}") DataSize maxUploadSize) {
+        this.userRepository = userRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.emailValidationService = emailValidationService;
+        this.teamRosterService = teamRosterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxUploadSize = maxUploadSize;
+        // One import at a time keeps the database load predictable; a few more may wait
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_IMPORTS), r -> {
+                    Thread thread = new Thread(r, "roster-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Spool the roster to disk and queue it; returns the initial job status
+    public RosterImportStatus startImport(InputStream body, Long adminId) throws Exception {
+        pruneFinishedJobs();
+
+        Path spool = Files.createTempFile("roster-import-", ".csv");
+        try {
+            spool(body, spool);
+        } catch (UploadTooLargeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        } catch (IOException e) {
+            Files.deleteIfExists(spool);
+            throw new Exception("Failed to read roster upload");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> runImport(job, spool, adminId));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spool);
+            throw new Exception("Too many imports in progress, please try again later");
+        }
+        return job.snapshot();
+    }
+
+    public RosterImportStatus getStatus(String jobId) throws Exception {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new Exception("Import job not found");
+        }
+        return job.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Stops reading, rather than filling the disk, once the body passes the limit
+    private void spool(InputStream body, Path spool) throws IOException, UploadTooLargeException {
+        long maxBytes = maxUploadSize.toBytes();
+        byte[] buffer = new byte[8192];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(spool)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw new UploadTooLargeException("Roster exceeds the " + maxUploadSize.toMegabytes() + " MB limit");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void runImport(ImportJob job, Path spool, Long adminId) {
+        job.start();
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            Map<String, Integer> columns = readHeader(csv.next());
+
+            List<RosterRow> chunk = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                RosterRow row = toRow(record, columns, csv.getLineNumber(), job);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, job, adminId);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, job, adminId);
+            }
+            job.finish("COMPLETED");
+        } catch (Exception e) {
+            log.warn("Roster import {} failed", job.id, e);
+            job.error(e.getMessage());
+            job.finish("FAILED");
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Could not delete roster spool file {}", spool, e);
+            }
+        }
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) throws Exception {
+        if (header == null) {
+            throw new Exception("Roster file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(normalizeHeader(header.get(i)), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("name")) {
+            throw new Exception("Roster header must include email and name columns");
+        }
+        return columns;
+    }
+
+    private RosterRow toRow(List<String> record, Map<String, Integer> columns, int line, ImportJob job) {
+        String email = column(record, columns, "email");
+        String name = column(record, columns, "name");
+
+        if (email == null || !emailValidationService.isValidInstitutionalEmail(email)) {
+            job.rejectRow("Line " + line + ": invalid institutional email");
+            return null;
+        }
+        if (name == null) {
+            job.rejectRow("Line " + line + ": name is required");
+            return null;
+        }
+
+        return new RosterRow(line, email.toLowerCase(Locale.ROOT), name,
+                column(record, columns, "studentid"),
+                column(record, columns, "teamcode"),
+                column(record, columns, "department"));
+    }
+
+    // One transaction per chunk: a bad chunk is reported without undoing earlier ones
+    private void importChunk(List<RosterRow> chunk, ImportJob job, Long adminId) {
+        Set<String> emails = new HashSet<>();
+        Set<String> studentIds = new HashSet<>();
+        for (RosterRow row : chunk) {
+            emails.add(row.email());
+            if (row.studentId() != null) {
+                studentIds.add(row.studentId());
+            }
+        }
+
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> {
+                Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(emails));
+                Set<String> takenStudentIds = studentIds.isEmpty()
+                        ? new HashSet<>()
+                        : new HashSet<>(userRepository.findExistingStudentIds(studentIds));
+
+                List<User> users = new ArrayList<>(chunk.size());
+                List<String> duplicates = new ArrayList<>();
+                for (RosterRow row : chunk) {
+                    // add() doubles as the in-file duplicate check for later rows
+                    if (!takenEmails.add(row.email())) {
+                        duplicates.add("Line " + row.line() + ": " + row.email() + " already exists");
+                        continue;
+                    }
+                    if (row.studentId() != null && !takenStudentIds.add(row.studentId())) {
+                        duplicates.add("Line " + row.line() + ": student ID " + row.studentId() + " already exists");
+                        continue;
+                    }
+                    users.add(toUser(row));
+                }
+
+                userRepository.saveAll(users);
+                teamRosterService.recordChanges(List.of(), users.stream().map(Membership::of).toList());
+
+                List<AuditLog> auditLogs = new ArrayList<>(users.size());
+                for (User user : users) {
+                    AuditLog entry = new AuditLog(adminId, user.getId(), "CREATE",
+                            "Imported user: " + user.getEmail() + " with role: " + user.getRole());
+                    entry.setChangedFields("{\"source\":\"roster-import\"}");
+                    auditLogs.add(entry);
+                }
+                auditLogRepository.saveAll(auditLogs);
+
+                return new ChunkResult(users.size(), duplicates);
+            });
+            job.chunkCommitted(chunk.size(), result.created(), result.duplicates());
+        } catch (RuntimeException e) {
+            log.warn("Roster import {} chunk starting at line {} failed", job.id, chunk.get(0).line(), e);
+            job.chunkFailed(chunk.size(), "Lines " + chunk.get(0).line() + "-" + chunk.get(chunk.size() - 1).line()
+                    + ": chunk rolled back (" + NestedExceptionUtils.getMostSpecificCause(e).getMessage() + ")");
+        }
+    }
+
+    private User toUser(RosterRow row) {
+        User user = new User();
+        user.setEmail(row.email());
+        user.setName(row.name());
+        user.setRole(UserRole.MEMBER);
+        user.setStudentId(row.studentId());
+        user.setTeamCode(row.teamCode());
+        user.setDepartment(row.department());
+        // Imported students sign in with their Google account, which verifies the email;
+        // until then the blank password cannot be used because login requires verification
+        user.setAuthProvider("google");
+        user.setPasswordHash("");
+        user.setEmailVerified(false);
+        user.setActive(true);
+        return user;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalizeHeader(String header) {
+        StringBuilder normalized = new StringBuilder(header.length());
+        for (int i = 0; i < header.length(); i++) {
+            char c = header.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private record RosterRow(int line, String email, String name, String studentId, String teamCode, String department) {}
+
+    private record ChunkResult(int created, List<String> duplicates) {}
+
+    // Mutable progress, written by the import thread and read by status requests
+    private static final class ImportJob {
+        private final String id;
+        private final List<String> errors = new ArrayList<>();
+        private String status = "QUEUED";
+        private long processed;
+        private long created;
+        private long skipped;
+        private long failed;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        ImportJob(String id) {
+            this.id = id;
+        }
+
+        synchronized void start() {
+            status = "RUNNING";
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void finish(String finalStatus) {
+            status = finalStatus;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void rejectRow(String message) {
+            processed++;
+            failed++;
+            error(message);
+        }
+
+        synchronized void chunkCommitted(int rows, int createdRows, List<String> duplicates) {
+            processed += rows;
+            created += createdRows;
+            skipped += duplicates.size();
+            duplicates.forEach(this::error);
+        }
+
+        synchronized void chunkFailed(int rows, String message) {
+            processed += rows;
+            failed += rows;
+            error(message);
+        }
+
+        synchronized void error(String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        synchronized boolean finishedBefore(LocalDateTime cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        synchronized RosterImportStatus snapshot() {
+            return new RosterImportStatus(id, status, processed, created, skipped, failed,
+                    List.copyOf(errors), startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.cit.submit.service;
+
+/**
+ * Thrown when a bounded worker pool is saturated and the request was rejected instead
+ * of queued. Controllers answer 503 with a Retry-After header so clients back off.
+ */
+public class ServiceBusyException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
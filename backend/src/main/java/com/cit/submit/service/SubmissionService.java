@@ -0,0 +1,144 @@
+package com.cit.submit.service;
+
+import com.cit.submit.dto.SubmissionResponse;
+import com.cit.submit.model.Submission;
+import com.cit.submit.repository.SubmissionRepository;
+import com.cit.submit.service.ContentStore.StoredContent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Deliverable submissions: the request body is streamed into {@link ContentStore} and a
+ * {@link Submission} row records who submitted what. Limits match the upload form:
+ * {@code app.storage.max-upload-size} and the document and archive types it offers.
+ */
+@Service
+public class SubmissionService {
+
+    private static final Set<String> ALLOWED_TYPES = Set.of(
+            "application/pdf",
+            "application/msword",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "application/vnd.ms-excel",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            "text/plain",
+            "application/zip",
+            "application/x-rar-compressed");
+
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+
+    private final ContentStore contentStore;
+    private final SubmissionRepository submissionRepository;
+    private final long maxUploadBytes;
+
+    public SubmissionService(ContentStore contentStore,
+                             SubmissionRepository submissionRepository,
+                             @Value("${app.storage.max-upload-size:50MB}") DataSize maxUploadSize) {
+        this.contentStore = contentStore;
+        this.submissionRepository = submissionRepository;
+        this.maxUploadBytes = maxUploadSize.toBytes();
+    }
+
+    // contentLength is the declared Content-Length, or -1 for a chunked body
+    public SubmissionResponse submit(Long userId, Long deliverableId, String fileName, String contentType,
+                                     long contentLength, InputStream body) throws Exception {
+        String name = checkFileName(fileName);
+        String type = checkContentType(contentType);
+        // Checked again while streaming, since Content-Length may be absent or wrong
+        checkSize(contentLength);
+
+        StoredContent content = contentStore.store(body, maxUploadBytes);
+        return record(userId, deliverableId, name, type, content);
+    }
+
+    public List<SubmissionResponse> getSubmissions(Long userId) throws Exception {
+        return submissionRepository.findResponsesByUserId(userId);
+    }
+
+    // Every submission for one deliverable, for the managers grading it
+    public List<SubmissionResponse> getSubmissionsForDeliverable(Long deliverableId) throws Exception {
+        return submissionRepository.findResponsesByDeliverableId(deliverableId);
+    }
+
+    // Owners may download their own submissions; staff may download any
+    public Download getDownload(Long submissionId, Long userId, boolean staff) throws Exception {
+        Submission submission = submissionRepository.findById(submissionId)
+                .filter(found -> staff || found.getUserId().equals(userId))
+                .orElseThrow(() -> new Exception("Submission not found"));
+        Path file = contentStore.resolve(submission.getSha256());
+        if (!Files.isRegularFile(file)) {
+            throw new Exception("Submitted file is no longer stored");
+        }
+        return new Download(file, submission.getFileName(), submission.getContentType(),
+                submission.getSizeBytes(), submission.getSha256());
+    }
+
+    // Shared with ResumableUploadService, which receives the same files in chunks
+    SubmissionResponse record(Long userId, Long deliverableId, String fileName, String contentType,
+                              StoredContent content) throws Exception {
+        if (deliverableId == null) {
+            throw new Exception("Deliverable is required");
+        }
+        if (content.size() == 0) {
+            throw new Exception("File is empty");
+        }
+
+        Submission submission = new Submission();
+        submission.setUserId(userId);
+        submission.setDeliverableId(deliverableId);
+        submission.setFileName(fileName);
+        submission.setContentType(contentType);
+        submission.setSizeBytes(content.size());
+        submission.setSha256(content.sha256());
+        submission = submissionRepository.save(submission);
+        return new SubmissionResponse(submission.getId(), submission.getUserId(), submission.getDeliverableId(), submission.getFileName(),
+                submission.getContentType(), submission.getSizeBytes(), submission.getSha256(),
+                submission.getSubmittedAt());
+    }
+
+    void checkSize(long size) throws UploadTooLargeException {
+        if (size > maxUploadBytes) {
+            throw new UploadTooLargeException("File exceeds the " + DataSize.ofBytes(maxUploadBytes).toMegabytes() + " MB limit");
+        }
+    }
+
+    String checkContentType(String contentType) throws Exception {
+        String type = mediaType(contentType);
+        if (!ALLOWED_TYPES.contains(type)) {
+            throw new Exception("File type not allowed. Allowed: PDF, DOC, DOCX, XLS, XLSX, TXT, ZIP, RAR");
+        }
+        return type;
+    }
+
+    // Browsers may send a full path (C:\fakepath\report.pdf); only the last segment is kept
+    String checkFileName(String fileName) throws Exception {
+        if (fileName == null) {
+            throw new Exception("File name is required");
+        }
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1)
+                .replaceAll("\\p{Cntrl}", "")
+                .trim();
+        if (name.isEmpty()) {
+            throw new Exception("File name is required");
+        }
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(name.length() - MAX_FILE_NAME_LENGTH) : name;
+    }
+
+    public record Download(Path file, String fileName, String contentType, long size, String sha256) {}
+
+    private static String mediaType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+    }
+}
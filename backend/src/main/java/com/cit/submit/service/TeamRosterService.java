@@ -0,0 +1,156 @@
+package com.cit.submit.service;
+
+import com.cit.submit.dto.TeamSummary;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.repository.UserRepository;
+import com.cit.submit.repository.UserState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Team sizes served from {@code team_member_counts}: one row per team, role and account
+ * status, adjusted by a delta in the same transaction as every change to a user's team,
+ * role or status. Every path that creates or changes users reports through here: admin
+ * edits and bulk operations, profile edits, registration, sign-in, email verification,
+ * the unverified-account sweep and roster imports. A summary is then a handful of rows
+ * instead of a scan of users.
+ *
+ * {@link #rebuild()} recomputes the table from users. It is meant for repairs, such as
+ * after editing users directly in the database. Changes committed while it runs can be
+ * counted twice or not at all, so run it when the system is quiet.
+ */
+@Service
+public class TeamRosterService {
+
+    private static final Logger log = LoggerFactory.getLogger(TeamRosterService.class);
+
+    // Keys are updated in a fixed order so concurrent transactions cannot deadlock
+    private static final Comparator<Membership> KEY_ORDER = Comparator.comparing(Membership::teamCode)
+            .thenComparing(Membership::role)
+            .thenComparing(Membership::accountStatus);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+
+    public TeamRosterService(JdbcTemplate jdbcTemplate, UserRepository userRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+    }
+
+    // Where a user is counted; users without a team are not counted anywhere
+    public record Membership(String teamCode, UserRole role, String accountStatus) {
+
+        public Membership {
+            teamCode = teamCode == null || teamCode.isBlank() ? null : teamCode;
+            accountStatus = accountStatus == null ? "PENDING" : accountStatus;
+        }
+
+        public static Membership of(User user) {
+            return new Membership(user.getTeamCode(), user.getRole(), user.getAccountStatus());
+        }
+
+        public static Membership of(UserState user) {
+            return new Membership(user.teamCode(), user.role(), user.accountStatus());
+        }
+
+        public Membership withRole(UserRole newRole) {
+            return new Membership(teamCode, newRole, accountStatus);
+        }
+
+        public Membership withStatus(String newStatus) {
+            return new Membership(teamCode, role, newStatus);
+        }
+    }
+
+    // Saves the user and moves its count in one transaction; before is null for a new user
+    @Transactional
+    public User saveUser(User user, Membership before) {
+        User saved = userRepository.save(user);
+        recordChange(before, Membership.of(saved));
+        return saved;
+    }
+
+    // Either side may be null for a user that was created or deleted
+    public void recordChange(Membership before, Membership after) {
+        recordChanges(before == null ? List.of() : List.of(before), after == null ? List.of() : List.of(after));
+    }
+
+    // Joins the caller's transaction when there is one
+    public void recordChanges(Collection<Membership> before, Collection<Membership> after) {
+        Map<Membership, Long> deltas = new HashMap<>();
+        before.forEach(m -> deltas.merge(m, -1L, Long::sum));
+        after.forEach(m -> deltas.merge(m, 1L, Long::sum));
+
+        deltas.entrySet().stream()
+                .filter(e -> e.getKey().teamCode() != null && e.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(KEY_ORDER))
+                .forEach(e -> apply(e.getKey(), e.getValue()));
+    }
+
+    public List<TeamSummary> getTeams() {
+        Map<String, TeamSummary> teams = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT team_code, role, account_status, member_count FROM team_member_counts " +
+                "WHERE member_count > 0 ORDER BY team_code", rs -> {
+            add(teams, rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+        });
+        return new ArrayList<>(teams.values());
+    }
+
+    public TeamSummary getTeam(String teamCode) throws Exception {
+        Map<String, TeamSummary> teams = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT team_code, role, account_status, member_count FROM team_member_counts " +
+                "WHERE team_code = ? AND member_count > 0", rs -> {
+            add(teams, rs.getString(1), rs.getString(2), rs.getString(3), rs.getLong(4));
+        }, teamCode);
+        TeamSummary team = teams.get(teamCode);
+        if (team == null) {
+            throw new Exception("Team not found");
+        }
+        team.setActiveMembers(userRepository.findActiveTeamMembers(teamCode));
+        return team;
+    }
+
+    // Recomputes every count from users; returns the number of count rows written
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM team_member_counts");
+        int rows = jdbcTemplate.update("INSERT INTO team_member_counts (team_code, role, account_status, member_count) " +
+                "SELECT team_code, role, COALESCE(account_status, 'PENDING'), COUNT(*) FROM users " +
+                "WHERE team_code IS NOT NULL AND team_code <> '' " +
+                "GROUP BY team_code, role, COALESCE(account_status, 'PENDING')");
+        log.info("Rebuilt team member counts: {} rows", rows);
+        return rows;
+    }
+
+    private void apply(Membership key, long delta) {
+        if (delta > 0) {
+            // The row may not exist yet; DO NOTHING keeps a concurrent insert from failing the transaction
+            jdbcTemplate.update("INSERT INTO team_member_counts (team_code, role, account_status, member_count) " +
+                    "VALUES (?, ?, ?, 0) ON CONFLICT DO NOTHING", key.teamCode(), key.role().name(), key.accountStatus());
+        }
+        jdbcTemplate.update("UPDATE team_member_counts SET member_count = member_count + ? " +
+                "WHERE team_code = ? AND role = ? AND account_status = ?",
+                delta, key.teamCode(), key.role().name(), key.accountStatus());
+    }
+
+    private static void add(Map<String, TeamSummary> teams, String teamCode, String role, String status, long count) {
+        TeamSummary team = teams.computeIfAbsent(teamCode,
+                code -> new TeamSummary(code, 0, new TreeMap<>(), new TreeMap<>(), null));
+        team.setMemberCount(team.getMemberCount() + count);
+        team.getByRole().merge(role, count, Long::sum);
+        team.getByStatus().merge(status, count, Long::sum);
+    }
+}
@@ -0,0 +1,15 @@
+package com.cit.submit.service;
+
+/**
+ * Thrown when an upload is larger than the configured limit, either as declared in
+ * Content-Length or once that many bytes have actually arrived. Controllers answer
+ * 413 Payload Too Large.
+ */
+public class UploadTooLargeException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,141 @@
+package com.cit.submit.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.ObjectWriteContext;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.core.json.JsonFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+/**
+ * Streams the user directory as NDJSON or CSV straight from a forward-only JDBC
+ * cursor. Rows are written as they arrive, so heap use depends on the fetch size,
+ * not on how many users exist.
+ */
+@Service
+public class UserExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String EXPORT_SQL =
+            "SELECT id, name, email, role, student_id, faculty_id, team_code, department, active, " +
+            "email_verified, is_profile_complete, account_status, created_at, approved_at " +
+            "FROM users ORDER BY id";
+
+    private static final String[] COLUMNS = {
+            "id", "name", "email", "role", "studentId", "facultyId", "teamCode", "department", "active",
+            "emailVerified", "isProfileComplete", "accountStatus", "createdAt", "approvedAt"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .rootValueSeparator("\n")
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    public UserExportService(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only honours the fetch size (server-side cursor) with autocommit off
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void exportUsers(Format format, OutputStream out) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                writeCsv(out);
+            } else {
+                writeNdjson(out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeNdjson(OutputStream out) {
+        try (JsonGenerator json = jsonFactory.createGenerator(ObjectWriteContext.empty(), out)) {
+            stream(rs -> {
+                json.writeStartObject();
+                json.writeNumberProperty("id", rs.getLong(1));
+                for (int i = 2; i <= COLUMNS.length; i++) {
+                    Object value = rs.getObject(i);
+                    if (value == null) {
+                        json.writeNullProperty(COLUMNS[i - 1]);
+                    } else if (value instanceof Boolean b) {
+                        json.writeBooleanProperty(COLUMNS[i - 1], b);
+                    } else if (value instanceof Timestamp t) {
+                        json.writeStringProperty(COLUMNS[i - 1], t.toLocalDateTime().toString());
+                    } else {
+                        json.writeStringProperty(COLUMNS[i - 1], value.toString());
+                    }
+                }
+                json.writeEndObject();
+            });
+            json.writeRaw('\n');
+        }
+    }
+
+    private void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        stream(rs -> {
+            try {
+                for (int i = 1; i <= COLUMNS.length; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    Object value = rs.getObject(i);
+                    if (value instanceof Timestamp t) {
+                        value = t.toLocalDateTime();
+                    }
+                    writeCsvField(writer, value == null ? "" : value.toString());
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void stream(RowCallbackHandler handler) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_SQL, handler));
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        // Keep spreadsheet apps from evaluating user-controlled text as a formula
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        if (!quote && !formula) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
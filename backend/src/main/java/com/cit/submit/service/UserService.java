@@ -5,7 +5,9 @@ import com.cit.submit.dto.UserProfileResponse;
 import com.cit.submit.model.User;
 import com.cit.submit.model.UserRole;
 import com.cit.submit.repository.UserRepository;
+import com.cit.submit.service.TeamRosterService.Membership;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,24 +16,30 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TeamRosterService teamRosterService;
+
     public UserProfileResponse getUserProfile(Long userId) throws Exception {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new Exception("User not found"));
 
-        return new UserProfileResponse(
-                user.getId(),
-                user.getName(),
-                user.getEmail(),
-                user.getRole().toString(),
-                user.getStudentId(),
-                user.getTeamCode(),
-                user.getPictureUrl()
-        );
+        return toProfileResponse(user);
+    }
+
+    // Answers conditional GETs without loading the profile
+    public Long getProfileVersion(Long userId) throws Exception {
+        return userRepository.findVersionById(userId)
+                .orElseThrow(() -> new Exception("User not found"));
     }
 
-    public UserProfileResponse updateUserProfile(Long userId, UserProfileRequest request) throws Exception {
+    // expectedVersion comes from If-Match; null skips the check
+    public UserProfileResponse updateUserProfile(Long userId, UserProfileRequest request, Long expectedVersion) throws Exception {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new Exception("User not found"));
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new VersionConflictException("Profile was changed elsewhere, reload and try again");
+        }
+        Membership before = Membership.of(user);
 
         // Validate name
         if (request.getName() != null && !request.getName().trim().isEmpty()) {
@@ -68,8 +76,29 @@ public class UserService {
             user.setPictureUrl(request.getPictureUrl());
         }
 
-        user = userRepository.save(user);
+        try {
+            user = teamRosterService.saveUser(user, before);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException("Profile was changed elsewhere, reload and try again");
+        }
+
+        return toProfileResponse(user);
+    }
+
+    // Points the profile at a newly uploaded photo
+    public UserProfileResponse updatePicture(Long userId, String pictureUrl) throws Exception {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new Exception("User not found"));
+        user.setPictureUrl(pictureUrl);
+        try {
+            user = userRepository.save(user);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException("Profile was changed elsewhere, reload and try again");
+        }
+        return toProfileResponse(user);
+    }
 
+    private UserProfileResponse toProfileResponse(User user) {
         return new UserProfileResponse(
                 user.getId(),
                 user.getName(),
@@ -77,7 +106,8 @@ public class UserService {
                 user.getRole().toString(),
                 user.getStudentId(),
                 user.getTeamCode(),
-                user.getPictureUrl()
+                user.getPictureUrl(),
+                user.getVersion()
         );
     }
 
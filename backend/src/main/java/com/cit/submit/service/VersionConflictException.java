@@ -0,0 +1,15 @@
+package com.cit.submit.service;
+
+/**
+ * Thrown when an update was based on a stale copy of an entity: the client's If-Match
+ * version is not the current one, or another request saved the row first. Controllers
+ * answer 412 Precondition Failed so the client reloads before retrying.
+ */
+public class VersionConflictException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
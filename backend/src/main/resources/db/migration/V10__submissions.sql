@@ -0,0 +1,23 @@
+-- Deliverable submissions. The file itself is stored once per SHA-256 by ContentStore;
+-- each row records who submitted which content, for which deliverable, and under what name.
+-- There is no deliverables table yet, so deliverable_id is not a foreign key.
+
+CREATE SEQUENCE IF NOT EXISTS submissions_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS submissions (
+    id              BIGINT       PRIMARY KEY DEFAULT nextval('submissions_seq'),
+    user_id         BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    deliverable_id  BIGINT       NOT NULL,
+    file_name       VARCHAR(255) NOT NULL,
+    content_type    VARCHAR(255) NOT NULL,
+    size_bytes      BIGINT       NOT NULL,
+    sha256          VARCHAR(64)  NOT NULL,
+    submitted_at    TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER SEQUENCE submissions_seq OWNED BY submissions.id;
+
+CREATE INDEX IF NOT EXISTS idx_submissions_user_submitted_at ON submissions (user_id, submitted_at, id);
+CREATE INDEX IF NOT EXISTS idx_submissions_deliverable_submitted_at ON submissions (deliverable_id, submitted_at, id);
+-- Finds every submission that shares a stored file
+CREATE INDEX IF NOT EXISTS idx_submissions_sha256 ON submissions (sha256);
@@ -0,0 +1,26 @@
+-- Resumable uploads. A session row describes the file being uploaded; each chunk that
+-- has been written to the session file adds a row to upload_chunks, so parallel chunks
+-- never update the same row. Completing or abandoning a session deletes it, and its
+-- chunks with it.
+
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id              VARCHAR(36)  PRIMARY KEY,
+    user_id         BIGINT       NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    deliverable_id  BIGINT       NOT NULL,
+    file_name       VARCHAR(255) NOT NULL,
+    content_type    VARCHAR(255) NOT NULL,
+    size_bytes      BIGINT       NOT NULL,
+    chunk_size      INTEGER      NOT NULL,
+    sha256          VARCHAR(64)  NOT NULL,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS upload_chunks (
+    upload_id    VARCHAR(36) NOT NULL REFERENCES upload_sessions (id) ON DELETE CASCADE,
+    chunk_index  INTEGER     NOT NULL,
+    received_at  TIMESTAMP   NOT NULL,
+    PRIMARY KEY (upload_id, chunk_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_created_at ON upload_sessions (created_at);
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_user_id ON upload_sessions (user_id);
@@ -0,0 +1,14 @@
+-- Uploaded profile photos. Their bytes live in the shared content store next to
+-- submissions; GET /api/photos/{sha256}/{size} is public, so it serves only hashes
+-- recorded here. The size comes from the image header, checked when the photo is
+-- uploaded; render_failed stops a photo whose pixels cannot be decoded from being
+-- queued for rendering again on every request.
+
+CREATE TABLE IF NOT EXISTS profile_photos (
+    sha256          VARCHAR(64)  PRIMARY KEY,
+    content_type    VARCHAR(32)  NOT NULL,
+    width           INTEGER      NOT NULL,
+    height          INTEGER      NOT NULL,
+    render_failed   BOOLEAN      NOT NULL DEFAULT FALSE,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,5 @@
+-- Roster imports check a chunk of lowercased emails at once against LOWER(email), so
+-- an address stored with capitals is still found. text_pattern_ops also serves the
+-- prefix LIKE of GET /api/admin/users/search, which matches LOWER(email) too.
+
+CREATE INDEX IF NOT EXISTS idx_users_lower_email ON users (LOWER(email) text_pattern_ops);
@@ -0,0 +1,8 @@
+-- The search box of GET /api/admin/users/search matches a lowercased prefix of the
+-- email, name or student ID (LIKE 'term%', never '%term%'). text_pattern_ops lets each
+-- LIKE be an index range scan whatever the database collation, and the three scans are
+-- OR-ed together. LOWER(email) is covered by idx_users_lower_email from V13.
+
+CREATE INDEX IF NOT EXISTS idx_users_lower_name ON users (LOWER(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_lower_student_id ON users (LOWER(student_id) text_pattern_ops)
+    WHERE student_id IS NOT NULL;
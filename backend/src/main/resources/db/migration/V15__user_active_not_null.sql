@@ -0,0 +1,8 @@
+-- users.active was nullable, and the bulk deactivate/reactivate UPDATEs compare it with
+-- <>, which never matches NULL. Legacy rows without a value take the one their account
+-- status implies, as the entity would have given them, and the column becomes NOT NULL.
+
+UPDATE users SET active = (account_status IS DISTINCT FROM 'DEACTIVATED') WHERE active IS NULL;
+
+ALTER TABLE users ALTER COLUMN active SET DEFAULT TRUE;
+ALTER TABLE users ALTER COLUMN active SET NOT NULL;
@@ -0,0 +1,5 @@
+-- Set while an upload is being completed. Chunk writes and cancels are refused from
+-- then on, so the file being hashed and published cannot change underneath it, and a
+-- second complete is refused too. A failed completion clears it again.
+
+ALTER TABLE upload_sessions ADD COLUMN IF NOT EXISTS completing BOOLEAN NOT NULL DEFAULT FALSE;
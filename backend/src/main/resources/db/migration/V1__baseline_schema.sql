@@ -0,0 +1,33 @@
+-- Original schema, as mapped by User and AuditLog. Skipped on databases that
+-- already have these tables (spring.flyway.baseline-version=1).
+
+CREATE TABLE IF NOT EXISTS users (
+    id                  BIGSERIAL PRIMARY KEY,
+    email               VARCHAR(255) NOT NULL UNIQUE,
+    password_hash       VARCHAR(255) NOT NULL,
+    role                VARCHAR(255) NOT NULL,
+    name                VARCHAR(255) NOT NULL,
+    student_id          VARCHAR(255) UNIQUE,
+    faculty_id          VARCHAR(255) UNIQUE,
+    team_code           VARCHAR(255),
+    department          VARCHAR(255),
+    auth_provider       VARCHAR(255),
+    picture_url         VARCHAR(255),
+    is_profile_complete BOOLEAN,
+    email_verified      BOOLEAN,
+    active              BOOLEAN,
+    account_status      VARCHAR(255),
+    created_at          TIMESTAMP,
+    approved_at         TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS audit_logs (
+    id             BIGSERIAL PRIMARY KEY,
+    admin_id       BIGINT,
+    target_user_id BIGINT,
+    action         VARCHAR(255),
+    description    TEXT,
+    changed_fields TEXT,
+    timestamp      TIMESTAMP,
+    ip_address     VARCHAR(255)
+);
@@ -0,0 +1,16 @@
+-- Keyset pagination for GET /api/admin/audit-logs walks (timestamp, id) newest first.
+-- Each optional equality filter gets its own composite index with the sort key as
+-- the suffix, so a filtered page is a single index range scan. Date ranges use the
+-- unfiltered index.
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_timestamp_id
+    ON audit_logs (timestamp DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_action_timestamp_id
+    ON audit_logs (action, timestamp DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_admin_timestamp_id
+    ON audit_logs (admin_id, timestamp DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_target_timestamp_id
+    ON audit_logs (target_user_id, timestamp DESC, id DESC);
@@ -0,0 +1,16 @@
+-- Move users and audit_logs from identity columns to sequences so Hibernate can
+-- batch inserts (User/AuditLog use allocationSize = 50 with the pooled-lo optimizer).
+-- Column defaults use the same sequences, so plain JDBC inserts (AuditLogWriter)
+-- take single values that never fall inside a block Hibernate has reserved.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+CREATE SEQUENCE IF NOT EXISTS audit_logs_seq INCREMENT BY 50;
+SELECT setval('audit_logs_seq', COALESCE((SELECT MAX(id) FROM audit_logs), 0) + 1, false);
+ALTER TABLE audit_logs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE audit_logs ALTER COLUMN id SET DEFAULT nextval('audit_logs_seq');
+ALTER SEQUENCE audit_logs_seq OWNED BY audit_logs.id;
@@ -0,0 +1,10 @@
+-- Partner institutions whose email domains may register, on top of the domains in
+-- app.institution.domains. EmailValidationService reloads this table periodically,
+-- so rows added or deactivated here take effect without a restart.
+
+CREATE TABLE IF NOT EXISTS institution_domains (
+    domain      VARCHAR(253) PRIMARY KEY,
+    name        VARCHAR(255),
+    active      BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,15 @@
+-- Outbound mail that MailDispatcher could not deliver: the queue was full, or the SMTP
+-- server kept failing for app.mail.max-attempts. The rendered body is kept so a message
+-- can be inspected or re-sent by hand.
+
+CREATE TABLE IF NOT EXISTS mail_dead_letters (
+    id          BIGSERIAL    PRIMARY KEY,
+    recipient   VARCHAR(255) NOT NULL,
+    subject     VARCHAR(255),
+    body        TEXT,
+    attempts    INTEGER      NOT NULL,
+    last_error  TEXT,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_mail_dead_letters_created_at ON mail_dead_letters (created_at);
@@ -0,0 +1,18 @@
+-- Email verification tokens live outside the users table. Only the SHA-256 of the
+-- token in the emailed link is stored; verifying a link is one primary-key lookup.
+-- EmailVerificationService deletes expired tokens, and self-registrations that stay
+-- PENDING past app.verification.pending-retention, in batches.
+
+CREATE TABLE IF NOT EXISTS email_verification_tokens (
+    token_hash  VARCHAR(64) PRIMARY KEY,
+    user_id     BIGINT      NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    expires_at  TIMESTAMP   NOT NULL,
+    created_at  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_verification_tokens_expires_at ON email_verification_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_email_verification_tokens_user_id ON email_verification_tokens (user_id);
+
+-- Only unverified self-registrations are indexed, so the sweeper's scan stays small
+CREATE INDEX IF NOT EXISTS idx_users_pending_created_at ON users (created_at)
+    WHERE account_status = 'PENDING' AND email_verified = FALSE;
@@ -0,0 +1,5 @@
+-- Optimistic-locking version for users. It backs the ETags on the profile and admin
+-- user endpoints and the If-Match checks on their PUTs. Every write to a user row,
+-- including the bulk JPQL updates, increments it.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
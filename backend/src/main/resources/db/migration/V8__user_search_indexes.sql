@@ -0,0 +1,16 @@
+-- Keyset pagination for GET /api/admin/users/search walks (sort column, id). Each
+-- sort order has an index ending in id. Each optional equality filter gets a composite
+-- index with the default sort key (id) as the suffix, so a filtered first page is a
+-- single index range scan. Created-at ranges use the created_at index.
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_users_name_id ON users (name, id);
+CREATE INDEX IF NOT EXISTS idx_users_email_id ON users (email, id);
+
+CREATE INDEX IF NOT EXISTS idx_users_role_id ON users (role, id);
+CREATE INDEX IF NOT EXISTS idx_users_account_status_id ON users (account_status, id);
+CREATE INDEX IF NOT EXISTS idx_users_team_code_id ON users (team_code, id) WHERE team_code IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_users_department_id ON users (department, id) WHERE department IS NOT NULL;
+
+-- Deactivated accounts are a small minority; the archive view scans only them
+CREATE INDEX IF NOT EXISTS idx_users_inactive_id ON users (id) WHERE active = FALSE;
@@ -0,0 +1,19 @@
+-- Member counts per team, role and account status. TeamRosterService keeps them up
+-- to date in the same transaction as each change to a user's team, role or status.
+-- Team summaries read these few rows instead of scanning users.
+-- POST /api/admin/teams/rebuild-counts recomputes the table from users.
+
+CREATE TABLE IF NOT EXISTS team_member_counts (
+    team_code       VARCHAR(255) NOT NULL,
+    role            VARCHAR(255) NOT NULL,
+    account_status  VARCHAR(255) NOT NULL,
+    member_count    BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (team_code, role, account_status)
+);
+
+INSERT INTO team_member_counts (team_code, role, account_status, member_count)
+SELECT team_code, role, COALESCE(account_status, 'PENDING'), COUNT(*)
+FROM users
+WHERE team_code IS NOT NULL AND team_code <> ''
+GROUP BY team_code, role, COALESCE(account_status, 'PENDING')
+ON CONFLICT DO NOTHING;
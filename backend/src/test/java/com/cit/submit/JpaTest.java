@@ -0,0 +1,36 @@
+package com.cit.submit;
+
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@link DataJpaTest} on an in-memory H2 database in PostgreSQL mode, so native queries
+ * such as {@code INSERT ... ON CONFLICT} behave as in production. Each test context gets
+ * its own database.
+ *
+ * Hibernate creates the mapped tables. The Flyway migrations as a whole use PostgreSQL-only
+ * statements (setval, partial indexes), so a test that needs a table without an entity
+ * applies that table's migration with {@code @Sql("classpath:db/migration/V..sql")}.
+ * Extra properties go in {@code @TestPropertySource} on the test class.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = {
+		"spring.test.database.replace=none",
+		"spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.auto_quote_keyword=true",
+		"spring.flyway.enabled=false"
+})
+public @interface JpaTest {
+}
@@ -0,0 +1,74 @@
+package com.cit.submit;
+
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+
+/**
+ * Builds {@link User}s for tests. Only what a test sets is filled in, besides the columns
+ * that may not be null: the name defaults to the email's local part, the role to MEMBER
+ * and the password hash to empty (no password).
+ */
+public final class TestUsers {
+
+	private final User user = new User();
+
+	private TestUsers(String email) {
+		user.setEmail(email);
+		user.setName(email.substring(0, email.indexOf('@')));
+		user.setRole(UserRole.MEMBER);
+		user.setPasswordHash("");
+	}
+
+	public static TestUsers user(String email) {
+		return new TestUsers(email);
+	}
+
+	public TestUsers id(Long id) {
+		user.setId(id);
+		return this;
+	}
+
+	public TestUsers name(String name) {
+		user.setName(name);
+		return this;
+	}
+
+	public TestUsers role(UserRole role) {
+		user.setRole(role);
+		return this;
+	}
+
+	public TestUsers studentId(String studentId) {
+		user.setStudentId(studentId);
+		return this;
+	}
+
+	public TestUsers teamCode(String teamCode) {
+		user.setTeamCode(teamCode);
+		return this;
+	}
+
+	public TestUsers accountStatus(String accountStatus) {
+		user.setAccountStatus(accountStatus);
+		return this;
+	}
+
+	public TestUsers authProvider(String authProvider) {
+		user.setAuthProvider(authProvider);
+		return this;
+	}
+
+	public TestUsers emailVerified(boolean emailVerified) {
+		user.setEmailVerified(emailVerified);
+		return this;
+	}
+
+	public TestUsers active(boolean active) {
+		user.setActive(active);
+		return this;
+	}
+
+	public User build() {
+		return user;
+	}
+}
@@ -0,0 +1,159 @@
+package com.cit.submit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitingDataSourceTests {
+
+	private EmbeddedDatabase database;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void saturatedLimiterTimesOutUntilAConnectionIsClosed() throws Exception {
+		ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(database, 2,
+				Duration.ofMillis(100), meterRegistry);
+		Connection first = limited.getConnection();
+		Connection second = limited.getConnection();
+		assertThat(available()).isZero();
+
+		assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+		assertThat(meterRegistry.get("jdbc.connections.limiter.rejected").counter().count()).isEqualTo(1);
+
+		// Closing twice returns the permit once
+		first.close();
+		first.close();
+		assertThat(available()).isEqualTo(1);
+
+		try (Connection third = limited.getConnection()) {
+			assertThat(third.isValid(1)).isTrue();
+			assertThat(available()).isZero();
+		}
+		second.close();
+		assertThat(available()).isEqualTo(2);
+	}
+
+	@Test
+	void waiterGetsThePermitOfAClosedConnection() throws Exception {
+		ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(database, 1,
+				Duration.ofSeconds(10), meterRegistry);
+		Connection held = limited.getConnection();
+
+		CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+			try (Connection connection = limited.getConnection()) {
+				return connection.isValid(1);
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		waitForWaiters(1);
+		assertThat(waiter).isNotDone();
+
+		held.close();
+
+		assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(available()).isEqualTo(1);
+		assertThat(meterRegistry.get("jdbc.connections.limiter.rejected").counter().count()).isZero();
+	}
+
+	@Test
+	void failedConnectAttemptReturnsItsPermit() throws Exception {
+		DataSource broken = mock(DataSource.class);
+		when(broken.getConnection()).thenThrow(new SQLException("database is down"));
+		ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(broken, 1,
+				Duration.ofMillis(100), meterRegistry);
+
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(limited::getConnection).hasMessage("database is down");
+		}
+		assertThat(available()).isEqualTo(1);
+	}
+
+	@Test
+	void virtualThreadsWrapOnlyThePrimaryDataSource() {
+		ApplicationContextRunner runner = new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class))
+				.withInitializer(context -> context.getBeanFactory()
+						.setConversionService(ApplicationConversionService.getSharedInstance()))
+				.withUserConfiguration(DataSources.class, VirtualThreadConfig.class)
+				.withPropertyValues("app.datasource.max-concurrency=3");
+
+		runner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+			assertThat(context.getBean("dataSource")).isInstanceOf(ConcurrencyLimitingDataSource.class);
+			assertThat(context.getBean("reportingDataSource")).isNotInstanceOf(ConcurrencyLimitingDataSource.class);
+			assertThat(context.getBean(MeterRegistry.class).get("jdbc.connections.limiter.available").gauge().value())
+					.isEqualTo(3);
+		});
+		runner.withPropertyValues("spring.threads.virtual.enabled=false").run(context ->
+				assertThat(context.getBean("dataSource")).isNotInstanceOf(ConcurrencyLimitingDataSource.class));
+	}
+
+	private double available() {
+		return meterRegistry.get("jdbc.connections.limiter.available").gauge().value();
+	}
+
+	private void waitForWaiters(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("jdbc.connections.limiter.waiting").gauge().value() < expected
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	static class DataSources {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		DataSource dataSource() {
+			return mock(DataSource.class);
+		}
+
+		@Bean
+		DataSource reportingDataSource() {
+			return mock(DataSource.class);
+		}
+	}
+}
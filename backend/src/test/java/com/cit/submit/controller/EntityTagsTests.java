@@ -0,0 +1,46 @@
+package com.cit.submit.controller;
+
+import com.cit.submit.dto.PageResponse;
+import com.cit.submit.dto.UserAdminResponse;
+import com.cit.submit.repository.UserVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityTagsTests {
+
+	@Test
+	void pageTagFollowsTheRowsTheirVersionsAndTheTotal() {
+		String tag = EntityTags.ofPage(page(42, user(1L, 0L), user(2L, 3L)));
+
+		assertThat(tag).startsWith("W/\"").endsWith("\"");
+		assertThat(EntityTags.ofPage(page(42, user(1L, 0L), user(2L, 3L)))).isEqualTo(tag);
+
+		assertThat(EntityTags.ofPage(page(42, user(1L, 0L), user(2L, 4L)))).isNotEqualTo(tag);
+		assertThat(EntityTags.ofPage(page(42, user(1L, 0L), user(3L, 3L)))).isNotEqualTo(tag);
+		assertThat(EntityTags.ofPage(page(42, user(2L, 3L), user(1L, 0L)))).isNotEqualTo(tag);
+		// A user added or removed on a later page still changes the totals shown on this one
+		assertThat(EntityTags.ofPage(page(43, user(1L, 0L), user(2L, 3L)))).isNotEqualTo(tag);
+	}
+
+	@Test
+	void versionsAndLoadedRowsGiveTheSameTag() {
+		PageResponse<UserVersion> versions = new PageResponse<>(
+				List.of(new UserVersion(1L, 0L), new UserVersion(2L, 3L)), 0, 20, 42, 3);
+
+		assertThat(EntityTags.ofVersions(versions)).isEqualTo(EntityTags.ofPage(page(42, user(1L, 0L), user(2L, 3L))));
+	}
+
+	private static PageResponse<UserAdminResponse> page(long total, UserAdminResponse... users) {
+		return new PageResponse<>(List.of(users), 0, 20, total, (int) ((total + 19) / 20));
+	}
+
+	private static UserAdminResponse user(Long id, Long version) {
+		UserAdminResponse user = new UserAdminResponse();
+		user.setId(id);
+		user.setVersion(version);
+		return user;
+	}
+}
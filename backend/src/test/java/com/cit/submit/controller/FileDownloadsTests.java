@@ -0,0 +1,116 @@
+package com.cit.submit.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileDownloadsTests {
+
+	private static final String ETAG = "\"abc123\"";
+	private static final String CONTENT = "0123456789abcdefghij";
+
+	@TempDir
+	Path dir;
+
+	private Path file;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		file = Files.writeString(dir.resolve("stored"), CONTENT);
+	}
+
+	@Test
+	void sendsTheWholeFileWithCachingHeaders() throws Exception {
+		MockHttpServletResponse response = download(null, null);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+		assertThat(response.getContentLengthLong()).isEqualTo(20);
+		assertThat(response.getHeader("ETag")).isEqualTo(ETAG);
+		assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+		assertThat(response.getHeader("Cache-Control")).contains("immutable");
+	}
+
+	@Test
+	void singleAndSuffixRangesArePartialContent() throws Exception {
+		MockHttpServletResponse response = download("bytes=5-9", null);
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+		assertThat(response.getContentAsString()).isEqualTo("56789");
+
+		response = download("bytes=-4", ETAG);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 16-19/20");
+		assertThat(response.getContentAsString()).isEqualTo("ghij");
+
+		// Open-ended, and clipped to the end of the file
+		assertThat(download("bytes=18-", null).getContentAsString()).isEqualTo("ij");
+		assertThat(download("bytes=15-99", null).getContentAsString()).isEqualTo("fghij");
+	}
+
+	@Test
+	void severalRangesAreMultipart() throws Exception {
+		MockHttpServletResponse response = download("bytes=0-1, 10-12", null);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+		String boundary = response.getContentType().substring(response.getContentType().indexOf('=') + 1);
+		String body = response.getContentAsString();
+		assertThat(body).isEqualTo("\r\n--" + boundary + "\r\nContent-Type: application/pdf\r\nContent-Range: bytes 0-1/20\r\n\r\n01"
+				+ "\r\n--" + boundary + "\r\nContent-Type: application/pdf\r\nContent-Range: bytes 10-12/20\r\n\r\nabc"
+				+ "\r\n--" + boundary + "--\r\n");
+		assertThat(response.getContentLengthLong()).isEqualTo(body.getBytes(StandardCharsets.US_ASCII).length);
+	}
+
+	@Test
+	void staleIfRangeGetsTheWholeFileAndUnsatisfiableRangesGet416() throws Exception {
+		MockHttpServletResponse response = download("bytes=0-4", "\"old-hash\"");
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+
+		response = download("bytes=20-30", null);
+		assertThat(response.getStatus()).isEqualTo(416);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+		assertThat(response.getContentAsString()).isEmpty();
+
+		// Malformed ranges are ignored
+		assertThat(download("bytes=9-3", null).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void tomcatSendsTheBytesWhenSendfileIsAvailable() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/submissions/1/content");
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		request.addHeader("Range", "bytes=2-5");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FileDownloads.write(request, response, file, 20, "application/pdf", ETAG);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentLengthLong()).isEqualTo(4);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toAbsolutePath().toString());
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+		assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(6L);
+	}
+
+	private MockHttpServletResponse download(String range, String ifRange) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/submissions/1/content");
+		if (range != null) {
+			request.addHeader("Range", range);
+		}
+		if (ifRange != null) {
+			request.addHeader("If-Range", ifRange);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FileDownloads.write(request, response, file, 20, "application/pdf", ETAG);
+		return response;
+	}
+}
@@ -0,0 +1,133 @@
+package com.cit.submit.controller;
+
+import com.cit.submit.config.SecurityConfig;
+import com.cit.submit.dto.UserProfileResponse;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.security.AccessTokenService;
+import com.cit.submit.security.PrincipalCache;
+import com.cit.submit.security.UserPrincipal;
+import com.cit.submit.service.PhotoService;
+import com.cit.submit.service.UserService;
+import com.cit.submit.service.VersionConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserController.class)
+@Import(SecurityConfig.class)
+class UserControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private UserService userService;
+
+	@MockitoBean
+	private PhotoService photoService;
+
+	@MockitoBean
+	private AccessTokenService accessTokenService;
+
+	@MockitoBean
+	private PrincipalCache principalCache;
+
+	@Test
+	void memberCanReadOwnProfile() throws Exception {
+		given(userService.getUserProfile(anyLong())).willReturn(new UserProfileResponse());
+
+		mockMvc.perform(get("/api/users/1").with(as(1L, UserRole.MEMBER)))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void memberCannotReadAnotherProfile() throws Exception {
+		mockMvc.perform(get("/api/users/2").with(as(1L, UserRole.MEMBER)))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void adminCanReadAnyProfile() throws Exception {
+		given(userService.getUserProfile(anyLong())).willReturn(new UserProfileResponse());
+
+		mockMvc.perform(get("/api/users/2").with(as(1L, UserRole.ADMIN)))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void profileCarriesItsVersionAsETag() throws Exception {
+		UserProfileResponse profile = new UserProfileResponse();
+		profile.setVersion(3L);
+		given(userService.getUserProfile(1L)).willReturn(profile);
+
+		mockMvc.perform(get("/api/users/1").with(as(1L, UserRole.MEMBER)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"v3\""));
+	}
+
+	@Test
+	void unchangedProfileIsRevalidatedWithoutLoadingIt() throws Exception {
+		given(userService.getProfileVersion(1L)).willReturn(3L);
+
+		mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"v3\"").with(as(1L, UserRole.MEMBER)))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"v3\""));
+		then(userService).should(never()).getUserProfile(anyLong());
+	}
+
+	@Test
+	void staleIfMatchIsRejected() throws Exception {
+		given(userService.updateUserProfile(eq(1L), any(), eq(2L)))
+				.willThrow(new VersionConflictException("Profile was changed elsewhere, reload and try again"));
+
+		mockMvc.perform(put("/api/users/1").header(HttpHeaders.IF_MATCH, "\"v2\"").with(as(1L, UserRole.MEMBER))
+						.contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Sam Student\"}"))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void uploadedPhotoBecomesAVersionedPictureUrl() throws Exception {
+		String sha256 = "ab".repeat(32);
+		given(photoService.store(any())).willReturn(sha256);
+		given(userService.updatePicture(eq(1L), any())).willReturn(new UserProfileResponse());
+		MockMultipartFile photo = new MockMultipartFile("photo", "me.png", "image/png", new byte[] {1, 2, 3});
+
+		mockMvc.perform(multipart(HttpMethod.PUT, "/api/users/1/photo").file(photo).with(as(1L, UserRole.MEMBER)))
+				.andExpect(status().isOk());
+		then(userService).should().updatePicture(1L, "http://localhost/api/photos/" + sha256 + "/256");
+
+		mockMvc.perform(multipart(HttpMethod.PUT, "/api/users/2/photo").file(photo).with(as(1L, UserRole.MEMBER)))
+				.andExpect(status().isForbidden());
+	}
+
+	private static RequestPostProcessor as(Long id, UserRole role) {
+		UserPrincipal principal = new UserPrincipal(id, "user" + id + "@cit.edu", role, true);
+		return authentication(new UsernamePasswordAuthenticationToken(
+				principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+	}
+}
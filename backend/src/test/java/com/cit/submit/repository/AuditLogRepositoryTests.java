@@ -0,0 +1,145 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.dto.AuditLogFilter;
+import com.cit.submit.dto.AuditLogResponse;
+import com.cit.submit.model.AuditLog;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AuditLogRepositoryTests {
+
+	@Autowired
+	private AuditLogRepository auditLogRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User admin;
+	private User target;
+
+	@BeforeEach
+	void setUp() {
+		admin = entityManager.persist(user("admin@cit.edu").name("Ada Admin").role(UserRole.ADMIN).build());
+		target = entityManager.persist(user("student@cit.edu").name("Sam Student").build());
+	}
+
+	@Test
+	void responsesResolveNamesInTheSameQuery() {
+		persistLogs(3, target.getId());
+		persistLog(admin.getId(), 9999L, LocalDateTime.now());
+
+		List<AuditLogResponse> responses = auditLogRepository.findPage(null, null, null, 1000);
+
+		assertThat(responses).hasSize(4);
+		assertThat(responses.get(0).getTargetUserEmail()).isEqualTo("Unknown");
+		assertThat(responses.subList(1, 4)).allSatisfy(r -> {
+			assertThat(r.getAdminName()).isEqualTo("Ada Admin");
+			assertThat(r.getTargetUserEmail()).isEqualTo("student@cit.edu");
+		});
+	}
+
+	@Test
+	void queryCountDoesNotGrowWithRowCount() {
+		persistLogs(5, target.getId());
+		long fewRows = countStatements(() -> auditLogRepository.findPage(null, null, null, 1000));
+
+		persistLogs(500, target.getId());
+		long manyRows = countStatements(() -> auditLogRepository.findPage(null, null, null, 1000));
+
+		assertThat(fewRows).isEqualTo(1);
+		assertThat(manyRows).isEqualTo(1);
+	}
+
+	@Test
+	void perUserQueryCountDoesNotGrowWithRowCount() {
+		persistLogs(5, target.getId());
+		persistLogs(5, admin.getId());
+		long fewRows = countStatements(() -> auditLogRepository.findResponsesByTargetUserId(target.getId()));
+
+		persistLogs(500, target.getId());
+		long manyRows = countStatements(() -> auditLogRepository.findResponsesByTargetUserId(target.getId()));
+
+		assertThat(fewRows).isEqualTo(1);
+		assertThat(manyRows).isEqualTo(1);
+		assertThat(auditLogRepository.findResponsesByTargetUserId(target.getId())).hasSize(505);
+	}
+
+	@Test
+	void keysetPagesCoverEveryRowOnce() {
+		persistLogs(120, target.getId());
+		entityManager.flush();
+
+		List<Long> seen = new ArrayList<>();
+		List<AuditLogResponse> page = auditLogRepository.findPage(null, null, null, 50);
+		while (!page.isEmpty()) {
+			page.forEach(r -> seen.add(r.getId()));
+			AuditLogResponse last = page.get(page.size() - 1);
+			page = auditLogRepository.findPage(null, last.getTimestamp(), last.getId(), 50);
+		}
+
+		assertThat(seen).hasSize(120).doesNotHaveDuplicates();
+		List<AuditLogResponse> all = auditLogRepository.findPage(null, null, null, 1000);
+		assertThat(seen).containsExactlyElementsOf(all.stream().map(AuditLogResponse::getId).toList());
+	}
+
+	@Test
+	void pageQueryAppliesOnlyTheGivenFilters() {
+		LocalDateTime base = LocalDateTime.now().minusDays(1);
+		persistLogs(10, target.getId());
+		AuditLog deactivate = new AuditLog(admin.getId(), target.getId(), "DEACTIVATE", "test");
+		entityManager.persist(deactivate);
+		deactivate.setTimestamp(base.plusHours(2));
+		entityManager.flush();
+
+		AuditLogFilter byAction = new AuditLogFilter("DEACTIVATE", null, null, null, null);
+		assertThat(auditLogRepository.findPage(byAction, null, null, 50))
+				.extracting(AuditLogResponse::getId).containsExactly(deactivate.getId());
+
+		AuditLogFilter byRange = new AuditLogFilter(null, admin.getId(), target.getId(), base.plusSeconds(5), base.plusHours(1));
+		assertThat(auditLogRepository.findPage(byRange, null, null, 50)).hasSize(5);
+	}
+
+	private long countStatements(Runnable query) {
+		entityManager.flush();
+		entityManager.clear();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		query.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void persistLogs(int count, Long targetUserId) {
+		LocalDateTime base = LocalDateTime.now().minusDays(1);
+		for (int i = 0; i < count; i++) {
+			persistLog(admin.getId(), targetUserId, base.plusSeconds(i));
+		}
+	}
+
+	private void persistLog(Long adminId, Long targetUserId, LocalDateTime timestamp) {
+		AuditLog log = new AuditLog(adminId, targetUserId, "UPDATE", "test");
+		entityManager.persist(log);
+		// @PrePersist stamps the current time; override it so ordering is deterministic
+		log.setTimestamp(timestamp);
+	}
+}
@@ -0,0 +1,150 @@
+package com.cit.submit.repository;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.dto.UserFilter;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@JpaTest
+class UserRepositoryTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void staleCopiesCannotOverwriteNewerChanges() {
+		User stale = entityManager.persistFlushFind(user("student@cit.edu").build());
+		assertThat(userRepository.findVersionById(stale.getId())).contains(0L);
+		entityManager.detach(stale);
+
+		User current = entityManager.find(User.class, stale.getId());
+		current.setName("Renamed Elsewhere");
+		entityManager.flush();
+		assertThat(userRepository.findVersionById(stale.getId())).contains(1L);
+
+		stale.setName("Lost Update");
+		assertThatThrownBy(() -> userRepository.saveAndFlush(stale))
+				.isInstanceOf(OptimisticLockingFailureException.class);
+	}
+
+	@Test
+	void bulkUpdatesBumpVersions() {
+		User first = entityManager.persist(user("first@cit.edu").build());
+		User second = entityManager.persist(user("second@cit.edu").build());
+		entityManager.flush();
+
+		assertThat(userRepository.updateRoleByIdIn(List.of(first.getId(), second.getId()), UserRole.MANAGER)).isEqualTo(2);
+		assertThat(userRepository.markEmailVerified(second.getId())).isEqualTo(1);
+		entityManager.clear();
+
+		assertThat(userRepository.findVersionById(first.getId())).contains(1L);
+		assertThat(userRepository.findVersionById(second.getId())).contains(2L);
+	}
+
+	@Test
+	void versionPagesMatchTheEntityPages() {
+		for (int i = 0; i < 5; i++) {
+			entityManager.persist(user("user" + i + "@cit.edu").build());
+		}
+		entityManager.flush();
+		PageRequest secondPage = PageRequest.of(1, 2, Sort.by("id"));
+
+		Page<UserVersion> versions = userRepository.findVersions(secondPage);
+		Page<User> users = userRepository.findAll(secondPage);
+
+		assertThat(versions.getContent()).extracting(UserVersion::id)
+				.containsExactlyElementsOf(users.getContent().stream().map(User::getId).toList());
+		assertThat(versions.getTotalElements()).isEqualTo(5);
+	}
+
+	@Test
+	void keysetPagesFollowTheSortAndFilters() {
+		entityManager.persist(user("carla@cit.edu").name("Carla").teamCode("T-01").build());
+		entityManager.persist(user("ben@cit.edu").name("Ben").teamCode("T-01").build());
+		entityManager.persist(user("dana@cit.edu").name("Ben").teamCode("T-01").build());
+		entityManager.persist(user("ana@cit.edu").name("Ana").teamCode("T-02").build());
+		entityManager.persist(user("erin@cit.edu").name("Erin").role(UserRole.MANAGER).teamCode("T-01").build());
+		entityManager.flush();
+
+		UserFilter filter = new UserFilter();
+		filter.setRole(UserRole.MEMBER);
+		filter.setTeamCode("T-01");
+
+		// Two users share a name, so the second page starts in the middle of a tie
+		List<User> first = userRepository.findPage(filter, UserSort.NAME, false, null, null, 2);
+		assertThat(first).extracting(User::getEmail).containsExactly("ben@cit.edu", "dana@cit.edu");
+		User last = first.get(1);
+		List<User> second = userRepository.findPage(filter, UserSort.NAME, false, last.getName(), last.getId(), 2);
+		assertThat(second).extracting(User::getEmail).containsExactly("carla@cit.edu");
+
+		List<User> newestFirst = userRepository.findPage(null, UserSort.ID, true, null, null, 10);
+		assertThat(newestFirst).extracting(User::getEmail).first().isEqualTo("erin@cit.edu");
+		assertThat(userRepository.findPage(null, UserSort.ID, true, null, newestFirst.get(3).getId(), 10))
+				.extracting(User::getEmail).containsExactly("carla@cit.edu");
+	}
+
+	@Test
+	void keysetPagesWalkPastRowsWithoutASortValue() {
+		for (String email : List.of("a@cit.edu", "b@cit.edu", "c@cit.edu", "d@cit.edu")) {
+			entityManager.persist(user(email).build());
+		}
+		entityManager.flush();
+		entityManager.getEntityManager()
+				.createNativeQuery("UPDATE users SET created_at = NULL WHERE email IN ('b@cit.edu', 'd@cit.edu')")
+				.executeUpdate();
+		entityManager.clear();
+
+		for (boolean descending : new boolean[] {false, true}) {
+			List<String> seen = new ArrayList<>();
+			List<User> page = userRepository.findPage(null, UserSort.CREATED_AT, descending, null, null, 1);
+			while (!page.isEmpty()) {
+				User last = page.get(0);
+				seen.add(last.getEmail());
+				page = userRepository.findPage(null, UserSort.CREATED_AT, descending, last.getCreatedAt(), last.getId(), 1);
+			}
+			assertThat(seen).containsExactlyInAnyOrder("a@cit.edu", "b@cit.edu", "c@cit.edu", "d@cit.edu");
+		}
+	}
+
+	@Test
+	void searchMatchesPrefixesLiterally() {
+		entityManager.persist(user("abc@cit.edu").name("Abby").build());
+		entityManager.persist(user("a_c@cit.edu").name("Al").build());
+		entityManager.flush();
+
+		UserFilter filter = new UserFilter();
+		filter.setSearch("A_");
+		assertThat(userRepository.findPage(filter, UserSort.ID, false, null, null, 10))
+				.extracting(User::getEmail).containsExactly("a_c@cit.edu");
+
+		filter.setSearch("ab");
+		assertThat(userRepository.findPage(filter, UserSort.EMAIL, false, null, null, 10))
+				.extracting(User::getEmail).containsExactly("abc@cit.edu");
+
+		// Student IDs are matched from their start, ignoring case
+		entityManager.persist(user("dee@cit.edu").studentId("CS-2024-001").build());
+		entityManager.flush();
+		filter.setSearch("cs-2024");
+		assertThat(userRepository.findPage(filter, UserSort.ID, false, null, null, 10))
+				.extracting(User::getEmail).containsExactly("dee@cit.edu");
+		filter.setSearch("2024");
+		assertThat(userRepository.findPage(filter, UserSort.ID, false, null, null, 10)).isEmpty();
+	}
+}
@@ -0,0 +1,70 @@
+package com.cit.submit.security;
+
+import com.cit.submit.model.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessTokenServiceTests {
+
+	private final AccessTokenService service = new AccessTokenService("test-secret", 3_600_000L);
+
+	@Test
+	void issuedTokenVerifiesWithItsClaims() {
+		String token = service.issue(user("user42@cit.edu").id(42L).role(UserRole.MANAGER).build());
+
+		AccessTokenService.TokenClaims claims = service.verify("Bearer " + token);
+
+		assertThat(claims).isNotNull();
+		assertThat(claims.userId()).isEqualTo(42L);
+		assertThat(claims.expiresAt() - claims.issuedAt()).isEqualTo(3600);
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = service.issue(user("user42@cit.edu").id(42L).role(UserRole.MEMBER).build());
+		char[] chars = token.toCharArray();
+		chars[12] = chars[12] == 'A' ? 'B' : 'A';
+
+		assertThat(service.verify("Bearer " + new String(chars))).isNull();
+	}
+
+	@Test
+	void tokenSignedWithAnotherKeyIsRejected() {
+		String token = new AccessTokenService("other-secret", 3_600_000L).issue(user("user1@cit.edu").id(1L).role(UserRole.ADMIN).build());
+
+		assertThat(service.verify("Bearer " + token)).isNull();
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		Instant issuedAt = Instant.parse("2025-01-01T00:00:00Z");
+		String token = new AccessTokenService("test-secret", 3_600_000L, Clock.fixed(issuedAt, ZoneOffset.UTC))
+				.issue(user("user1@cit.edu").id(1L).role(UserRole.MEMBER).build());
+
+		AccessTokenService beforeExpiry = new AccessTokenService("test-secret", 3_600_000L,
+				Clock.fixed(issuedAt.plusSeconds(3599), ZoneOffset.UTC));
+		AccessTokenService afterExpiry = new AccessTokenService("test-secret", 3_600_000L,
+				Clock.fixed(issuedAt.plusSeconds(3600), ZoneOffset.UTC));
+
+		assertThat(beforeExpiry.verify("Bearer " + token)).isNotNull();
+		assertThat(afterExpiry.verify("Bearer " + token)).isNull();
+	}
+
+	@Test
+	void malformedHeadersAreRejected() {
+		String token = service.issue(user("user1@cit.edu").id(1L).role(UserRole.MEMBER).build());
+
+		assertThat(service.verify(null)).isNull();
+		assertThat(service.verify(token)).isNull();
+		assertThat(service.verify("Basic " + token)).isNull();
+		assertThat(service.verify("Bearer " + token + "x")).isNull();
+		assertThat(service.verify("Bearer " + token.replace('.', '!'))).isNull();
+		assertThat(service.verify("Bearer MToxQGNpdC5lZHU6MTcwMDAwMDAwMDAwMA==.6f1ed002-ab5d-42f8-93a6-8b4e3b4a0f2c")).isNull();
+	}
+}
@@ -0,0 +1,168 @@
+package com.cit.submit.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleIdTokenVerifierTests {
+
+	private static final String CLIENT_ID = "deliverease.apps.googleusercontent.com";
+	private static final long NOW = 1_800_000_000L;
+
+	@TempDir
+	Path dir;
+
+	private Path jwks;
+	private KeyPair key1;
+	private SimpleMeterRegistry meterRegistry;
+	private GoogleIdTokenVerifier verifier;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		key1 = rsaKeyPair();
+		jwks = dir.resolve("jwks.json");
+		writeJwks("key-1", key1);
+		meterRegistry = new SimpleMeterRegistry();
+		verifier = new GoogleIdTokenVerifier(meterRegistry, "file:" + jwks, CLIENT_ID, Duration.ZERO,
+				Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC));
+	}
+
+	@Test
+	void acceptsAValidTokenAndReadsItsClaims() throws Exception {
+		GoogleIdTokenClaims claims = verifier.verify(token("key-1", key1, claims(CLIENT_ID, NOW + 600, true)));
+
+		assertThat(claims.email()).isEqualTo("student@cit.edu");
+		assertThat(claims.name()).isEqualTo("Sam Student");
+		assertThat(claims.picture()).isEqualTo("https://lh3.googleusercontent.com/a/photo");
+		assertThat(claims.emailVerified()).isTrue();
+		assertThat(meterRegistry.get("auth.google.tokens").tag("result", "valid").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsForgedExpiredAndMisaddressedTokens() throws Exception {
+		KeyPair attacker = rsaKeyPair();
+		assertThatThrownBy(() -> verifier.verify(token("key-1", attacker, claims(CLIENT_ID, NOW + 600, true))))
+				.hasMessageContaining("signature");
+		assertThatThrownBy(() -> verifier.verify(token("key-1", key1, claims("someone-else", NOW + 600, true))))
+				.hasMessageContaining("different application");
+		assertThatThrownBy(() -> verifier.verify(token("key-1", key1, claims(CLIENT_ID, NOW - 600, true))))
+				.hasMessageContaining("expired");
+		assertThatThrownBy(() -> verifier.verify(token("key-1", key1, claims(CLIENT_ID, NOW + 600, false))))
+				.hasMessageContaining("not verified");
+		assertThatThrownBy(() -> verifier.verify("not.a-token")).hasMessageContaining("format");
+
+		// An unsigned payload: the old implementation only base64-decoded the middle part
+		String unsigned = token("key-1", key1, claims(CLIENT_ID, NOW + 600, true));
+		assertThatThrownBy(() -> verifier.verify(unsigned.substring(0, unsigned.lastIndexOf('.') + 1) + "AAAA"))
+				.isInstanceOf(Exception.class);
+		assertThat(meterRegistry.get("auth.google.tokens").tag("result", "invalid").counter().count()).isEqualTo(6);
+	}
+
+	@Test
+	void withoutAClientIdEveryTokenIsRejected() throws Exception {
+		for (String clientId : new String[] {null, "", "  "}) {
+			GoogleIdTokenVerifier unconfigured = new GoogleIdTokenVerifier(meterRegistry, "file:" + jwks, clientId,
+					Duration.ZERO, Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC));
+
+			assertThatThrownBy(() -> unconfigured.verify(token("key-1", key1, claims(CLIENT_ID, NOW + 600, true))))
+					.hasMessageContaining("not configured");
+			assertThatThrownBy(() -> unconfigured.verify(token("key-1", key1, claims("", NOW + 600, true))))
+					.hasMessageContaining("not configured");
+		}
+	}
+
+	@Test
+	void headerWithoutAKeyIdIsRejected() {
+		String noKid = base64("{\"alg\":\"RS256\",\"typ\":\"JWT\"}") + "."
+				+ base64(claims(CLIENT_ID, NOW + 600, true)) + ".AAAA";
+
+		assertThatThrownBy(() -> verifier.verify(noKid)).hasMessage("Invalid token format");
+	}
+
+	@Test
+	void unknownKeyIdReloadsTheKeySet() throws Exception {
+		verifier.verify(token("key-1", key1, claims(CLIENT_ID, NOW + 600, true)));
+
+		// Google rotates to a new key
+		KeyPair key2 = rsaKeyPair();
+		writeJwks("key-2", key2);
+
+		assertThat(verifier.verify(token("key-2", key2, claims(CLIENT_ID, NOW + 600, true))).email())
+				.isEqualTo("student@cit.edu");
+		assertThatThrownBy(() -> verifier.verify(token("key-1", key1, claims(CLIENT_ID, NOW + 600, true))))
+				.hasMessageContaining("unknown key");
+	}
+
+	@Test
+	void unknownKeyIdsReloadAtMostOncePerInterval() throws Exception {
+		GoogleIdTokenVerifier throttled = new GoogleIdTokenVerifier(meterRegistry, "file:" + jwks, CLIENT_ID,
+				Duration.ofSeconds(30), Clock.fixed(Instant.ofEpochSecond(NOW), ZoneOffset.UTC));
+		throttled.refresh();
+
+		KeyPair key2 = rsaKeyPair();
+		writeJwks("key-2", key2);
+
+		// Loaded moments ago, so the new key is not fetched yet
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> throttled.verify(token("key-2", key2, claims(CLIENT_ID, NOW + 600, true))))
+					.hasMessageContaining("unknown key");
+		}
+	}
+
+	private void writeJwks(String kid, KeyPair keyPair) throws Exception {
+		RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+		Files.writeString(jwks, "{\"keys\":[{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"" + kid + "\","
+				+ "\"n\":\"" + unsigned(publicKey.getModulus().toByteArray()) + "\","
+				+ "\"e\":\"" + unsigned(publicKey.getPublicExponent().toByteArray()) + "\"}]}");
+	}
+
+	private static String claims(String audience, long exp, boolean emailVerified) {
+		return "{\"iss\":\"https://accounts.google.com\",\"aud\":\"" + audience + "\",\"sub\":\"1234567890\","
+				+ "\"email\":\"student@cit.edu\",\"email_verified\":" + emailVerified + ","
+				+ "\"name\":\"Sam Student\",\"picture\":\"https://lh3.googleusercontent.com/a/photo\","
+				+ "\"hd\":\"cit.edu\",\"iat\":" + (exp - 3600) + ",\"exp\":" + exp + "}";
+	}
+
+	private static String token(String kid, KeyPair keyPair, String claims) throws Exception {
+		String signingInput = base64("{\"alg\":\"RS256\",\"kid\":\"" + kid + "\",\"typ\":\"JWT\"}") + "." + base64(claims);
+		Signature signature = Signature.getInstance("SHA256withRSA");
+		signature.initSign(keyPair.getPrivate());
+		signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+		return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+	}
+
+	private static String base64(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// JWK integers are unsigned big-endian
+	private static String unsigned(byte[] bytes) {
+		int start = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+		byte[] trimmed = Arrays.copyOfRange(bytes, start, bytes.length);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(trimmed);
+	}
+
+	private static KeyPair rsaKeyPair() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		return generator.generateKeyPair();
+	}
+}
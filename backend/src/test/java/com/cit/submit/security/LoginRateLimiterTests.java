@@ -0,0 +1,145 @@
+package com.cit.submit.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+	@Test
+	void emailBucketRefillsOneAttemptPerInterval() {
+		// 3 attempts per 30 s: one token every 10 s
+		LoginRateLimiter limiter = limiter(1_000, 3, 100);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("10.0.0.1", "Student@CIT.edu")).isZero();
+		}
+		// Case and whitespace do not give a fresh bucket
+		assertThat(limiter.tryAcquire("10.0.0.2", " student@cit.edu ")).isEqualTo(10);
+		assertThat(limiter.tryAcquire("10.0.0.1", "other@cit.edu")).isZero();
+
+		now.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertThat(limiter.tryAcquire("10.0.0.1", "student@cit.edu")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1", "student@cit.edu")).isPositive();
+
+		assertThat(meterRegistry.get("auth.ratelimit.requests").tag("key", "email").tag("result", "throttled")
+				.counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void ipLimitAppliesAcrossEmails() {
+		LoginRateLimiter limiter = limiter(2, 10, 100);
+
+		assertThat(limiter.tryAcquire("10.0.0.1", "a@cit.edu")).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1", null)).isZero();
+		assertThat(limiter.tryAcquire("10.0.0.1", "b@cit.edu")).isPositive();
+		assertThat(limiter.tryAcquire("10.0.0.9", "b@cit.edu")).isZero();
+	}
+
+	@Test
+	void idleKeysAreEvictedAndTheTableStaysBounded() {
+		LoginRateLimiter limiter = limiter(1_000, 3, 4);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(limiter.tryAcquire("10.0.0.1", "user" + i + "@cit.edu")).isZero();
+		}
+		assertThat(keys("email")).isEqualTo(4);
+		assertThat(meterRegistry.get("auth.ratelimit.requests").tag("key", "email").tag("result", "untracked")
+				.counter().count()).isEqualTo(6);
+
+		now.addAndGet(Duration.ofMinutes(1).toNanos());
+		limiter.evictIdle();
+		assertThat(keys("email")).isZero();
+		assertThat(keys("ip")).isZero();
+	}
+
+	@Test
+	void fullTableIsSweptInlineAtMostOncePerSecond() {
+		// Each email bucket refills 10 s after its attempt
+		LoginRateLimiter limiter = limiter(1_000, 3, 4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(limiter.tryAcquire("10.0.0.1", "user" + i + "@cit.edu")).isZero();
+		}
+
+		// The sweep finds every bucket still in use, so the new key is not tracked
+		now.addAndGet(Duration.ofMillis(9_900).toNanos());
+		limiter.tryAcquire("10.0.0.1", "late1@cit.edu");
+		// Now the buckets have refilled, but the next inline sweep is not due yet
+		now.addAndGet(Duration.ofMillis(600).toNanos());
+		limiter.tryAcquire("10.0.0.1", "late2@cit.edu");
+		assertThat(keys("email")).isEqualTo(4);
+		assertThat(meterRegistry.get("auth.ratelimit.requests").tag("key", "email").tag("result", "untracked")
+				.counter().count()).isEqualTo(2);
+
+		now.addAndGet(Duration.ofMillis(400).toNanos());
+		limiter.tryAcquire("10.0.0.1", "late3@cit.edu");
+		assertThat(keys("email")).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentAttemptsNeverExceedTheCapacity() throws Exception {
+		LoginRateLimiter limiter = limiter(100_000, 50, 100);
+		AtomicInteger allowed = new AtomicInteger();
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int i = 0; i < 1_000; i++) {
+				executor.execute(() -> {
+					if (limiter.tryAcquire("10.0.0.1", "student@cit.edu") == 0) {
+						allowed.incrementAndGet();
+					}
+				});
+			}
+		}
+
+		assertThat(allowed.get()).isEqualTo(50);
+	}
+
+	@Test
+	void evictionRacingWithAttemptsNeverForgetsATakenToken() throws Exception {
+		LoginRateLimiter limiter = limiter(100_000, 50, 100);
+		AtomicInteger allowed = new AtomicInteger();
+		AtomicBoolean attempting = new AtomicBoolean(true);
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			executor.execute(() -> {
+				while (attempting.get()) {
+					limiter.evictIdle();
+				}
+			});
+			CountDownLatch done = new CountDownLatch(2_000);
+			for (int i = 0; i < 2_000; i++) {
+				executor.execute(() -> {
+					if (limiter.tryAcquire("10.0.0.1", "student@cit.edu") == 0) {
+						allowed.incrementAndGet();
+					}
+					done.countDown();
+				});
+			}
+			done.await();
+			attempting.set(false);
+		}
+
+		assertThat(allowed.get()).isEqualTo(50);
+	}
+
+	private LoginRateLimiter limiter(int ipCapacity, int emailCapacity, int maxKeys) {
+		return new LoginRateLimiter(meterRegistry, ipCapacity, Duration.ofSeconds(30), emailCapacity,
+				Duration.ofSeconds(30), maxKeys, now::get);
+	}
+
+	private double keys(String kind) {
+		return meterRegistry.get("auth.ratelimit.keys").tag("key", kind).gauge().value();
+	}
+}
@@ -0,0 +1,117 @@
+package com.cit.submit.security;
+
+import com.cit.submit.model.User;
+import com.cit.submit.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalCacheTests {
+
+	private UserRepository userRepository;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		meterRegistry = new SimpleMeterRegistry();
+		when(userRepository.findById(anyLong())).thenAnswer(inv -> {
+			Long id = inv.getArgument(0);
+			return Optional.of(user("user" + id + "@cit.edu").id(id).build());
+		});
+	}
+
+	@Test
+	void repeatedLookupsHitTheCache() {
+		PrincipalCache cache = new PrincipalCache(userRepository, meterRegistry, 100, Duration.ofMinutes(1));
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(cache.get(1L).email()).isEqualTo("user1@cit.edu");
+		}
+
+		verify(userRepository, times(1)).findById(1L);
+		assertThat(counter("hit")).isEqualTo(9);
+		assertThat(counter("miss")).isEqualTo(1);
+	}
+
+	@Test
+	void invalidateForcesReload() {
+		PrincipalCache cache = new PrincipalCache(userRepository, meterRegistry, 100, Duration.ofMinutes(1));
+
+		cache.get(1L);
+		cache.invalidate(1L);
+		cache.get(1L);
+
+		verify(userRepository, times(2)).findById(1L);
+	}
+
+	@Test
+	void loadsThatRaceAnInvalidationAreNotCached() {
+		PrincipalCache cache = new PrincipalCache(userRepository, meterRegistry, 100, Duration.ofMinutes(1));
+		when(userRepository.findById(1L)).thenAnswer(inv -> {
+			cache.invalidate(1L);
+			return Optional.of(user("user1@cit.edu").id(1L).build());
+		});
+
+		assertThat(cache.get(1L)).isNotNull();
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void expiredEntriesAreReloaded() {
+		PrincipalCache cache = new PrincipalCache(userRepository, meterRegistry, 100, Duration.ZERO);
+
+		cache.get(1L);
+		cache.get(1L);
+
+		verify(userRepository, times(2)).findById(1L);
+	}
+
+	@Test
+	void sizeNeverExceedsLimit() {
+		PrincipalCache cache = new PrincipalCache(userRepository, meterRegistry, 50, Duration.ofMinutes(1));
+
+		for (long id = 1; id <= 500; id++) {
+			cache.get(id);
+		}
+
+		assertThat(cache.size()).isLessThanOrEqualTo(50);
+	}
+
+	@Test
+	void changesMadeElsewhereAreSeenOnceTheEntryExpires() {
+		PrincipalCache cache = new PrincipalCache(userRepository, meterRegistry, 100, Duration.ZERO);
+		assertThat(cache.get(1L).active()).isTrue();
+
+		// Deactivated by another instance: nothing was invalidated here
+		User deactivated = user("user1@cit.edu").id(1L).active(false).build();
+		when(userRepository.findById(1L)).thenReturn(Optional.of(deactivated));
+
+		assertThat(cache.get(1L).active()).isFalse();
+	}
+
+	@Test
+	void unknownUsersAreNotCached() {
+		when(userRepository.findById(99L)).thenReturn(Optional.empty());
+		PrincipalCache cache = new PrincipalCache(userRepository, meterRegistry, 100, Duration.ofMinutes(1));
+
+		assertThat(cache.get(99L)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	private double counter(String result) {
+		return meterRegistry.get("auth.principal.cache.requests").tag("result", result).counter().count();
+	}
+}
@@ -0,0 +1,134 @@
+package com.cit.submit.service;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.dto.BulkOperationResponse;
+import com.cit.submit.dto.BulkUserRequest;
+import com.cit.submit.dto.TeamSummary;
+import com.cit.submit.model.AuditLog;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.repository.AuditLogRepository;
+import com.cit.submit.repository.UserRepository;
+import com.cit.submit.security.PrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@JpaTest
+@Sql("classpath:db/migration/V9__team_member_counts.sql")
+@Import({AdminService.class, TeamRosterService.class})
+class AdminServiceTests {
+
+	@Autowired
+	private AdminService adminService;
+
+	@Autowired
+	private TeamRosterService teamRosterService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private AuditLogRepository auditLogRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@MockitoBean
+	private AuditLogWriter auditLogWriter;
+
+	@MockitoBean
+	private PrincipalCache principalCache;
+
+	@MockitoBean
+	private AdminStatsService adminStatsService;
+
+	@MockitoBean
+	private EmailValidationService emailValidationService;
+
+	@MockitoBean
+	private PasswordHashingService passwordHashingService;
+
+	@Test
+	void bulkRoleChangeReportsEachUserAndAuditsOnlyTheChangedOnes() throws Exception {
+		User admin = save(user("admin@cit.edu").role(UserRole.ADMIN).accountStatus("ACTIVE").build());
+		User ana = save(user("ana@cit.edu").teamCode("T-01").accountStatus("ACTIVE").build());
+		User ben = save(user("ben@cit.edu").role(UserRole.MANAGER).teamCode("T-01").accountStatus("ACTIVE").build());
+
+		BulkUserRequest request = new BulkUserRequest(Arrays.asList(ana.getId(), ben.getId(), admin.getId(), 9999L, ana.getId(), null), null, null);
+		BulkOperationResponse response = adminService.bulkChangeRole(request, UserRole.MANAGER, admin.getId());
+
+		assertThat(response.getRequested()).isEqualTo(4);
+		assertThat(response.getUpdated()).isEqualTo(1);
+		assertThat(response.getResults()).extracting(BulkOperationResponse.Result::getUserId, BulkOperationResponse.Result::getOutcome)
+				.containsExactly(tuple(ana.getId(), "UPDATED"), tuple(ben.getId(), "UNCHANGED"),
+						tuple(admin.getId(), "SKIPPED"), tuple(9999L, "NOT_FOUND"));
+
+		entityManager.flush();
+		entityManager.clear();
+		assertThat(userRepository.findById(ana.getId())).get().extracting(User::getRole).isEqualTo(UserRole.MANAGER);
+		assertThat(userRepository.findVersionById(ana.getId())).contains(1L);
+		assertThat(userRepository.findVersionById(ben.getId())).contains(0L);
+		assertThat(auditLogRepository.findAll()).extracting(AuditLog::getTargetUserId, AuditLog::getChangedFields)
+				.containsExactly(tuple(ana.getId(), "role: MEMBER -> MANAGER"));
+		assertThat(teamRosterService.getTeam("T-01").getByRole()).isEqualTo(Map.of("MANAGER", 2L));
+		verify(principalCache).invalidate(ana.getId());
+		verify(principalCache, never()).invalidate(ben.getId());
+		verify(adminStatsService).invalidate();
+	}
+
+	@Test
+	void bulkDeactivateAndReactivateByFilter() throws Exception {
+		User admin = save(user("admin@cit.edu").role(UserRole.ADMIN).accountStatus("ACTIVE").build());
+		User ana = save(user("ana@cit.edu").teamCode("T-01").accountStatus("ACTIVE").build());
+		User ben = save(user("ben@cit.edu").teamCode("T-01").active(false).accountStatus("DEACTIVATED").build());
+		User carl = save(user("carl@cit.edu").teamCode("T-01").accountStatus("ACTIVE").build());
+		save(user("dee@cit.edu").teamCode("T-02").accountStatus("ACTIVE").build());
+
+		BulkOperationResponse deactivated = adminService.bulkDeactivate(new BulkUserRequest(null, "T-01", null), admin.getId());
+
+		assertThat(deactivated.getUpdated()).isEqualTo(2);
+		assertThat(deactivated.getResults()).extracting(BulkOperationResponse.Result::getUserId, BulkOperationResponse.Result::getOutcome)
+				.containsExactly(tuple(ana.getId(), "UPDATED"), tuple(ben.getId(), "UNCHANGED"), tuple(carl.getId(), "UPDATED"));
+		TeamSummary team = teamRosterService.getTeam("T-01");
+		assertThat(team.getByStatus()).isEqualTo(Map.of("DEACTIVATED", 3L));
+		assertThat(teamRosterService.getTeam("T-02").getByStatus()).isEqualTo(Map.of("ACTIVE", 1L));
+
+		BulkOperationResponse reactivated = adminService.bulkReactivate(new BulkUserRequest(null, "T-01", UserRole.MEMBER), admin.getId());
+
+		assertThat(reactivated.getUpdated()).isEqualTo(3);
+		assertThat(teamRosterService.getTeam("T-01").getByStatus()).isEqualTo(Map.of("ACTIVE", 3L));
+		assertThat(auditLogRepository.findAll()).extracting(AuditLog::getAction)
+				.containsExactlyInAnyOrder("DEACTIVATE", "DEACTIVATE", "REACTIVATE", "REACTIVATE", "REACTIVATE");
+	}
+
+	@Test
+	void bulkRequestsNeedIdsOrAFilterButNotBoth() {
+		assertThatThrownBy(() -> adminService.bulkDeactivate(null, 1L)).hasMessageContaining("Select users");
+		assertThatThrownBy(() -> adminService.bulkDeactivate(new BulkUserRequest(List.of(), " ", null), 1L))
+				.hasMessageContaining("not both");
+		assertThatThrownBy(() -> adminService.bulkDeactivate(new BulkUserRequest(List.of(2L), "T-01", null), 1L))
+				.hasMessageContaining("not both");
+		assertThatThrownBy(() -> adminService.bulkChangeRole(new BulkUserRequest(List.of(2L), null, null), null, 1L))
+				.hasMessage("Invalid role");
+	}
+
+	// Through the roster service, so the team counts start out right
+	private User save(User user) {
+		return teamRosterService.saveUser(user, null);
+	}
+}
@@ -0,0 +1,110 @@
+package com.cit.submit.service;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.dto.AdminStats;
+import com.cit.submit.dto.DailyCount;
+import com.cit.submit.model.AuditLog;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JpaTest
+@TestPropertySource(properties = "app.admin.stats.window-days=7")
+@Import({AdminStatsService.class, AdminStatsServiceTests.Metrics.class})
+class AdminStatsServiceTests {
+
+	@Autowired
+	private AdminStatsService adminStatsService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	// The service outlives each test's rolled-back data
+	@BeforeEach
+	void setUp() {
+		adminStatsService.invalidate();
+	}
+
+	@Test
+	void aggregatesUsersAndAdminActions() {
+		User admin = entityManager.persist(user("admin@cit.edu").role(UserRole.ADMIN).accountStatus("ACTIVE").build());
+		User ana = entityManager.persist(user("ana@cit.edu").accountStatus("ACTIVE").build());
+		entityManager.persist(user("ben@cit.edu").accountStatus("PENDING").build());
+		entityManager.persist(user("carl@cit.edu").role(UserRole.MANAGER).accountStatus("DEACTIVATED").build());
+		entityManager.persist(user("dee@cit.edu").build());
+		entityManager.persist(new AuditLog(admin.getId(), ana.getId(), "CREATE", "Created user: ana@cit.edu"));
+		entityManager.persist(new AuditLog(admin.getId(), ana.getId(), "ROLE_CHANGE", "Changed role for: ana@cit.edu"));
+		entityManager.persist(new AuditLog(admin.getId(), ana.getId(), "ROLE_CHANGE", "Changed role for: ana@cit.edu"));
+		entityManager.flush();
+
+		AdminStats stats = adminStatsService.getStats();
+
+		assertThat(stats.getTotalUsers()).isEqualTo(5);
+		assertThat(stats.getByRole()).containsEntry("MEMBER", 3L).containsEntry("MANAGER", 1L).containsEntry("ADMIN", 1L);
+		assertThat(stats.getByStatus()).containsEntry("ACTIVE", 2L).containsEntry("PENDING", 2L)
+				.containsEntry("DEACTIVATED", 1L);
+		assertThat(stats.getSignUpsPerDay()).hasSize(7);
+		assertThat(stats.getSignUpsPerDay().getLast()).isEqualTo(new DailyCount(LocalDate.now(), 5L));
+		assertThat(stats.getSignUpsPerDay().getFirst().getCount()).isZero();
+		assertThat(stats.getActionsByType()).containsExactly(
+				Map.entry("CREATE", 1L), Map.entry("ROLE_CHANGE", 2L));
+		assertThat(stats.getRecentActions()).hasSize(3)
+				.allSatisfy(action -> assertThat(action.getAdminName()).isEqualTo("admin"));
+	}
+
+	@Test
+	void servesTheSnapshotUntilInvalidated() {
+		double hits = requests("hit");
+		double misses = requests("miss");
+		entityManager.persist(user("ana@cit.edu").accountStatus("ACTIVE").build());
+		entityManager.flush();
+		assertThat(adminStatsService.getStats().getTotalUsers()).isEqualTo(1);
+
+		// A change the service was not told about is not queried for
+		entityManager.persist(user("ben@cit.edu").accountStatus("ACTIVE").build());
+		entityManager.flush();
+		assertThat(adminStatsService.getStats().getTotalUsers()).isEqualTo(1);
+
+		adminStatsService.invalidate();
+		assertThat(adminStatsService.getStats().getTotalUsers()).isEqualTo(2);
+
+		entityManager.persist(user("carl@cit.edu").accountStatus("ACTIVE").build());
+		entityManager.flush();
+		adminStatsService.refresh();
+		assertThat(adminStatsService.getStats().getTotalUsers()).isEqualTo(3);
+
+		assertThat(requests("hit") - hits).isEqualTo(2);
+		assertThat(requests("miss") - misses).isEqualTo(2);
+	}
+
+	private double requests(String result) {
+		return meterRegistry.get("admin.stats.cache.requests").tag("result", result).counter().count();
+	}
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package com.cit.submit.service;
+
+import com.cit.submit.model.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AuditLogWriterTests {
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private SimpleMeterRegistry meterRegistry;
+	private final AdminStatsService adminStatsService = mock(AdminStatsService.class);
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE audit_logs (id BIGINT AUTO_INCREMENT PRIMARY KEY, admin_id BIGINT, " +
+				"target_user_id BIGINT, action VARCHAR(255), description TEXT, changed_fields TEXT, " +
+				"\"TIMESTAMP\" TIMESTAMP, ip_address VARCHAR(255))");
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void stopFlushesEverythingQueued() {
+		AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, adminStatsService, meterRegistry, 10_000, 100,
+				Duration.ofMillis(50), Duration.ofMillis(50));
+		writer.start();
+
+		for (int i = 0; i < 2_500; i++) {
+			writer.enqueue(new AuditLog(1L, (long) i, "UPDATE", "entry " + i));
+		}
+		writer.stop();
+
+		// Dashboard stats are invalidated only once entries are committed
+		verify(adminStatsService, atLeastOnce()).invalidate();
+
+		assertThat(count()).isEqualTo(2_500);
+		assertThat(writer.getQueueDepth()).isZero();
+		assertThat(meterRegistry.get("audit.writer.flush.latency").timer().count()).isPositive();
+	}
+
+	@Test
+	void fullQueueFallsBackToWritingOnTheCallerThread() throws Exception {
+		// Holds the writer thread inside its first insert until released
+		CountDownLatch stalled = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		JdbcTemplate stallingTemplate = new JdbcTemplate(database) {
+			@Override
+			public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+					ParameterizedPreparedStatementSetter<T> setter) {
+				if (Thread.currentThread().getName().equals("audit-log-writer")) {
+					stalled.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.batchUpdate(sql, batchArgs, batchSize, setter);
+			}
+		};
+		AuditLogWriter writer = new AuditLogWriter(stallingTemplate, adminStatsService, meterRegistry, 1, 100,
+				Duration.ofMillis(50), Duration.ofMillis(50));
+		writer.start();
+
+		try {
+			writer.enqueue(new AuditLog(1L, 0L, "UPDATE", "taken by the writer"));
+			assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+			writer.enqueue(new AuditLog(1L, 1L, "UPDATE", "fills the queue"));
+			assertThat(writer.getQueueDepth()).isEqualTo(1);
+
+			// Each overflowing caller waits out the offer timeout, then inserts its own entry
+			long start = System.nanoTime();
+			for (int i = 2; i < 5; i++) {
+				writer.enqueue(new AuditLog(1L, (long) i, "UPDATE", "entry " + i));
+			}
+			assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(3 * 50));
+			assertThat(count()).isEqualTo(3);
+			assertThat(meterRegistry.get("audit.writer.backpressure").counter().count()).isEqualTo(3);
+			assertThat(writer.getQueueDepth()).isEqualTo(1);
+		} finally {
+			release.countDown();
+		}
+		writer.stop();
+
+		// Nothing was dropped: the stalled and queued entries are written once the writer resumes
+		assertThat(count()).isEqualTo(5);
+		assertThat(writer.getQueueDepth()).isZero();
+		assertThat(meterRegistry.get("audit.writer.backpressure").counter().count()).isEqualTo(3);
+	}
+
+	@Test
+	void failedBatchLeavesTheStatsSnapshotAlone() {
+		AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, adminStatsService, meterRegistry, 10, 100,
+				Duration.ofMillis(50), Duration.ZERO);
+		jdbcTemplate.execute("DROP TABLE audit_logs");
+
+		writer.enqueue(new AuditLog(1L, 2L, "UPDATE", "lost"));
+
+		assertThat(meterRegistry.get("audit.writer.entries").tag("result", "failed").counter().count()).isEqualTo(1);
+		verify(adminStatsService, never()).invalidate();
+	}
+
+	private Integer count() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_logs", Integer.class);
+	}
+}
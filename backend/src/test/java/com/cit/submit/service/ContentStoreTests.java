@@ -0,0 +1,88 @@
+package com.cit.submit.service;
+
+import com.cit.submit.service.ContentStore.StoredContent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentStoreTests {
+
+	@TempDir
+	Path root;
+
+	private SimpleMeterRegistry meterRegistry;
+	private ContentStore store;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		meterRegistry = new SimpleMeterRegistry();
+		// Smaller than the uploads, so every test crosses buffer boundaries
+		store = new ContentStore(meterRegistry, root.toString(), DataSize.ofKilobytes(4));
+	}
+
+	@Test
+	void storesContentUnderItsSha256() throws Exception {
+		byte[] data = randomBytes(100_000);
+
+		StoredContent content = store.store(new ByteArrayInputStream(data), 1_000_000);
+
+		String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+		assertThat(content.sha256()).isEqualTo(expected);
+		assertThat(content.size()).isEqualTo(data.length);
+		assertThat(content.deduplicated()).isFalse();
+		Path stored = store.resolve(expected);
+		assertThat(stored).isEqualTo(root.resolve(expected.substring(0, 2)).resolve(expected.substring(2, 4)).resolve(expected));
+		assertThat(Files.readAllBytes(stored)).isEqualTo(data);
+		assertThat(incomingFiles()).isZero();
+	}
+
+	@Test
+	void identicalContentIsStoredOnce() throws Exception {
+		byte[] data = randomBytes(10_000);
+
+		StoredContent first = store.store(new ByteArrayInputStream(data), 1_000_000);
+		StoredContent second = store.store(new ByteArrayInputStream(data.clone()), 1_000_000);
+
+		assertThat(second.sha256()).isEqualTo(first.sha256());
+		assertThat(second.deduplicated()).isTrue();
+		assertThat(meterRegistry.get("storage.uploads").tag("result", "stored").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("storage.uploads").tag("result", "deduplicated").counter().count()).isEqualTo(1);
+		assertThat(incomingFiles()).isZero();
+	}
+
+	@Test
+	void oversizedUploadIsRejectedAndNothingIsKept() throws Exception {
+		assertThatThrownBy(() -> store.store(new ByteArrayInputStream(randomBytes(20_000)), 10_000))
+				.isInstanceOf(UploadTooLargeException.class);
+
+		try (Stream<Path> files = Files.walk(root)) {
+			assertThat(files.filter(Files::isRegularFile)).isEmpty();
+		}
+		assertThatThrownBy(() -> store.resolve("../../etc/passwd")).hasMessageContaining("Invalid content hash");
+	}
+
+	private long incomingFiles() throws Exception {
+		try (Stream<Path> files = Files.list(root.resolve("incoming"))) {
+			return files.count();
+		}
+	}
+
+	private static byte[] randomBytes(int size) {
+		byte[] data = new byte[size];
+		new Random(size).nextBytes(data);
+		return data;
+	}
+}
@@ -0,0 +1,40 @@
+package com.cit.submit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTests {
+
+	@Test
+	void readsQuotedFieldsAndMixedLineEndings() throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader(
+				"email,name\r\na@cit.edu,\"Cruz, Juan\"\nb@cit.edu,\"Say \"\"Hi\"\"\"\r\n\"multi\nline\",x"));
+
+		assertThat(reader.next()).containsExactly("email", "name");
+		assertThat(reader.next()).containsExactly("a@cit.edu", "Cruz, Juan");
+		assertThat(reader.next()).containsExactly("b@cit.edu", "Say \"Hi\"");
+		assertThat(reader.getLineNumber()).isEqualTo(3);
+		assertThat(reader.next()).containsExactly("multi\nline", "x");
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void keepsEmptyTrailingFields() throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("a,,\n"));
+
+		assertThat(reader.next()).containsExactly("a", "", "");
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void unterminatedQuoteIsAnError() {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("\"open,field"));
+
+		assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+	}
+}
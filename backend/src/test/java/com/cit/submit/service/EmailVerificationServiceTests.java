@@ -0,0 +1,140 @@
+package com.cit.submit.service;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.model.EmailVerificationToken;
+import com.cit.submit.model.User;
+import com.cit.submit.repository.EmailVerificationTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@JpaTest
+@TestPropertySource(properties = "app.verification.sweep-batch-size=2")
+@Import(EmailVerificationService.class)
+class EmailVerificationServiceTests {
+
+	private static final Pattern TOKEN = Pattern.compile("token=([A-Za-z0-9_-]+)");
+
+	@Autowired
+	private EmailVerificationService emailVerificationService;
+
+	@Autowired
+	private EmailVerificationTokenRepository tokenRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@MockitoBean
+	private MailDispatcher mailDispatcher;
+
+	@MockitoBean
+	private TeamRosterService teamRosterService;
+
+	@Test
+	void emailedLinkVerifiesTheUserOnce() throws Exception {
+		User user = entityManager.persist(user("new@cit.edu").accountStatus("PENDING").build());
+
+		emailVerificationService.sendVerification(user);
+		ArgumentCaptor<String> html = ArgumentCaptor.forClass(String.class);
+		verify(mailDispatcher).enqueue(eq("new@cit.edu"), eq(EmailService.VERIFICATION_SUBJECT), html.capture());
+		Matcher link = TOKEN.matcher(html.getValue());
+		assertThat(link.find()).isTrue();
+		String token = link.group(1);
+
+		// Only the hash is stored
+		assertThat(tokenRepository.findAll()).singleElement()
+				.extracting(EmailVerificationToken::getTokenHash)
+				.isEqualTo(EmailVerificationService.hash(token))
+				.isNotEqualTo(token);
+
+		emailVerificationService.verify(token);
+		entityManager.flush();
+		entityManager.clear();
+
+		User verified = entityManager.find(User.class, user.getId());
+		assertThat(verified.getEmailVerified()).isTrue();
+		assertThat(verified.getAccountStatus()).isEqualTo("ACTIVE");
+		assertThat(tokenRepository.count()).isZero();
+		assertThatThrownBy(() -> emailVerificationService.verify(token)).hasMessageContaining("Invalid or expired");
+	}
+
+	@Test
+	void verifyingDoesNotReactivateADeactivatedUser() throws Exception {
+		User user = entityManager.persist(user("gone@cit.edu").active(false).accountStatus("DEACTIVATED").build());
+		tokenRepository.save(new EmailVerificationToken(EmailVerificationService.hash("still-valid"),
+				user.getId(), LocalDateTime.now().plusHours(1)));
+
+		emailVerificationService.verify("still-valid");
+		entityManager.flush();
+		entityManager.clear();
+
+		User verified = entityManager.find(User.class, user.getId());
+		assertThat(verified.getEmailVerified()).isTrue();
+		assertThat(verified.getAccountStatus()).isEqualTo("DEACTIVATED");
+		verifyNoInteractions(teamRosterService);
+	}
+
+	@Test
+	void expiredTokensAreRejectedAndSwept() {
+		User user = entityManager.persist(user("late@cit.edu").accountStatus("PENDING").build());
+		for (int i = 0; i < 5; i++) {
+			tokenRepository.save(new EmailVerificationToken(EmailVerificationService.hash("expired-" + i),
+					user.getId(), LocalDateTime.now().minusMinutes(1)));
+		}
+		tokenRepository.save(new EmailVerificationToken(EmailVerificationService.hash("live"),
+				user.getId(), LocalDateTime.now().plusHours(1)));
+
+		assertThatThrownBy(() -> emailVerificationService.verify("expired-0")).hasMessageContaining("Invalid or expired");
+
+		// Batches of 2: five expired tokens take three batches
+		assertThat(emailVerificationService.sweep()).isEqualTo(5);
+		assertThat(tokenRepository.findAll()).singleElement()
+				.extracting(EmailVerificationToken::getTokenHash)
+				.isEqualTo(EmailVerificationService.hash("live"));
+	}
+
+	@Test
+	void sweepRemovesOnlyStaleSelfRegistrations() {
+		for (int i = 0; i < 3; i++) {
+			age(entityManager.persist(user("stale" + i + "@cit.edu").accountStatus("PENDING").build()), 30);
+		}
+		User imported = age(entityManager.persist(user("imported@cit.edu").authProvider("google").accountStatus("PENDING").build()), 30);
+		User recent = entityManager.persist(user("recent@cit.edu").accountStatus("PENDING").build());
+		User verified = entityManager.persist(user("verified@cit.edu").accountStatus("PENDING").build());
+		verified.setEmailVerified(true);
+		verified.setAccountStatus("ACTIVE");
+		age(verified, 30);
+
+		assertThat(emailVerificationService.sweep()).isEqualTo(3);
+		entityManager.clear();
+
+		assertThat(entityManager.getEntityManager()
+				.createQuery("SELECT u.email FROM User u ORDER BY u.email", String.class).getResultList())
+				.containsExactly(imported.getEmail(), recent.getEmail(), verified.getEmail());
+	}
+
+	private User age(User user, int days) {
+		entityManager.flush();
+		entityManager.getEntityManager()
+				.createNativeQuery("UPDATE users SET created_at = ? WHERE id = ?")
+				.setParameter(1, LocalDateTime.now().minusDays(days))
+				.setParameter(2, user.getId())
+				.executeUpdate();
+		return user;
+	}
+}
@@ -0,0 +1,53 @@
+package com.cit.submit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstitutionDomainMatcherTests {
+
+	private final InstitutionDomainMatcher matcher = InstitutionDomainMatcher.of(
+			Arrays.asList("cit.edu", " DLSU.edu.ph ", "@upd.edu.ph", "", null));
+
+	@Test
+	void matchesExactDomainsAndSubdomainsIgnoringCase() {
+		assertThat(matcher.matchesEmail("juan@cit.edu")).isTrue();
+		assertThat(matcher.matchesEmail("Juan@CIT.Edu")).isTrue();
+		assertThat(matcher.matchesEmail("maria@students.dlsu.edu.ph")).isTrue();
+		assertThat(matcher.matchesEmail("jose@upd.edu.ph")).isTrue();
+		assertThat(matcher.size()).isEqualTo(3);
+	}
+
+	@Test
+	void rejectsLookalikesAndMalformedAddresses() {
+		assertThat(matcher.matchesEmail("juan@notcit.edu")).isFalse();
+		assertThat(matcher.matchesEmail("juan@cit.edu.evil.com")).isFalse();
+		assertThat(matcher.matchesEmail("juan@edu")).isFalse();
+		assertThat(matcher.matchesEmail("juan@")).isFalse();
+		assertThat(matcher.matchesEmail("juan@cit.edu.")).isFalse();
+		assertThat(matcher.matchesEmail("cit.edu")).isFalse();
+		assertThat(matcher.matchesEmail(null)).isFalse();
+		// Only the part after the first '@' is the domain
+		assertThat(matcher.matchesEmail("a@b@cit.edu")).isFalse();
+	}
+
+	@Test
+	void agreesWithTheOriginalCheckOnManyDomains() {
+		List<String> domains = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			domains.add("partner" + i + ".edu.ph");
+		}
+		InstitutionDomainMatcher large = InstitutionDomainMatcher.of(domains);
+
+		for (String email : List.of("a@partner0.edu.ph", "a@x.partner499.edu.ph", "a@partner500.edu.ph",
+				"a@edu.ph", "a@artner1.edu.ph", "a@PARTNER42.EDU.PH")) {
+			String domain = email.substring(email.indexOf('@') + 1).toLowerCase();
+			boolean expected = domains.stream().anyMatch(d -> domain.equals(d) || domain.endsWith("." + d));
+			assertThat(large.matchesEmail(email)).as(email).isEqualTo(expected);
+		}
+	}
+}
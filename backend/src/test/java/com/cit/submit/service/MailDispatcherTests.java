@@ -0,0 +1,117 @@
+package com.cit.submit.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class MailDispatcherTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true)
+				.build();
+		jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE mail_dead_letters (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+				"recipient VARCHAR(255), subject VARCHAR(255), body TEXT, attempts INTEGER, last_error TEXT, " +
+				"created_at TIMESTAMP)");
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void sendsQueuedMailInBatches() throws Exception {
+		MailDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort(), 5);
+		dispatcher.start();
+
+		for (int i = 0; i < 120; i++) {
+			assertThat(dispatcher.enqueue("student" + i + "@cit.edu", EmailService.OAUTH_WELCOME_SUBJECT,
+					EmailService.buildOAuthVerificationEmail("Student " + i))).isTrue();
+		}
+		assertThat(greenMail.waitForIncomingEmail(10_000, 120)).isTrue();
+		dispatcher.stop();
+
+		MimeMessage first = greenMail.getReceivedMessages()[0];
+		assertThat(first.getSubject()).isEqualTo(EmailService.OAUTH_WELCOME_SUBJECT);
+		assertThat(meterRegistry.get("mail.dispatcher.messages").tag("result", "sent").counter().count())
+				.isEqualTo(120);
+		// 120 messages in batches of at most 50 take at least three SMTP sessions
+		assertThat(meterRegistry.get("mail.dispatcher.batch.latency").timer().count()).isGreaterThanOrEqualTo(3);
+		assertThat(deadLetters()).isZero();
+	}
+
+	@Test
+	void retriesThenDeadLettersWhenTheServerIsUnreachable() {
+		MailDispatcher dispatcher = dispatcher(unusedPort(), 3);
+		dispatcher.start();
+
+		dispatcher.enqueue("student@cit.edu", EmailService.VERIFICATION_SUBJECT,
+				EmailService.buildVerificationEmail("Student", "http://localhost:5173/verify?token=abc"));
+
+		await().atMost(Duration.ofSeconds(10)).until(() -> deadLetters() == 1);
+		dispatcher.stop();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM mail_dead_letters", Integer.class)).isEqualTo(3);
+		assertThat(meterRegistry.get("mail.dispatcher.messages").tag("result", "retried").counter().count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void stoppedDispatcherDeadLettersInsteadOfDropping() {
+		MailDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort(), 5);
+
+		assertThat(dispatcher.enqueue("student@cit.edu", "Subject", "<p>Body</p>")).isFalse();
+
+		assertThat(deadLetters()).isEqualTo(1);
+		assertThat(greenMail.getReceivedMessages()).isEmpty();
+	}
+
+	private MailDispatcher dispatcher(int port, int maxAttempts) {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(port);
+		return new MailDispatcher(mailSender, jdbcTemplate, meterRegistry, "no-reply@deliverease.local",
+				1_000, 50, 2, maxAttempts, Duration.ofMillis(20), Duration.ofMillis(50));
+	}
+
+	private static int unusedPort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Integer deadLetters() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM mail_dead_letters", Integer.class);
+	}
+}
@@ -0,0 +1,30 @@
+package com.cit.submit.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailTemplateTests {
+
+	@Test
+	void rendersPlaceholdersInAnyOrderAndRepeated() {
+		MailTemplate template = MailTemplate.compile("<a href='{{link}}'>{{name}}</a> {{name}}", "name", "link");
+
+		assertThat(template.render("Ana", "https://x.test/v?t=1")).isEqualTo("<a href='https://x.test/v?t=1'>Ana</a> Ana");
+	}
+
+	@Test
+	void escapesValuesButNotTheTemplate() {
+		MailTemplate template = MailTemplate.compile("<h2>Hi {{name}}!</h2>", "name");
+
+		assertThat(template.render("<b>O'Neil & co</b>")).isEqualTo("<h2>Hi &lt;b&gt;O&#39;Neil &amp; co&lt;/b&gt;!</h2>");
+		assertThat(template.render((String) null)).isEqualTo("<h2>Hi !</h2>");
+	}
+
+	@Test
+	void rejectsUnknownPlaceholders() {
+		assertThatThrownBy(() -> MailTemplate.compile("{{missing}}", "name"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,97 @@
+package com.cit.submit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class PasswordHashingServiceTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private PasswordHashingService service;
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void hashesAndVerifiesOnThePool() throws Exception {
+		service = service(5, 2, 8);
+
+		String hash = service.hash("correct horse");
+
+		assertThat(hash).startsWith("$2a$05$");
+		assertThat(service.matches("correct horse", hash)).isTrue();
+		assertThat(service.matches("wrong horse", hash)).isFalse();
+		assertThat(service.needsUpgrade(hash)).isFalse();
+		// Accounts without a password (OAuth, roster import) never match
+		assertThat(service.matches("", "")).isFalse();
+		assertThat(service.matches("anything", null)).isFalse();
+	}
+
+	@Test
+	void plaintextAndWeakerHashesAreUpgradedAfterLogin() throws Exception {
+		service = service(5, 1, 8);
+		String weak = new BCryptPasswordEncoder(4).encode("secret1");
+
+		assertThat(service.matches("secret1", "secret1")).isTrue();
+		assertThat(service.needsUpgrade("secret1")).isTrue();
+		assertThat(service.needsUpgrade(weak)).isTrue();
+
+		CompletableFuture<String> stored = new CompletableFuture<>();
+		service.upgradeInBackground("secret1", weak, stored::complete);
+
+		String upgraded = stored.get(10, TimeUnit.SECONDS);
+		assertThat(upgraded).startsWith("$2a$05$");
+		assertThat(service.matches("secret1", upgraded)).isTrue();
+		assertThat(meterRegistry.get("password.hashing.upgraded").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void saturatedPoolRejectsInsteadOfQueueingForever() throws Exception {
+		service = service(4, 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch busy = new CountDownLatch(1);
+		String weak = new BCryptPasswordEncoder(4).encode("secret1");
+
+		// Occupy the only thread, then fill the one queue slot
+		service.upgradeInBackground("secret1", "secret1", hash -> {
+			busy.countDown();
+			awaitQuietly(release);
+		});
+		busy.await(10, TimeUnit.SECONDS);
+		service.upgradeInBackground("secret1", "secret1", hash -> { });
+
+		assertThatThrownBy(() -> service.hash("another")).isInstanceOf(ServiceBusyException.class);
+		assertThatThrownBy(() -> service.matches("secret1", weak)).isInstanceOf(ServiceBusyException.class);
+		assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(2);
+
+		release.countDown();
+		await().atMost(Duration.ofSeconds(10))
+				.until(() -> meterRegistry.get("password.hashing.queue.depth").gauge().value() == 0);
+		assertThat(service.matches("secret1", weak)).isTrue();
+	}
+
+	private PasswordHashingService service(int strength, int threads, int queueCapacity) {
+		return new PasswordHashingService(new BCryptPasswordEncoder(strength), meterRegistry, threads, queueCapacity,
+				Duration.ofSeconds(10));
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.cit.submit.service;
+
+import com.cit.submit.model.ProfilePhoto;
+import com.cit.submit.repository.ProfilePhotoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PhotoServiceTests {
+
+	@TempDir
+	Path root;
+
+	private SimpleMeterRegistry meterRegistry;
+	private ContentStore contentStore;
+	private PhotoService service;
+
+	// Stands in for the profile_photos table
+	private final Map<String, ProfilePhoto> photos = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		meterRegistry = new SimpleMeterRegistry();
+		contentStore = new ContentStore(meterRegistry, root.toString(), DataSize.ofKilobytes(4));
+		ProfilePhotoRepository repository = mock(ProfilePhotoRepository.class);
+		when(repository.record(anyString(), anyString(), anyInt(), anyInt(), any())).thenAnswer(inv -> {
+			ProfilePhoto photo = new ProfilePhoto();
+			photo.setSha256(inv.getArgument(0));
+			photo.setContentType(inv.getArgument(1));
+			photo.setWidth(inv.getArgument(2));
+			photo.setHeight(inv.getArgument(3));
+			return photos.putIfAbsent(photo.getSha256(), photo) == null ? 1 : 0;
+		});
+		when(repository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(photos.get(inv.<String>getArgument(0))));
+		when(repository.markRenderFailed(anyString())).thenAnswer(inv -> {
+			photos.get(inv.<String>getArgument(0)).setRenderFailed(true);
+			return 1;
+		});
+		service = new PhotoService(contentStore, repository, meterRegistry, DataSize.ofMegabytes(1), 1, 4);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void servesTheOriginalUntilSquareVariantsAreRendered() throws Exception {
+		byte[] png = png(800, 600);
+
+		String sha256 = service.store(new ByteArrayInputStream(png));
+		assertThat(Files.readAllBytes(contentStore.resolve(sha256))).isEqualTo(png);
+
+		await().atMost(Duration.ofSeconds(10))
+				.until(() -> meterRegistry.get("photos.renders").tag("result", "rendered").counter().count() == 1);
+		for (int size : PhotoService.SIZES) {
+			PhotoService.PhotoFile photo = service.find(sha256, size);
+			assertThat(photo.variant()).isTrue();
+			assertThat(photo.contentType()).isEqualTo("image/jpeg");
+			BufferedImage image = ImageIO.read(photo.file().toFile());
+			assertThat(image.getWidth()).isEqualTo(size);
+			assertThat(image.getHeight()).isEqualTo(size);
+		}
+		assertThat(service.find(sha256, 64).size()).isLessThan(png.length);
+
+		// A photo whose variants are gone is served whole and rendered again
+		Files.delete(contentStore.resolveVariant(sha256, "64.jpg"));
+		PhotoService.PhotoFile original = service.find(sha256, 64);
+		assertThat(original.variant()).isFalse();
+		assertThat(original.contentType()).isEqualTo("image/png");
+		await().atMost(Duration.ofSeconds(10)).until(() -> service.find(sha256, 64).variant());
+	}
+
+	@Test
+	void rejectsFilesThatAreNotImages() throws Exception {
+		byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8);
+
+		assertThatThrownBy(() -> service.store(new ByteArrayInputStream(html)))
+				.hasMessageContaining("JPEG, PNG or GIF");
+		assertThatThrownBy(() -> service.store(new ByteArrayInputStream(new byte[2])))
+				.hasMessageContaining("JPEG, PNG or GIF");
+		assertThatThrownBy(() -> service.find("0".repeat(64), 64)).hasMessageContaining("not found");
+
+		// Looks like a PNG, but there is no image behind the signature
+		byte[] fake = Arrays.copyOf(png(10, 10), 12);
+		assertThatThrownBy(() -> service.store(new ByteArrayInputStream(fake)))
+				.hasMessageContaining("could not be read");
+
+		String sha256 = service.store(new ByteArrayInputStream(png(10, 10)));
+		assertThatThrownBy(() -> service.find(sha256, 1000)).hasMessageContaining("not found");
+		await().atMost(Duration.ofSeconds(10)).until(() -> service.find(sha256, 64).variant());
+	}
+
+	@Test
+	void aRejectedUploadLeavesNothingInTheStore() throws Exception {
+		byte[] fake = Arrays.copyOf(png(10, 10), 4096);
+
+		assertThatThrownBy(() -> service.store(new ByteArrayInputStream(fake)))
+				.hasMessageContaining("could not be read");
+
+		try (Stream<Path> files = Files.walk(root)) {
+			assertThat(files.filter(Files::isRegularFile)).isEmpty();
+		}
+	}
+
+	@Test
+	void servesOnlyContentUploadedAsAPhoto() throws Exception {
+		// A submission shares the content store, and is an image too
+		String submission = contentStore.store(new ByteArrayInputStream(png(20, 20)), 1_000_000).sha256();
+
+		assertThatThrownBy(() -> service.find(submission, 64)).hasMessageContaining("not found");
+		assertThatThrownBy(() -> service.find(submission, 256)).hasMessageContaining("not found");
+		assertThat(meterRegistry.get("photos.renders").tag("result", "rendered").counter().count()).isZero();
+	}
+
+	@Test
+	void aPhotoThatCannotBeDecodedIsServedWholeWithoutRenderingAgain() throws Exception {
+		// The header is intact, the pixel data is cut short
+		byte[] png = png(400, 300);
+		byte[] truncated = Arrays.copyOf(png, png.length / 2);
+
+		String sha256 = service.store(new ByteArrayInputStream(truncated));
+		await().atMost(Duration.ofSeconds(10))
+				.until(() -> meterRegistry.get("photos.renders").tag("result", "failed").counter().count() == 1);
+		await().atMost(Duration.ofSeconds(10)).until(() -> photos.get(sha256).isRenderFailed());
+
+		for (int i = 0; i < 3; i++) {
+			PhotoService.PhotoFile original = service.find(sha256, 64);
+			assertThat(original.variant()).isFalse();
+			assertThat(original.contentType()).isEqualTo("image/png");
+		}
+		Thread.sleep(100);
+		assertThat(meterRegistry.get("photos.renders").tag("result", "failed").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void largePhotosAreDecodedSubsampled() throws Exception {
+		assertThat(PhotoService.subsampling(300, 200)).isEqualTo(1);
+		// Keeps twice the largest variant on the short side
+		assertThat(PhotoService.subsampling(8000, 6000)).isEqualTo(11);
+		// A long strip is cut down to a few megapixels even though its short side is small
+		assertThat(PhotoService.subsampling(40000, 1000)).isEqualTo(4);
+
+		String sha256 = service.store(new ByteArrayInputStream(png(3000, 2000)));
+		await().atMost(Duration.ofSeconds(10)).until(() -> service.find(sha256, 256).variant());
+		BufferedImage image = ImageIO.read(service.find(sha256, 256).file().toFile());
+		assertThat(image.getWidth()).isEqualTo(256);
+	}
+
+	@Test
+	void centreCropKeepsTheMiddleOfWidePhotos() {
+		// Red bands on the left and right, blue in the middle
+		BufferedImage wide = new BufferedImage(300, 100, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = wide.createGraphics();
+		graphics.setColor(Color.RED);
+		graphics.fillRect(0, 0, 300, 100);
+		graphics.setColor(Color.BLUE);
+		graphics.fillRect(100, 0, 100, 100);
+		graphics.dispose();
+
+		BufferedImage square = PhotoService.square(wide, 64);
+
+		assertThat(square.getWidth()).isEqualTo(64);
+		assertThat(square.getHeight()).isEqualTo(64);
+		assertThat(new Color(square.getRGB(2, 32))).isEqualTo(Color.BLUE);
+		assertThat(new Color(square.getRGB(61, 32))).isEqualTo(Color.BLUE);
+	}
+
+	private static byte[] png(int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.ORANGE);
+		graphics.fillOval(0, 0, width, height);
+		graphics.dispose();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+}
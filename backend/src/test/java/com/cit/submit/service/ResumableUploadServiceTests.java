@@ -0,0 +1,213 @@
+package com.cit.submit.service;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.dto.SubmissionResponse;
+import com.cit.submit.dto.UploadSessionRequest;
+import com.cit.submit.dto.UploadSessionStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@JpaTest
+@TestPropertySource(properties = "app.uploads.chunk-size=64KB")
+@Sql("classpath:db/migration/V11__upload_sessions.sql")
+@Import({ResumableUploadService.class, SubmissionService.class, ContentStore.class, ResumableUploadServiceTests.Metrics.class})
+class ResumableUploadServiceTests {
+
+	private static final int CHUNK = 64 * 1024;
+
+	private static Path root;
+
+	@DynamicPropertySource
+	static void storageRoot(DynamicPropertyRegistry registry) throws Exception {
+		root = Files.createTempDirectory("uploads-test");
+		registry.add("app.storage.root", root::toString);
+	}
+
+	@Autowired
+	private ResumableUploadService uploads;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@MockitoSpyBean
+	private SubmissionService submissionService;
+
+	@Test
+	void chunksArriveOutOfOrderAndAssembleIntoOneSubmission() throws Exception {
+		byte[] data = randomBytes(3 * CHUNK + 100);
+		UploadSessionStatus session = uploads.start(7L, 42L, request("report.pdf", data, sha256(data)));
+		assertThat(session.getTotalChunks()).isEqualTo(4);
+		assertThat(session.getChunkSize()).isEqualTo(CHUNK);
+
+		sendChunk(7L, session, 3, data);
+		sendChunk(7L, session, 1, data);
+		sendChunk(7L, session, 1, data); // a retry is recorded once
+		assertThat(uploads.getStatus(7L, session.getUploadId()).getReceivedChunks()).containsExactly(1, 3);
+		assertThatThrownBy(() -> uploads.complete(7L, session.getUploadId())).hasMessageContaining("missing 2 of 4");
+		// Sessions are private to their owner
+		assertThatThrownBy(() -> uploads.getStatus(8L, session.getUploadId())).hasMessageContaining("not found");
+
+		sendChunk(7L, session, 0, data);
+		sendChunk(7L, session, 2, data);
+		SubmissionResponse submission = uploads.complete(7L, session.getUploadId());
+
+		assertThat(submission.getDeliverableId()).isEqualTo(42L);
+		assertThat(submission.getFileName()).isEqualTo("report.pdf");
+		assertThat(submission.getSizeBytes()).isEqualTo(data.length);
+		assertThat(submission.getSha256()).isEqualTo(sha256(data));
+		Path stored = root.resolve(sha256(data).substring(0, 2)).resolve(sha256(data).substring(2, 4)).resolve(sha256(data));
+		assertThat(Files.readAllBytes(stored)).isEqualTo(data);
+		assertThat(Files.exists(root.resolve("uploads").resolve(session.getUploadId()))).isFalse();
+		assertThatThrownBy(() -> uploads.complete(7L, session.getUploadId())).hasMessageContaining("not found");
+	}
+
+	@Test
+	void rejectsWrongLengthsAndAFileThatDoesNotMatchItsHash() throws Exception {
+		byte[] data = randomBytes(CHUNK + 10);
+		UploadSessionStatus session = uploads.start(7L, 42L, request("notes.txt", data, sha256(data)));
+
+		assertThatThrownBy(() -> uploads.writeChunk(7L, session.getUploadId(), 0, new ByteArrayInputStream(data)))
+				.isInstanceOf(UploadTooLargeException.class);
+		assertThatThrownBy(() -> uploads.writeChunk(7L, session.getUploadId(), 1, new ByteArrayInputStream(new byte[3])))
+				.hasMessageContaining("ended after 3 of 10 bytes");
+		assertThatThrownBy(() -> uploads.writeChunk(7L, session.getUploadId(), 2, new ByteArrayInputStream(new byte[3])))
+				.hasMessageContaining("between 0 and 1");
+		assertThat(uploads.getStatus(7L, session.getUploadId()).getReceivedChunks()).isEmpty();
+
+		// A chunk corrupted on the way is only noticed once the whole file is hashed
+		uploads.writeChunk(7L, session.getUploadId(), 0, new ByteArrayInputStream(new byte[CHUNK]));
+		sendChunk(7L, session, 1, data);
+		assertThatThrownBy(() -> uploads.complete(7L, session.getUploadId())).hasMessageContaining("does not match");
+
+		// The session survives with every chunk to send again
+		assertThat(uploads.getStatus(7L, session.getUploadId()).getReceivedChunks()).isEmpty();
+		assertThat(Files.exists(root.resolve("uploads").resolve(session.getUploadId()))).isTrue();
+		sendChunk(7L, session, 0, data);
+		sendChunk(7L, session, 1, data);
+		SubmissionResponse submission = uploads.complete(7L, session.getUploadId());
+		assertThat(submission.getSha256()).isEqualTo(sha256(data));
+		assertThat(Files.exists(root.resolve("uploads").resolve(session.getUploadId()))).isFalse();
+	}
+
+	@Test
+	void aSessionBeingCompletedTakesNoMoreChunks() throws Exception {
+		byte[] data = randomBytes(2 * CHUNK);
+		UploadSessionStatus session = uploads.start(7L, 42L, request("slides.pdf", data, sha256(data)));
+		sendChunk(7L, session, 0, data);
+		sendChunk(7L, session, 1, data);
+
+		// Another request has started completing it
+		jdbcTemplate.update("UPDATE upload_sessions SET completing = TRUE WHERE id = ?", session.getUploadId());
+		entityManager.clear();
+
+		assertThatThrownBy(() -> sendChunk(7L, session, 1, randomBytes(2 * CHUNK))).hasMessageContaining("being completed");
+		assertThatThrownBy(() -> uploads.cancel(7L, session.getUploadId())).hasMessageContaining("being completed");
+		assertThatThrownBy(() -> uploads.complete(7L, session.getUploadId())).hasMessageContaining("already being completed");
+	}
+
+	@Test
+	void aSubmissionThatFailsToSaveKeepsTheSession() throws Exception {
+		byte[] data = randomBytes(CHUNK + 1);
+		UploadSessionStatus session = uploads.start(7L, 42L, request("draft.pdf", data, sha256(data)));
+		sendChunk(7L, session, 0, data);
+		sendChunk(7L, session, 1, data);
+
+		doThrow(new DataIntegrityViolationException("insert failed"))
+				.when(submissionService).record(any(), any(), any(), any(), any());
+		assertThatThrownBy(() -> uploads.complete(7L, session.getUploadId())).hasMessageContaining("insert failed");
+
+		assertThat(uploads.getStatus(7L, session.getUploadId()).getReceivedChunks()).containsExactly(0, 1);
+		assertThat(Files.exists(root.resolve("uploads").resolve(session.getUploadId()))).isTrue();
+
+		reset(submissionService);
+		assertThat(uploads.complete(7L, session.getUploadId()).getSha256()).isEqualTo(sha256(data));
+	}
+
+	@Test
+	void sweepRemovesAbandonedSessionsAndTheirFiles() throws Exception {
+		byte[] data = randomBytes(2 * CHUNK);
+		UploadSessionStatus abandoned = uploads.start(9L, 42L, request("old.zip", data, sha256(data)));
+		sendChunk(9L, abandoned, 0, data);
+		UploadSessionStatus active = uploads.start(9L, 42L, request("new.zip", data, sha256(data)));
+
+		// The first session started two days ago and its only chunk arrived then too
+		LocalDateTime twoDaysAgo = LocalDateTime.now().minusDays(2);
+		jdbcTemplate.update("UPDATE upload_sessions SET created_at = ? WHERE id = ?", twoDaysAgo, abandoned.getUploadId());
+		jdbcTemplate.update("UPDATE upload_chunks SET received_at = ? WHERE upload_id = ?", twoDaysAgo, abandoned.getUploadId());
+		Files.setLastModifiedTime(root.resolve("uploads").resolve(abandoned.getUploadId()),
+				FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+		assertThat(uploads.sweep()).isEqualTo(1);
+
+		assertThatThrownBy(() -> uploads.getStatus(9L, abandoned.getUploadId())).hasMessageContaining("not found");
+		assertThat(uploads.getStatus(9L, active.getUploadId()).getTotalChunks()).isEqualTo(2);
+		try (Stream<Path> files = Files.list(root.resolve("uploads"))) {
+			assertThat(files.map(file -> file.getFileName().toString())).containsExactly(active.getUploadId());
+		}
+	}
+
+	private void sendChunk(Long userId, UploadSessionStatus session, int index, byte[] data) throws Exception {
+		int from = index * session.getChunkSize();
+		byte[] chunk = Arrays.copyOfRange(data, from, Math.min(from + session.getChunkSize(), data.length));
+		uploads.writeChunk(userId, session.getUploadId(), index, new ByteArrayInputStream(chunk));
+	}
+
+	private static UploadSessionRequest request(String fileName, byte[] data, String sha256) {
+		String type = fileName.endsWith(".pdf") ? "application/pdf" : fileName.endsWith(".zip") ? "application/zip" : "text/plain";
+		return new UploadSessionRequest(fileName, type, (long) data.length, sha256);
+	}
+
+	private static String sha256(byte[] data) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+	}
+
+	private static byte[] randomBytes(int size) {
+		byte[] data = new byte[size];
+		new Random(size).nextBytes(data);
+		return data;
+	}
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.cit.submit.service;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.dto.RosterImportStatus;
+import com.cit.submit.model.User;
+import com.cit.submit.repository.AuditLogRepository;
+import com.cit.submit.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Imports commit on their own thread, so the tests run outside a test transaction
+@JpaTest
+@TestPropertySource(properties = {"app.import.chunk-size=2", "app.import.max-upload-size=1KB"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(RosterImportService.class)
+class RosterImportServiceTests {
+
+	@Autowired
+	private RosterImportService rosterImportService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private AuditLogRepository auditLogRepository;
+
+	@MockitoBean
+	private TeamRosterService teamRosterService;
+
+	@MockitoBean
+	private EmailValidationService emailValidationService;
+
+	@BeforeEach
+	void setUp() {
+		when(emailValidationService.isValidInstitutionalEmail(anyString()))
+				.thenAnswer(invocation -> invocation.<String>getArgument(0).contains("@"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		auditLogRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void importsInChunksAndSkipsDuplicatesWhateverTheirCase() throws Exception {
+		userRepository.save(user("Existing@CIT.edu").accountStatus("ACTIVE").build());
+		userRepository.save(user("old@cit.edu").studentId("S-1").accountStatus("ACTIVE").build());
+
+		String roster = """
+				Email,Name,Student ID
+				ana@cit.edu,Ana,S-2
+				existing@cit.edu,Existing Again,
+				Ben@CIT.edu,Ben,S-3
+				ANA@cit.edu,Ana Again,
+				dan@cit.edu,Dan,S-4
+				Dan@Cit.edu,Dan Twice,S-5
+				cara@cit.edu,Cara,S-1
+				not-an-email,Nobody,
+				""";
+		RosterImportStatus status = await(rosterImportService.startImport(csv(roster), 1L));
+
+		assertThat(status.getStatus()).isEqualTo("COMPLETED");
+		assertThat(status.getProcessed()).isEqualTo(8);
+		assertThat(status.getCreated()).isEqualTo(3);
+		assertThat(status.getSkipped()).isEqualTo(4);
+		assertThat(status.getFailed()).isEqualTo(1);
+		assertThat(status.getErrors()).containsExactlyInAnyOrder(
+				"Line 9: invalid institutional email",
+				"Line 3: existing@cit.edu already exists",
+				"Line 5: ana@cit.edu already exists",
+				"Line 7: dan@cit.edu already exists",
+				"Line 8: student ID S-1 already exists");
+
+		assertThat(userRepository.findAll()).extracting(User::getEmail)
+				.containsExactlyInAnyOrder("Existing@CIT.edu", "old@cit.edu", "ana@cit.edu", "ben@cit.edu", "dan@cit.edu");
+		assertThat(auditLogRepository.count()).isEqualTo(3);
+		// Seven valid rows in chunks of two
+		verify(teamRosterService, times(4)).recordChanges(any(), any());
+	}
+
+	@Test
+	void rosterOverTheSizeLimitIsRefused() {
+		StringBuilder roster = new StringBuilder("email,name\n");
+		for (int i = 0; roster.length() <= 1024; i++) {
+			roster.append("student").append(i).append("@cit.edu,Student ").append(i).append('\n');
+		}
+
+		assertThatThrownBy(() -> rosterImportService.startImport(csv(roster.toString()), 1L))
+				.isInstanceOf(UploadTooLargeException.class)
+				.hasMessageContaining("limit");
+		assertThat(userRepository.count()).isZero();
+	}
+
+	private RosterImportStatus await(RosterImportStatus started) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		RosterImportStatus status = started;
+		while (!status.getStatus().equals("COMPLETED") && !status.getStatus().equals("FAILED")) {
+			assertThat(System.nanoTime()).as("import finished in time").isLessThan(deadline);
+			Thread.sleep(20);
+			status = rosterImportService.getStatus(started.getJobId());
+		}
+		return status;
+	}
+
+	private static ByteArrayInputStream csv(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,80 @@
+package com.cit.submit.service;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.dto.TeamSummary;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import com.cit.submit.service.TeamRosterService.Membership;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@JpaTest
+@Sql("classpath:db/migration/V9__team_member_counts.sql")
+@Import(TeamRosterService.class)
+class TeamRosterServiceTests {
+
+	@Autowired
+	private TeamRosterService teamRosterService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void countsFollowEachChangeToTeamRoleAndStatus() throws Exception {
+		User ana = teamRosterService.saveUser(user("ana@cit.edu").name("Ana").teamCode("T-01").accountStatus("ACTIVE").build(), null);
+		User ben = teamRosterService.saveUser(user("ben@cit.edu").name("Ben").teamCode("T-01").accountStatus("PENDING").build(), null);
+		teamRosterService.saveUser(user("carl@cit.edu").name("Carl").role(UserRole.MANAGER).teamCode("T-01").accountStatus("ACTIVE").build(), null);
+		teamRosterService.saveUser(user("dee@cit.edu").name("Dee").accountStatus("ACTIVE").build(), null);
+
+		// Ben moves team, Ana is deactivated
+		Membership before = Membership.of(ben);
+		ben.setTeamCode("T-02");
+		teamRosterService.saveUser(ben, before);
+		teamRosterService.recordChange(Membership.of(ana), Membership.of(ana).withStatus("DEACTIVATED"));
+		ana.setActive(false);
+		ana.setAccountStatus("DEACTIVATED");
+		entityManager.flush();
+
+		TeamSummary team = teamRosterService.getTeam("T-01");
+		assertThat(team.getMemberCount()).isEqualTo(2);
+		assertThat(team.getByRole()).isEqualTo(Map.of("MEMBER", 1L, "MANAGER", 1L));
+		assertThat(team.getByStatus()).isEqualTo(Map.of("ACTIVE", 1L, "DEACTIVATED", 1L));
+		assertThat(team.getActiveMembers()).extracting("name").containsExactly("Carl");
+
+		assertThat(teamRosterService.getTeams()).extracting(TeamSummary::getTeamCode, TeamSummary::getMemberCount)
+				.containsExactly(tuple("T-01", 2L), tuple("T-02", 1L));
+		assertThatThrownBy(() -> teamRosterService.getTeam("T-99")).hasMessage("Team not found");
+	}
+
+	@Test
+	void rebuildRecountsFromUsers() {
+		teamRosterService.saveUser(user("ana@cit.edu").name("Ana").teamCode("T-01").accountStatus("ACTIVE").build(), null);
+		// Written behind the service's back, so only a rebuild sees it
+		entityManager.persist(user("ben@cit.edu").name("Ben").teamCode("T-01").accountStatus("PENDING").build());
+		jdbcTemplate.update("INSERT INTO team_member_counts VALUES ('T-GONE', 'MEMBER', 'ACTIVE', 4)");
+		entityManager.flush();
+
+		assertThat(teamRosterService.rebuild()).isEqualTo(2);
+
+		List<TeamSummary> teams = teamRosterService.getTeams();
+		assertThat(teams).singleElement().satisfies(team -> {
+			assertThat(team.getTeamCode()).isEqualTo("T-01");
+			assertThat(team.getByStatus()).isEqualTo(Map.of("ACTIVE", 1L, "PENDING", 1L));
+		});
+	}
+}
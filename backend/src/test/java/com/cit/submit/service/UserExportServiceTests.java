@@ -0,0 +1,81 @@
+package com.cit.submit.service;
+
+import com.cit.submit.JpaTest;
+import com.cit.submit.model.User;
+import com.cit.submit.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.cit.submit.TestUsers.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A fetch size of one makes the export span several round trips of the cursor
+@JpaTest
+@TestPropertySource(properties = "app.export.fetch-size=1")
+@Import(UserExportService.class)
+class UserExportServiceTests {
+
+	@Autowired
+	private UserExportService userExportService;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Test
+	void ndjsonHasOneObjectPerUserInIdOrder() throws Exception {
+		User ana = entityManager.persist(user("ana@cit.edu").name("Ana").teamCode("T-01").build());
+		User ben = entityManager.persist(user("ben@cit.edu").name("Ben").role(UserRole.MANAGER).active(false).build());
+		entityManager.flush();
+
+		List<String> lines = export(UserExportService.Format.NDJSON).lines().toList();
+
+		assertThat(lines).hasSize(2);
+		JsonMapper mapper = JsonMapper.builder().build();
+		JsonNode first = mapper.readTree(lines.get(0));
+		assertThat(first.get("id").asLong()).isEqualTo(ana.getId());
+		assertThat(first.get("email").asString()).isEqualTo("ana@cit.edu");
+		assertThat(first.get("teamCode").asString()).isEqualTo("T-01");
+		assertThat(first.get("active").asBoolean()).isTrue();
+		assertThat(first.get("createdAt").asString()).isNotBlank();
+		JsonNode second = mapper.readTree(lines.get(1));
+		assertThat(second.get("id").asLong()).isEqualTo(ben.getId());
+		assertThat(second.get("role").asString()).isEqualTo("MANAGER");
+		assertThat(second.get("active").asBoolean()).isFalse();
+		assertThat(second.get("teamCode").isNull()).isTrue();
+	}
+
+	@Test
+	void csvQuotesSeparatorsAndDefusesFormulas() throws Exception {
+		entityManager.persist(user("ana@cit.edu").name("Lopez, Ana \"AJ\"").build());
+		entityManager.persist(user("ben@cit.edu").name("=HYPERLINK(\"http://evil\")").build());
+		entityManager.flush();
+
+		List<String> lines = export(UserExportService.Format.CSV).lines().toList();
+
+		assertThat(lines).hasSize(3);
+		assertThat(lines.get(0)).startsWith("id,name,email,role,");
+		assertThat(lines.get(1)).contains(",\"Lopez, Ana \"\"AJ\"\"\",ana@cit.edu,MEMBER,");
+		assertThat(lines.get(2)).contains(",\"'=HYPERLINK(\"\"http://evil\"\")\",ben@cit.edu,");
+	}
+
+	@Test
+	void emptyDirectoryExportsOnlyTheHeader() throws Exception {
+		assertThat(export(UserExportService.Format.NDJSON)).isBlank();
+		assertThat(export(UserExportService.Format.CSV).lines()).hasSize(1);
+	}
+
+	private String export(UserExportService.Format format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		userExportService.exportUsers(format, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
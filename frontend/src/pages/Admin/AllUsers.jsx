@@ -1,10 +1,10 @@
 import { useState, useEffect } from "react";
 import {
-  getAllUsers,
-  getArchivedUsers,
+  searchUsers,
+  getUserStats,
   deactivateUser,
   reactivateUser,
-  deleteUser,
+  avatarUrl,
 } from "../../services/userService";
 import ConfirmModal from "../../components/common/ConfirmModal";
 import DashboardLayout from "../../components/layout/DashboardLayout";
@@ -17,49 +17,55 @@ import "./AllUsers.css";
 
 const AllUsersPage = () => {
   const [users, setUsers] = useState([]);
-  const [filteredUsers, setFilteredUsers] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState("");
   const [success, setSuccess] = useState("");
   const [searchTerm, setSearchTerm] = useState("");
+  const [debouncedSearch, setDebouncedSearch] = useState("");
   const [filterRole, setFilterRole] = useState("ALL");
   const [actionLoading, setActionLoading] = useState(false);
-  const [showDeleteModal, setShowDeleteModal] = useState(false);
   const [showConfirmModal, setShowConfirmModal] = useState(false);
   const [selectedUser, setSelectedUser] = useState(null);
   const [confirmAction, setConfirmAction] = useState(null);
+  // cursors[i] fetches page i; the server pages by keyset, so going back reuses earlier cursors
+  const [cursors, setCursors] = useState([null]);
   const [currentPage, setCurrentPage] = useState(0);
-  const [totalPages, setTotalPages] = useState(0);
-  const [totalElements, setTotalElements] = useState(0);
+  const [nextCursor, setNextCursor] = useState(null);
   const [pageSize] = useState(20);
-  const [deactivatedCount, setDeactivatedCount] = useState(0);
-  const [allUsers, setAllUsers] = useState([]);
+  const [stats, setStats] = useState(null);
+
+  // Wait for typing to pause before asking the server
+  useEffect(() => {
+    const timer = setTimeout(() => {
+      const term = searchTerm.trim();
+      if (term !== debouncedSearch) {
+        setDebouncedSearch(term);
+        resetPaging();
+      }
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm, debouncedSearch]);
 
   useEffect(() => {
     fetchUsers();
-    fetchArchivedCount();
-    fetchAllUsersForCounts();
-  }, [filterRole]);
+  }, [filterRole, debouncedSearch, currentPage, cursors]);
 
   useEffect(() => {
-    filterUsers();
-  }, [users, searchTerm, filterRole]);
+    fetchCounts();
+  }, []);
+
+  const currentFilters = () => ({
+    role: filterRole !== "ALL" && filterRole !== "ARCHIVED" ? filterRole : null,
+    active: filterRole === "ARCHIVED" ? false : null,
+    search: debouncedSearch,
+  });
 
   const fetchUsers = async () => {
     try {
       setLoading(true);
-
-      let data;
-
-      if (filterRole === "ARCHIVED") {
-        data = await getArchivedUsers();
-        setUsers(data);
-      } else {
-        data = await getAllUsers(currentPage, pageSize);
-        setUsers(data.content);
-        setTotalPages(data.totalPages);
-        setTotalElements(data.totalElements);
-      }
+      const data = await searchUsers(currentFilters(), cursors[currentPage], pageSize);
+      setUsers(data.items);
+      setNextCursor(data.nextCursor);
     } catch {
       setError("Failed to load users");
     } finally {
@@ -67,52 +73,39 @@ const AllUsersPage = () => {
     }
   };
 
-  const fetchArchivedCount = async () => {
+  // Tab counts come from the server's stats snapshot, not from the loaded page
+  const fetchCounts = async () => {
     try {
-      const archivedUsers = await getArchivedUsers();
-      setDeactivatedCount(archivedUsers.length);
+      setStats(await getUserStats());
     } catch {
       // Silently fail, this is just for counting
     }
   };
 
-  const fetchAllUsersForCounts = async () => {
-    try {
-      // Fetch all users without pagination for accurate role counts
-      const data = await getAllUsers(0, 1000); // Fetch with large page size
-      setAllUsers(data.content);
-    } catch {
-      // Silently fail, this is just for counting
-    }
+  // A new filter starts again from the first page
+  const resetPaging = () => {
+    setCursors([null]);
+    setCurrentPage(0);
   };
 
-  const filterUsers = () => {
-    let filtered = users;
-
-    if (filterRole !== "ALL" && filterRole !== "ARCHIVED") {
-      filtered = filtered.filter((user) => user.role === filterRole);
-    }
-
-    if (searchTerm) {
-      filtered = filtered.filter(
-        (user) =>
-          user.name?.toLowerCase().includes(searchTerm.toLowerCase()) ||
-          user.email?.toLowerCase().includes(searchTerm.toLowerCase()) ||
-          user.studentId?.includes(searchTerm)
-      );
-    }
+  const applyRoleFilter = (value) => {
+    setFilterRole(value);
+    resetPaging();
+  };
 
-    setFilteredUsers(filtered);
+  const goToNextPage = () => {
+    setCursors((prev) => [...prev.slice(0, currentPage + 1), nextCursor]);
+    setCurrentPage((prev) => prev + 1);
   };
 
-  const handleDeactivateClick = (userId, userName) => {
-    setSelectedUser({ id: userId, name: userName });
+  const handleDeactivateClick = (userId, userName, version) => {
+    setSelectedUser({ id: userId, name: userName, version });
     setConfirmAction("deactivate");
     setShowConfirmModal(true);
   };
 
-  const handleReactivateClick = (userId, userName) => {
-    setSelectedUser({ id: userId, name: userName });
+  const handleReactivateClick = (userId, userName, version) => {
+    setSelectedUser({ id: userId, name: userName, version });
     setConfirmAction("reactivate");
     setShowConfirmModal(true);
   };
@@ -120,12 +113,13 @@ const AllUsersPage = () => {
   const confirmDeactivate = async () => {
     try {
       setActionLoading(true);
-      await deactivateUser(selectedUser.id);
+      await deactivateUser(selectedUser.id, selectedUser.version);
       setSuccess("User deactivated successfully");
       setShowConfirmModal(false);
       fetchUsers();
-    } catch {
-      setError("Failed to deactivate user");
+      fetchCounts();
+    } catch (err) {
+      setError(err.message || "Failed to deactivate user");
     } finally {
       setActionLoading(false);
       setTimeout(() => setSuccess(""), 3000);
@@ -135,33 +129,13 @@ const AllUsersPage = () => {
   const confirmReactivate = async () => {
     try {
       setActionLoading(true);
-      await reactivateUser(selectedUser.id);
+      await reactivateUser(selectedUser.id, selectedUser.version);
       setSuccess("User reactivated successfully");
       setShowConfirmModal(false);
       fetchUsers();
-    } catch {
-      setError("Failed to reactivate user");
-    } finally {
-      setActionLoading(false);
-      setTimeout(() => setSuccess(""), 3000);
-    }
-  };
-
-  const handleDeleteClick = (user) => {
-    setSelectedUser(user);
-    setShowDeleteModal(true);
-  };
-
-  const handleDeleteConfirm = async () => {
-    try {
-      setActionLoading(true);
-      await deleteUser(selectedUser.id);
-      setSuccess("User deleted successfully");
-      setShowDeleteModal(false);
-      setSelectedUser(null);
-      fetchUsers();
+      fetchCounts();
     } catch (err) {
-      setError(err.response?.data?.error || "Failed to delete user");
+      setError(err.message || "Failed to reactivate user");
     } finally {
       setActionLoading(false);
       setTimeout(() => setSuccess(""), 3000);
@@ -169,33 +143,11 @@ const AllUsersPage = () => {
   };
 
   const roleFilters = [
-    { label: "All Users", value: "ALL", count: totalElements },
-    {
-      label: "Members",
-      value: "MEMBER",
-      count: (filterRole === "ARCHIVED" ? allUsers : users).filter(
-        (u) => u.role === "MEMBER"
-      ).length,
-    },
-    {
-      label: "Managers",
-      value: "MANAGER",
-      count: (filterRole === "ARCHIVED" ? allUsers : users).filter(
-        (u) => u.role === "MANAGER"
-      ).length,
-    },
-    {
-      label: "Admins",
-      value: "ADMIN",
-      count: (filterRole === "ARCHIVED" ? allUsers : users).filter(
-        (u) => u.role === "ADMIN"
-      ).length,
-    },
-    {
-      label: "Archived",
-      value: "ARCHIVED",
-      count: deactivatedCount,
-    },
+    { label: "All Users", value: "ALL", count: stats?.totalUsers },
+    { label: "Members", value: "MEMBER", count: stats?.byRole?.MEMBER ?? 0 },
+    { label: "Managers", value: "MANAGER", count: stats?.byRole?.MANAGER ?? 0 },
+    { label: "Admins", value: "ADMIN", count: stats?.byRole?.ADMIN ?? 0 },
+    { label: "Archived", value: "ARCHIVED", count: stats?.byStatus?.DEACTIVATED ?? 0 },
   ];
 
   if (loading) {
@@ -256,17 +208,17 @@ const AllUsersPage = () => {
                   className={`filter-btn ${
                     filterRole === filter.value ? "active" : ""
                   }`}
-                  onClick={() => setFilterRole(filter.value)}
+                  onClick={() => applyRoleFilter(filter.value)}
                 >
                   {filter.label}
-                  <span className="filter-count">{filter.count}</span>
+                  {stats && <span className="filter-count">{filter.count}</span>}
                 </button>
               ))}
             </div>
           </div>
 
           {/* Pagination Controls */}
-          {!loading && filterRole !== "ARCHIVED" && totalPages > 1 && (
+          {(currentPage > 0 || nextCursor) && (
             <div className="pagination-controls">
               <button
                 onClick={() => setCurrentPage((prev) => Math.max(0, prev - 1))}
@@ -275,14 +227,10 @@ const AllUsersPage = () => {
               >
                 « Previous
               </button>
-              <span className="page-info">
-                Page {currentPage + 1} of {totalPages}
-              </span>
+              <span className="page-info">Page {currentPage + 1}</span>
               <button
-                onClick={() =>
-                  setCurrentPage((prev) => Math.min(totalPages - 1, prev + 1))
-                }
-                disabled={currentPage === totalPages - 1}
+                onClick={goToNextPage}
+                disabled={!nextCursor}
                 className="page-btn"
               >
                 Next »
@@ -292,15 +240,12 @@ const AllUsersPage = () => {
 
           {/* Results Count */}
           <div className="results-info">
-            Showing <strong>{filteredUsers.length}</strong> of{" "}
-            <strong>
-              {filterRole === "ARCHIVED" ? users.length : totalElements}
-            </strong>{" "}
-            users
+            Showing <strong>{users.length}</strong> users
+            {nextCursor && " (more on the next page)"}
           </div>
 
           {/* Users Table */}
-          {filteredUsers.length === 0 ? (
+          {users.length === 0 ? (
             <div className="empty-state">
               <div className="empty-icon">🔍</div>
               <h3>No Users Found</h3>
@@ -308,7 +253,7 @@ const AllUsersPage = () => {
               <button
                 onClick={() => {
                   setSearchTerm("");
-                  setFilterRole("ALL");
+                  applyRoleFilter("ALL");
                 }}
                 className="reset-btn"
               >
@@ -329,13 +274,13 @@ const AllUsersPage = () => {
                   </tr>
                 </thead>
                 <tbody>
-                  {filteredUsers.map((user) => (
+                  {users.map((user) => (
                     <tr key={user.id}>
                       <td>
                         <div className="user-cell">
                           <div className="user-avatar">
                             {user.pictureUrl ? (
-                              <img src={user.pictureUrl} alt={user.name} />
+                              <img src={avatarUrl(user.pictureUrl)} alt={user.name} loading="lazy" />
                             ) : (
                               <div className="avatar-placeholder">
                                 {user.name?.charAt(0)?.toUpperCase()}
@@ -360,7 +305,7 @@ const AllUsersPage = () => {
                         {user.accountStatus === "DEACTIVATED" ? (
                           <button
                             className="action-btn reactivate"
-                            onClick={() => handleReactivateClick(user.id, user.name)}
+                            onClick={() => handleReactivateClick(user.id, user.name, user.version)}
                             disabled={actionLoading}
                           >
                             ✓ Reactivate
@@ -368,19 +313,12 @@ const AllUsersPage = () => {
                         ) : (
                           <button
                             className="action-btn deactivate"
-                            onClick={() => handleDeactivateClick(user.id, user.name)}
+                            onClick={() => handleDeactivateClick(user.id, user.name, user.version)}
                             disabled={actionLoading}
                           >
                             ⊘ Deactivate
                           </button>
                         )}
-                        <button
-                          className="action-btn delete"
-                          onClick={() => handleDeleteClick(user)}
-                          disabled={actionLoading}
-                        >
-                          ✕ Delete
-                        </button>
                       </td>
                     </tr>
                   ))}
@@ -390,23 +328,6 @@ const AllUsersPage = () => {
           )}
         </div>
 
-        {showDeleteModal && selectedUser && (
-          <ConfirmModal
-            isOpen={showDeleteModal}
-            onClose={() => {
-              setShowDeleteModal(false);
-              setSelectedUser(null);
-            }}
-            onConfirm={handleDeleteConfirm}
-            title="Delete User Account"
-            message={`Are you sure you want to permanently delete ${selectedUser.name}'s account? This action cannot be undone.`}
-            confirmText="Delete Permanently"
-            cancelText="Cancel"
-            loading={actionLoading}
-            confirmVariant="danger"
-          />
-        )}
-
         {showConfirmModal && selectedUser && (
           <ConfirmModal
             isOpen={showConfirmModal}
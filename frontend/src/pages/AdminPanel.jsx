@@ -7,9 +7,11 @@ import { Alert } from '../components/Alert';
 import './AdminPanel.css';
 
 export const AdminPanel = () => {
-  const { user } = useAuth();
+  const { user, token } = useAuth();
   const [users, setUsers] = useState([]);
   const [auditLogs, setAuditLogs] = useState([]);
+  const [auditCursor, setAuditCursor] = useState(null);
+  const [auditAction, setAuditAction] = useState('');
   const [activeTab, setActiveTab] = useState('users');
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
@@ -30,24 +32,29 @@ export const AdminPanel = () => {
       return;
     }
     fetchUsers();
-    fetchAuditLogs();
   }, [user]);
 
+  useEffect(() => {
+    if (user?.role === 'admin' && activeTab === 'audit') {
+      fetchAuditLogs();
+    }
+  }, [user, activeTab, auditAction]);
+
   const fetchUsers = async () => {
     try {
       setLoading(true);
       const response = await fetch(
-        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users`,
+        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users?page=0&size=100`,
         {
           headers: {
-            'X-User-Id': user.id,
+            Authorization: `Bearer ${token}`,
           },
         }
       );
 
       if (!response.ok) throw new Error('Failed to fetch users');
       const data = await response.json();
-      setUsers(data);
+      setUsers(data.content);
     } catch (err) {
       setError(err.message);
     } finally {
@@ -55,20 +62,26 @@ export const AdminPanel = () => {
     }
   };
 
-  const fetchAuditLogs = async () => {
+  // Audit logs are paged on the server; pass the previous cursor to append the next page
+  const fetchAuditLogs = async (cursor = null) => {
     try {
+      const params = new URLSearchParams({ limit: '50' });
+      if (auditAction) params.set('action', auditAction);
+      if (cursor) params.set('cursor', cursor);
+
       const response = await fetch(
-        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/audit-logs`,
+        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/audit-logs?${params}`,
         {
           headers: {
-            'X-User-Id': user.id,
+            Authorization: `Bearer ${token}`,
           },
         }
       );
 
       if (!response.ok) throw new Error('Failed to fetch audit logs');
       const data = await response.json();
-      setAuditLogs(data);
+      setAuditLogs((prev) => (cursor ? [...prev, ...data.items] : data.items));
+      setAuditCursor(data.nextCursor);
     } catch (err) {
       setError(err.message);
     }
@@ -90,7 +103,7 @@ export const AdminPanel = () => {
           method: 'POST',
           headers: {
             'Content-Type': 'application/json',
-            'X-User-Id': user.id,
+            Authorization: `Bearer ${token}`,
           },
           body: JSON.stringify(formData),
         }
@@ -110,18 +123,30 @@ export const AdminPanel = () => {
     }
   };
 
-  const handleChangeRole = async (userId, newRole) => {
+  // Edits carry the version the admin saw; the server answers 412 if someone changed the user since
+  const versionedHeaders = (u) => ({
+    Authorization: `Bearer ${token}`,
+    'If-Match': `"v${u.version}"`,
+  });
+
+  const checkVersionConflict = (response) => {
+    if (response.status === 412) {
+      fetchUsers();
+      throw new Error('This user was changed by someone else. The list has been refreshed, please try again.');
+    }
+  };
+
+  const handleChangeRole = async (u, newRole) => {
     try {
       const response = await fetch(
-        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users/${userId}/role?role=${newRole}`,
+        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users/${u.id}/role?roleStr=${newRole}`,
         {
           method: 'PUT',
-          headers: {
-            'X-User-Id': user.id,
-          },
+          headers: versionedHeaders(u),
         }
       );
 
+      checkVersionConflict(response);
       if (!response.ok) throw new Error('Failed to change role');
       setSuccess('Role updated successfully');
       fetchUsers();
@@ -131,20 +156,19 @@ export const AdminPanel = () => {
     }
   };
 
-  const handleDeactivateUser = async (userId) => {
+  const handleDeactivateUser = async (u) => {
     if (!confirm('Are you sure you want to deactivate this user?')) return;
 
     try {
       const response = await fetch(
-        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users/${userId}/deactivate`,
+        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users/${u.id}/deactivate`,
         {
           method: 'PUT',
-          headers: {
-            'X-User-Id': user.id,
-          },
+          headers: versionedHeaders(u),
         }
       );
 
+      checkVersionConflict(response);
       if (!response.ok) throw new Error('Failed to deactivate user');
       setSuccess('User deactivated successfully');
       fetchUsers();
@@ -154,18 +178,17 @@ export const AdminPanel = () => {
     }
   };
 
-  const handleReactivateUser = async (userId) => {
+  const handleReactivateUser = async (u) => {
     try {
       const response = await fetch(
-        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users/${userId}/reactivate`,
+        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/users/${u.id}/reactivate`,
         {
           method: 'PUT',
-          headers: {
-            'X-User-Id': user.id,
-          },
+          headers: versionedHeaders(u),
         }
       );
 
+      checkVersionConflict(response);
       if (!response.ok) throw new Error('Failed to reactivate user');
       setSuccess('User reactivated successfully');
       fetchUsers();
@@ -337,7 +360,7 @@ export const AdminPanel = () => {
                           <td>
                             <select
                               value={u.role}
-                              onChange={(e) => handleChangeRole(u.id, e.target.value)}
+                              onChange={(e) => handleChangeRole(u, e.target.value)}
                               className="role-select"
                             >
                               <option value="contributor">Contributor</option>
@@ -356,7 +379,7 @@ export const AdminPanel = () => {
                               <Button
                                 size="small"
                                 variant="danger"
-                                onClick={() => handleDeactivateUser(u.id)}
+                                onClick={() => handleDeactivateUser(u)}
                               >
                                 Deactivate
                               </Button>
@@ -364,7 +387,7 @@ export const AdminPanel = () => {
                               <Button
                                 size="small"
                                 variant="success"
-                                onClick={() => handleReactivateUser(u.id)}
+                                onClick={() => handleReactivateUser(u)}
                               >
                                 Reactivate
                               </Button>
@@ -381,7 +404,21 @@ export const AdminPanel = () => {
 
           {activeTab === 'audit' && (
             <div className="audit-section">
-              <h2>Audit Logs</h2>
+              <div className="section-header">
+                <h2>Audit Logs</h2>
+                <select
+                  value={auditAction}
+                  onChange={(e) => setAuditAction(e.target.value)}
+                  className="role-select"
+                >
+                  <option value="">All actions</option>
+                  <option value="CREATE">Create</option>
+                  <option value="UPDATE">Update</option>
+                  <option value="ROLE_CHANGE">Role change</option>
+                  <option value="DEACTIVATE">Deactivate</option>
+                  <option value="REACTIVATE">Reactivate</option>
+                </select>
+              </div>
               {auditLogs.length === 0 ? (
                 <div className="no-data">No audit logs found</div>
               ) : (
@@ -412,6 +449,11 @@ export const AdminPanel = () => {
                       </div>
                     </div>
                   ))}
+                  {auditCursor && (
+                    <Button variant="secondary" onClick={() => fetchAuditLogs(auditCursor)}>
+                      Load more
+                    </Button>
+                  )}
                 </div>
               )}
             </div>
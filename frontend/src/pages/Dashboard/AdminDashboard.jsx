@@ -1,4 +1,4 @@
-import { useState } from 'react';
+import { useState, useEffect } from 'react';
 import DashboardLayout from './DashboardLayout';
 import { Card, CardBody } from '../../components/Card';
 import { Button } from '../../components/Button';
@@ -10,64 +10,70 @@ import { useAuth } from '../../context/AuthContext';
 import './Dashboard.css';
 
 const AdminDashboard = () => {
-  const { user } = useAuth();
+  const { user, token } = useAuth();
   const [showAddUser, setShowAddUser] = useState(false);
+  const [stats, setStats] = useState(null);
 
-  const users = [
-    { id: 1, name: 'John Doe', email: 'john@example.com', role: 'MEMBER', status: 'active', joinDate: '2025-01-01' },
-    { id: 2, name: 'Jane Smith', email: 'jane@example.com', role: 'MANAGER', status: 'active', joinDate: '2025-01-02' },
-    { id: 3, name: 'Admin User', email: 'admin@example.com', role: 'ADMIN', status: 'active', joinDate: '2024-12-01' },
-    { id: 4, name: 'Bob Johnson', email: 'bob@example.com', role: 'MEMBER', status: 'inactive', joinDate: '2025-01-03' },
-  ];
+  // One cached aggregate instead of downloading every user and audit entry
+  useEffect(() => {
+    const fetchStats = async () => {
+      try {
+        const response = await fetch(
+          `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/admin/stats`,
+          { headers: { Authorization: `Bearer ${token}` } }
+        );
+        if (response.ok) setStats(await response.json());
+      } catch {
+        // The cards show dashes if the server is unreachable
+      }
+    };
+    if (token) fetchStats();
+  }, [token]);
+
+  const count = (value) => (stats ? value.toLocaleString() : '–');
+  const recentSignUps = (stats?.signUpsPerDay || []).reduce((sum, day) => sum + day.count, 0);
 
   const systemStats = [
-    { id: 1, name: 'Total Users', value: '150', icon: '👥' },
-    { id: 2, name: 'Active Sessions', value: '45', icon: '🔗' },
-    { id: 3, name: 'Total Submissions', value: '2,450', icon: '📤' },
-    { id: 4, name: 'System Uptime', value: '99.9%', icon: '⚡' },
+    { id: 1, name: 'Total Users', value: count(stats?.totalUsers ?? 0), icon: '👥' },
+    { id: 2, name: 'Active Accounts', value: count(stats?.byStatus?.ACTIVE ?? 0), icon: '✅' },
+    { id: 3, name: 'Pending Accounts', value: count(stats?.byStatus?.PENDING ?? 0), icon: '⏳' },
+    { id: 4, name: `Sign-ups (${stats?.signUpsPerDay?.length ?? 0} days)`, value: count(recentSignUps), icon: '📈' },
   ];
 
-  const activityLog = [
-    { id: 1, action: 'User Registration', user: 'New User', timestamp: '5 mins ago', type: 'success' },
-    { id: 2, action: 'Project Created', user: 'Project Manager', timestamp: '2 hours ago', type: 'success' },
-    { id: 3, action: 'Submission Uploaded', user: 'John Doe', timestamp: '3 hours ago', type: 'success' },
-    { id: 4, action: 'User Deactivated', user: 'Bob Johnson', timestamp: '1 day ago', type: 'warning' },
-  ];
+  const users = Object.entries(stats?.byRole || {}).map(([role, total]) => ({ id: role, role, total }));
+
+  const activityLog = (stats?.recentActions || []).map((entry) => ({
+    id: entry.id,
+    action: entry.action,
+    user: entry.targetUserEmail,
+    admin: entry.adminName,
+    timestamp: entry.timestamp ? new Date(entry.timestamp).toLocaleString() : '',
+    type: entry.action === 'DEACTIVATE' ? 'warning' : 'success',
+  }));
 
   const userColumns = [
-    { key: 'name', label: 'Name', width: '20%' },
-    { key: 'email', label: 'Email', width: '25%' },
     {
       key: 'role',
       label: 'Role',
-      width: '15%',
+      width: '50%',
       render: (role) => (
         <Badge variant={role === 'ADMIN' ? 'danger' : role === 'MANAGER' ? 'warning' : 'info'}>
           {role}
         </Badge>
       ),
     },
-    {
-      key: 'status',
-      label: 'Status',
-      width: '15%',
-      render: (status) => (
-        <Badge variant={status === 'active' ? 'success' : 'default'}>
-          {status}
-        </Badge>
-      ),
-    },
-    { key: 'joinDate', label: 'Join Date', width: '20%' },
+    { key: 'total', label: 'Users', width: '50%' },
   ];
 
   const activityColumns = [
-    { key: 'action', label: 'Action', width: '25%' },
+    { key: 'action', label: 'Action', width: '20%' },
     { key: 'user', label: 'User', width: '25%' },
-    { key: 'timestamp', label: 'Time', width: '25%' },
+    { key: 'admin', label: 'By', width: '20%' },
+    { key: 'timestamp', label: 'Time', width: '20%' },
     {
       key: 'type',
       label: 'Type',
-      width: '25%',
+      width: '15%',
       render: (type) => (
         <Badge variant={type === 'success' ? 'success' : type === 'warning' ? 'warning' : 'info'}>
           {type}
@@ -108,7 +114,7 @@ const AdminDashboard = () => {
 
         {/* Users Management */}
         <div className="dashboard-section">
-          <h2>👥 User Management</h2>
+          <h2>👥 Users by Role</h2>
           <Table columns={userColumns} data={users} />
         </div>
 
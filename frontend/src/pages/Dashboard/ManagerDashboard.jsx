@@ -1,4 +1,4 @@
-import { useState } from 'react';
+import { useState, useEffect } from 'react';
 import DashboardLayout from './DashboardLayout';
 import { Card, CardBody } from '../../components/Card';
 import { Button } from '../../components/Button';
@@ -10,7 +10,8 @@ import { useAuth } from '../../context/AuthContext';
 import './Dashboard.css';
 
 const ManagerDashboard = () => {
-  const { user } = useAuth();
+  const { user, token } = useAuth();
+  const [teams, setTeams] = useState([]);
   const [showCreateAssignment, setShowCreateAssignment] = useState(false);
   const [assignments, setAssignments] = useState([
     {
@@ -39,11 +40,30 @@ const ManagerDashboard = () => {
     },
   ]);
 
-  const students = [
-    { id: 1, name: 'John Doe', email: 'john@example.com', submissions: 25, avgGrade: 'Excellent' },
-    { id: 2, name: 'Jane Smith', email: 'jane@example.com', submissions: 28, avgGrade: 'Outstanding' },
-    { id: 3, name: 'Bob Johnson', email: 'bob@example.com', submissions: 20, avgGrade: 'Good' },
-  ];
+  // Team sizes come from the server's running counts, not from listing every user
+  useEffect(() => {
+    const fetchTeams = async () => {
+      try {
+        const response = await fetch(
+          `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/teams`,
+          { headers: { Authorization: `Bearer ${token}` } }
+        );
+        if (response.ok) setTeams(await response.json());
+      } catch {
+        // The overview stays empty if the server is unreachable
+      }
+    };
+    if (token) fetchTeams();
+  }, [token]);
+
+  const teamRows = teams.map((team) => ({
+    id: team.teamCode,
+    teamCode: team.teamCode,
+    members: team.memberCount,
+    active: team.byStatus?.ACTIVE || 0,
+    pending: team.byStatus?.PENDING || 0,
+  }));
+  const totalMembers = teams.reduce((sum, team) => sum + team.memberCount, 0);
 
   const assignmentColumns = [
     { key: 'title', label: 'Deliverable', width: '30%' },
@@ -62,11 +82,11 @@ const ManagerDashboard = () => {
     },
   ];
 
-  const studentColumns = [
-    { key: 'name', label: 'Name', width: '25%' },
-    { key: 'email', label: 'Email', width: '35%' },
-    { key: 'submissions', label: 'Submissions', width: '20%' },
-    { key: 'avgGrade', label: 'Avg Grade', width: '20%' },
+  const teamColumns = [
+    { key: 'teamCode', label: 'Team', width: '40%' },
+    { key: 'members', label: 'Members', width: '20%' },
+    { key: 'active', label: 'Active', width: '20%' },
+    { key: 'pending', label: 'Pending', width: '20%' },
   ];
 
   return (
@@ -92,7 +112,7 @@ const ManagerDashboard = () => {
           </Card>
           <Card>
             <CardBody className="stat-card">
-              <div className="stat-value">30</div>
+              <div className="stat-value">{totalMembers}</div>
               <div className="stat-label">Team Members</div>
             </CardBody>
           </Card>
@@ -123,7 +143,7 @@ const ManagerDashboard = () => {
         {/* Students Overview */}
         <div className="dashboard-section">
           <h2>👥 Team Overview</h2>
-          <Table columns={studentColumns} data={students} />
+          <Table columns={teamColumns} data={teamRows} />
         </div>
 
         {/* Create Assignment Modal */}
@@ -1,6 +1,7 @@
 import { useAuth } from '../../context/AuthContext';
 import { useNavigate } from 'react-router-dom';
 import { Button } from '../../components/Button';
+import { avatarUrl } from '../../services/userService';
 import './Sidebar.css';
 
 const Sidebar = ({ role }) => {
@@ -66,7 +67,7 @@ const Sidebar = ({ role }) => {
           <div className="profile-card">
             <div className="profile-picture">
               {user.pictureUrl ? (
-                <img src={user.pictureUrl} alt={user.name} />
+                <img src={avatarUrl(user.pictureUrl)} alt={user.name} />
               ) : (
                 <div className="profile-placeholder">👤</div>
               )}
@@ -1,8 +1,11 @@
 import { useState } from 'react';
 import { useNavigate, useLocation, useParams } from 'react-router-dom';
 import { DashboardLayout } from '../../components/Layout';
+import { submitFile, submitFileResumable } from '../../services/uploadService';
 import './DeliverableSubmit.css';
 
+const RESUMABLE_THRESHOLD = 5 * 1024 * 1024; // 5MB
+
 export const DeliverableSubmitPage = () => {
   const { id } = useParams();
   const navigate = useNavigate();
@@ -12,6 +15,7 @@ export const DeliverableSubmitPage = () => {
   const [file, setFile] = useState(null);
   const [fileName, setFileName] = useState('');
   const [loading, setLoading] = useState(false);
+  const [progress, setProgress] = useState(0);
   const [error, setError] = useState('');
   const [success, setSuccess] = useState('');
   const [dragActive, setDragActive] = useState(false);
@@ -88,15 +92,15 @@ export const DeliverableSubmitPage = () => {
 
     try {
       setLoading(true);
+      setProgress(0);
       setError('');
       
-      // Mock submission - in real app, this would upload to backend
-      const formData = new FormData();
-      formData.append('deliverableId', id);
-      formData.append('file', file);
-
-      // Simulate API call
-      await new Promise(resolve => setTimeout(resolve, 2000));
+      // Larger files go up in resumable chunks so a dropped connection does not start over
+      if (file.size > RESUMABLE_THRESHOLD) {
+        await submitFileResumable(id, file, setProgress);
+      } else {
+        await submitFile(id, file);
+      }
 
       setSuccess('✅ File submitted successfully!');
       setFile(null);
@@ -107,7 +111,7 @@ export const DeliverableSubmitPage = () => {
         navigate('/member/deliverables');
       }, 2000);
     } catch (err) {
-      setError('Failed to submit file. Please try again.');
+      setError(err.message || 'Failed to submit file. Please try again.');
       console.error(err);
     } finally {
       setLoading(false);
@@ -229,7 +233,9 @@ export const DeliverableSubmitPage = () => {
                     className="submit-btn"
                     disabled={!file || loading}
                   >
-                    {loading ? '⏳ Submitting...' : '✓ Submit'}
+                    {loading
+                      ? `⏳ Submitting...${progress > 0 ? ` ${Math.round(progress * 100)}%` : ''}`
+                      : '✓ Submit'}
                   </button>
                 </form>
               </div>
@@ -3,6 +3,7 @@ import { useAuth } from '../../context/AuthContext';
 import { Button } from '../../components/Button';
 import { Input } from '../../components/Input';
 import { Alert } from '../../components/Alert';
+import { uploadProfilePhoto } from '../../services/userService';
 import '../Profile.css';
 
 const ManagerProfile = ({ userId }) => {
@@ -54,7 +55,7 @@ const ManagerProfile = ({ userId }) => {
         team: data.team || '',
         phone: data.phone || '',
       });
-      setAvatarPreview(data.photoUrl || null);
+      setAvatarPreview(data.pictureUrl || null);
     } catch (err) {
       setError('Failed to load profile');
       console.error(err);
@@ -82,21 +83,9 @@ const ManagerProfile = ({ userId }) => {
     setUploading(true);
 
     try {
-      const formDataObj = new FormData();
-      formDataObj.append('photo', selectedFile);
-
-      const response = await fetch(
-        `${import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080'}/api/users/${userId}/photo`,
-        {
-          method: 'PUT',
-          body: formDataObj,
-        }
-      );
-
-      if (!response.ok) throw new Error('Failed to upload photo');
-
-      const updatedProfile = await response.json();
+      const updatedProfile = await uploadProfilePhoto(userId, selectedFile);
       updateUser(updatedProfile);
+      setAvatarPreview(updatedProfile.pictureUrl || null);
       setSuccess('Profile photo updated successfully!');
       setSelectedFile(null);
     } catch (err) {
@@ -0,0 +1,119 @@
+// Deliverable upload API
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080';
+
+const PARALLEL_CHUNKS = 3;
+const MAX_ATTEMPTS = 5;
+
+const authHeaders = () => ({
+  Authorization: `Bearer ${localStorage.getItem('authToken')}`,
+});
+
+const request = async (path, options = {}) => {
+  const response = await fetch(`${API_BASE_URL}${path}`, {
+    ...options,
+    headers: { ...authHeaders(), ...options.headers },
+  });
+  const data = await response.json().catch(() => null);
+  if (!response.ok) {
+    const error = new Error(data?.error || `Request failed (${response.status})`);
+    error.status = response.status;
+    throw error;
+  }
+  return data;
+};
+
+const sleep = (ms) => new Promise((resolve) => setTimeout(resolve, ms));
+
+const sha256Hex = async (file) => {
+  const digest = await crypto.subtle.digest('SHA-256', await file.arrayBuffer());
+  return Array.from(new Uint8Array(digest), (b) => b.toString(16).padStart(2, '0')).join('');
+};
+
+// Remembers the session per file, so a reload or a dropped connection resumes it
+const sessionKey = (deliverableId, file) =>
+  `upload:${deliverableId}:${file.name}:${file.size}:${file.lastModified}`;
+
+/**
+ * Sends a file in one request; fine for small files on a good connection.
+ * @returns {Promise<object>} the created submission
+ */
+export const submitFile = (deliverableId, file) =>
+  request(`/api/deliverables/${deliverableId}/submissions?filename=${encodeURIComponent(file.name)}`, {
+    method: 'POST',
+    headers: { 'Content-Type': file.type },
+    body: file,
+  });
+
+/**
+ * Sends a file as a resumable upload: chunks go up a few at a time and are retried
+ * with backoff, and an interrupted upload continues with the chunks the server lacks.
+ * @param {function} onProgress - called with the fraction of chunks received (0..1)
+ * @returns {Promise<object>} the created submission
+ */
+export const submitFileResumable = async (deliverableId, file, onProgress = () => {}) => {
+  const key = sessionKey(deliverableId, file);
+  let session = null;
+  const savedId = localStorage.getItem(key);
+  if (savedId) {
+    session = await request(`/api/uploads/${savedId}`).catch(() => null);
+  }
+  if (!session) {
+    session = await request(`/api/deliverables/${deliverableId}/uploads`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({
+        fileName: file.name,
+        contentType: file.type,
+        size: file.size,
+        sha256: await sha256Hex(file),
+      }),
+    });
+    localStorage.setItem(key, session.uploadId);
+  }
+
+  const received = new Set(session.receivedChunks);
+  const pending = [];
+  for (let index = 0; index < session.totalChunks; index++) {
+    if (!received.has(index)) pending.push(index);
+  }
+  onProgress(received.size / session.totalChunks);
+
+  const sendChunk = async (index) => {
+    const start = index * session.chunkSize;
+    const chunk = file.slice(start, Math.min(start + session.chunkSize, file.size));
+    for (let attempt = 1; ; attempt++) {
+      try {
+        await request(`/api/uploads/${session.uploadId}/chunks/${index}`, {
+          method: 'PUT',
+          headers: { 'Content-Type': 'application/octet-stream' },
+          body: chunk,
+        });
+        return;
+      } catch (err) {
+        // 4xx other than a timeout will not get better by retrying
+        if (attempt >= MAX_ATTEMPTS || (err.status >= 400 && err.status < 500 && err.status !== 408)) throw err;
+        await sleep(500 * 2 ** (attempt - 1));
+      }
+    }
+  };
+
+  const worker = async () => {
+    while (pending.length > 0) {
+      const index = pending.shift();
+      await sendChunk(index);
+      received.add(index);
+      onProgress(received.size / session.totalChunks);
+    }
+  };
+  await Promise.all(Array.from({ length: PARALLEL_CHUNKS }, worker));
+
+  try {
+    const submission = await request(`/api/uploads/${session.uploadId}/complete`, { method: 'POST' });
+    localStorage.removeItem(key);
+    return submission;
+  } catch (err) {
+    // The server answered, so the session is finished or unusable; a network error keeps it for a retry
+    if (err.status) localStorage.removeItem(key);
+    throw err;
+  }
+};
@@ -0,0 +1,61 @@
+// Admin user API
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080';
+
+const authHeaders = () => ({
+  Authorization: `Bearer ${localStorage.getItem('authToken')}`,
+});
+
+const request = async (path, options = {}) => {
+  const response = await fetch(`${API_BASE_URL}${path}`, {
+    ...options,
+    headers: { ...authHeaders(), ...options.headers },
+  });
+  const data = await response.json().catch(() => null);
+  if (!response.ok) {
+    throw new Error(data?.error || `Request failed (${response.status})`);
+  }
+  return data;
+};
+
+/**
+ * One page of users, filtered and sorted on the server.
+ * @param {object} filters - role, active, accountStatus, teamCode, department,
+ *   createdFrom, createdTo, search, sort, direction; empty values are left out
+ * @param {string|null} cursor - nextCursor from the previous page, or null for the first
+ * @returns {Promise<{items: Array, nextCursor: string|null}>}
+ */
+export const searchUsers = async (filters = {}, cursor = null, limit = 20) => {
+  const params = new URLSearchParams();
+  Object.entries(filters).forEach(([key, value]) => {
+    if (value !== undefined && value !== null && value !== '') {
+      params.append(key, value);
+    }
+  });
+  if (cursor) params.append('cursor', cursor);
+  params.append('limit', limit);
+  return request(`/api/admin/users/search?${params}`);
+};
+
+// Cached dashboard aggregates (totals by role and status); cheap enough to load with each list
+export const getUserStats = () => request('/api/admin/stats');
+
+// Passing the version the admin saw makes the server reject the change if the user was edited since
+const versionHeaders = (version) => (version != null ? { 'If-Match': `"v${version}"` } : {});
+
+export const deactivateUser = (userId, version) =>
+  request(`/api/admin/users/${userId}/deactivate`, { method: 'PUT', headers: versionHeaders(version) });
+
+export const reactivateUser = (userId, version) =>
+  request(`/api/admin/users/${userId}/reactivate`, { method: 'PUT', headers: versionHeaders(version) });
+
+// Returns the updated profile as soon as the photo is stored; thumbnails are made on the server
+export const uploadProfilePhoto = (userId, file) => {
+  const body = new FormData();
+  body.append('photo', file);
+  return request(`/api/users/${userId}/photo`, { method: 'PUT', body });
+};
+
+// Uploaded photos live at /api/photos/<sha256>/<size>; ask for the size that is shown.
+// External pictures (e.g. Google) are returned unchanged
+export const avatarUrl = (pictureUrl, size = 64) =>
+  pictureUrl ? pictureUrl.replace(/(\/api\/photos\/[0-9a-f]{64})\/\d+$/, `$1/${size}`) : null;